@@ -0,0 +1,404 @@
+package de.tum.ei.lkn.eces.graph;
+
+import de.tum.ei.lkn.eces.core.Controller;
+import de.tum.ei.lkn.eces.core.MapperSpace;
+import de.tum.ei.lkn.eces.core.RootSystem;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+
+/**
+ * Asynchronous front-end of a GraphSystem.
+ *
+ * Operations are queued and applied by a single writer thread, which takes
+ * all the operations queued so far (up to a maximum batch size) and applies
+ * them in one MapperSpace. Submitters never block on Component locks: they
+ * get a CompletableFuture that is completed once the batch of their
+ * operation has been committed, i.e., once its MapperSpace is closed. The
+ * futures are completed by an executor (the common pool by default), so that
+ * the callbacks chained to them never run on, and never hold back, the
+ * writer thread.
+ *
+ * Each operation succeeds or fails individually: an operation throwing an
+ * exception (e.g., a GraphException raised by the GraphSystem before any
+ * change) only fails its own future. Operations are not rolled back: the
+ * changes an operation made before throwing are committed with the rest of
+ * its batch. If the commit of a batch fails, all its futures fail, and if
+ * the writer thread stops abnormally, the queued operations fail and new
+ * ones are refused.
+ *
+ * @author Amaury Van Bemten
+ */
+public class AsyncGraphSystem extends RootSystem implements AutoCloseable {
+	/**
+	 * Default maximum number of operations per batch.
+	 */
+	public static final int DEFAULT_MAX_BATCH_SIZE = 1024;
+
+	/**
+	 * GraphSystem applying the operations.
+	 */
+	private final GraphSystem graphSystem;
+
+	/**
+	 * Maximum number of operations per batch.
+	 */
+	private final int maxBatchSize;
+
+	/**
+	 * Executor completing the futures.
+	 */
+	private final Executor completionExecutor;
+
+	/**
+	 * Operations waiting for the writer thread.
+	 */
+	private final BlockingQueue<Operation<?>> queue = new LinkedBlockingQueue<>();
+
+	/**
+	 * Writer thread.
+	 */
+	private final Thread writer;
+
+	/**
+	 * Whether new operations are refused.
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * Held in shared mode by submitters between the closed check and the
+	 * enqueue, and in exclusive mode by close() to enqueue STOP, so that no
+	 * operation can be queued behind STOP.
+	 */
+	private final StampedLock closeLock = new StampedLock();
+
+	/**
+	 * Number of batches applied.
+	 */
+	private final AtomicLong batchCount = new AtomicLong();
+
+	/**
+	 * Number of operations applied.
+	 */
+	private final AtomicLong operationCount = new AtomicLong();
+
+	/**
+	 * Marker operation stopping the writer thread.
+	 */
+	private static final Operation<Void> STOP = new Operation<>(null);
+
+	/**
+	 * Creates an asynchronous front-end with the default batch size.
+	 * @param controller Controller of the GraphSystem.
+	 * @param graphSystem GraphSystem applying the operations.
+	 */
+	public AsyncGraphSystem(Controller controller, GraphSystem graphSystem) {
+		this(controller, graphSystem, DEFAULT_MAX_BATCH_SIZE);
+	}
+
+	/**
+	 * Creates an asynchronous front-end.
+	 * @param controller Controller of the GraphSystem.
+	 * @param graphSystem GraphSystem applying the operations.
+	 * @param maxBatchSize Maximum number of operations per MapperSpace.
+	 * @throws GraphException if the batch size is not positive.
+	 */
+	public AsyncGraphSystem(Controller controller, GraphSystem graphSystem, int maxBatchSize) {
+		this(controller, graphSystem, maxBatchSize, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates an asynchronous front-end completing its futures with a given
+	 * executor.
+	 * @param controller Controller of the GraphSystem.
+	 * @param graphSystem GraphSystem applying the operations.
+	 * @param maxBatchSize Maximum number of operations per MapperSpace.
+	 * @param completionExecutor Executor completing the futures, and thus
+	 *                           running the callbacks chained to them.
+	 * @throws GraphException if the batch size is not positive.
+	 */
+	public AsyncGraphSystem(Controller controller, GraphSystem graphSystem, int maxBatchSize, Executor completionExecutor) {
+		super(controller);
+		if(maxBatchSize <= 0)
+			throw new GraphException("The batch size must be positive");
+		this.graphSystem = graphSystem;
+		this.maxBatchSize = maxBatchSize;
+		this.completionExecutor = completionExecutor;
+		this.writer = new Thread(this::run, "async-graph-writer");
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+
+	/**
+	 * Queued operation and its future.
+	 * @param <T> Result type.
+	 */
+	private static final class Operation<T> {
+		private final Function<GraphSystem, T> action;
+		private final CompletableFuture<T> future = new CompletableFuture<>();
+		private T result;
+		private Throwable failure;
+		private boolean completing;
+
+		private Operation(Function<GraphSystem, T> action) {
+			this.action = action;
+		}
+
+		private void apply(GraphSystem graphSystem) {
+			try {
+				result = action.apply(graphSystem);
+			} catch(Throwable e) {
+				failure = e;
+			}
+		}
+
+		/**
+		 * Completes the future with the executor, or in place if the
+		 * executor refuses. Only the first call has an effect.
+		 * @param executor Executor.
+		 */
+		private void complete(Executor executor) {
+			if(completing)
+				return;
+			completing = true;
+			try {
+				executor.execute(this::completeNow);
+			} catch(RejectedExecutionException e) {
+				completeNow();
+			}
+		}
+
+		/**
+		 * Fails the future with the executor, keeping the failure of the
+		 * operation itself if it has one.
+		 * @param cause Failure.
+		 * @param executor Executor.
+		 */
+		private void fail(Throwable cause, Executor executor) {
+			if(failure == null)
+				failure = cause;
+			complete(executor);
+		}
+
+		private void completeNow() {
+			if(failure == null)
+				future.complete(result);
+			else
+				future.completeExceptionally(failure);
+		}
+	}
+
+	/**
+	 * Queues an arbitrary operation on the GraphSystem.
+	 * @param action Operation, run on the writer thread inside the
+	 *               MapperSpace of its batch.
+	 * @param <T> Result type.
+	 * @return future completed with the result of the operation once its
+	 *         batch is committed.
+	 */
+	public <T> CompletableFuture<T> submit(Function<GraphSystem, T> action) {
+		Operation<T> operation = new Operation<>(action);
+		long stamp = closeLock.readLock();
+		try {
+			if(closed)
+				operation.future.completeExceptionally(new GraphException("AsyncGraphSystem is closed"));
+			else
+				queue.add(operation);
+		} finally {
+			closeLock.unlockRead(stamp);
+		}
+		return operation.future;
+	}
+
+	/**
+	 * Asynchronously creates a Node.
+	 * @param graph the target Graph.
+	 * @param name Name of the Node.
+	 * @return future of the new Node.
+	 */
+	public CompletableFuture<Node> createNodeAsync(Graph graph, String name) {
+		return submit(system -> system.createNode(graph, name));
+	}
+
+	/**
+	 * Asynchronously creates an unnamed Node.
+	 * @param graph the target Graph.
+	 * @return future of the new Node.
+	 */
+	public CompletableFuture<Node> createNodeAsync(Graph graph) {
+		return submit(system -> system.createNode(graph));
+	}
+
+	/**
+	 * Asynchronously deletes a Node and all Edges connected to it.
+	 * @param node Node to delete.
+	 * @return future completed once the Node is deleted.
+	 */
+	public CompletableFuture<Void> deleteNodeAsync(Node node) {
+		return submit(system -> {
+			system.deleteNode(node);
+			return null;
+		});
+	}
+
+	/**
+	 * Asynchronously creates an Edge.
+	 * @param srcNode source of the Edge.
+	 * @param dstNode destination of the Edge.
+	 * @param name Edge name.
+	 * @return future of the new Edge, failed with a GraphException if the
+	 *         Edge cannot be created.
+	 */
+	public CompletableFuture<Edge> createEdgeAsync(Node srcNode, Node dstNode, String name) {
+		return submit(system -> system.createEdge(srcNode, dstNode, name));
+	}
+
+	/**
+	 * Asynchronously creates an unnamed Edge.
+	 * @param srcNode source of the Edge.
+	 * @param dstNode destination of the Edge.
+	 * @return future of the new Edge, failed with a GraphException if the
+	 *         Edge cannot be created.
+	 */
+	public CompletableFuture<Edge> createEdgeAsync(Node srcNode, Node dstNode) {
+		return submit(system -> system.createEdge(srcNode, dstNode));
+	}
+
+	/**
+	 * Asynchronously deletes an Edge.
+	 * @param edge Edge to delete.
+	 * @return future completed once the Edge is deleted.
+	 */
+	public CompletableFuture<Void> deleteEdgeAsync(Edge edge) {
+		return submit(system -> {
+			system.deleteEdge(edge);
+			return null;
+		});
+	}
+
+	/**
+	 * Gets the number of batches applied so far.
+	 * @return number of batches.
+	 */
+	public long getBatchCount() {
+		return batchCount.get();
+	}
+
+	/**
+	 * Gets the number of operations applied so far.
+	 * @return number of operations.
+	 */
+	public long getOperationCount() {
+		return operationCount.get();
+	}
+
+	/**
+	 * Refuses new operations, applies the queued ones and stops the writer
+	 * thread.
+	 */
+	@Override
+	public void close() {
+		long stamp = closeLock.writeLock();
+		try {
+			if(closed)
+				return;
+			closed = true;
+			queue.add(STOP);
+		} finally {
+			closeLock.unlockWrite(stamp);
+		}
+		try {
+			writer.join();
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Writer loop.
+	 */
+	private void run() {
+		List<Operation<?>> batch = new ArrayList<>(maxBatchSize);
+		boolean stop = false;
+		try {
+			while(!stop) {
+				try {
+					batch.add(queue.take());
+				} catch(InterruptedException e) {
+					// Only close() stops the writer.
+					continue;
+				}
+				queue.drainTo(batch, maxBatchSize - 1);
+				if(batch.remove(STOP))
+					stop = true;
+				if(!batch.isEmpty())
+					applyBatch(batch);
+				batch.clear();
+			}
+		} catch(Throwable e) {
+			logger.error("Writer thread stopped", e);
+			abort(batch, e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Refuses new operations and fails the ones not completed yet, after the
+	 * writer loop stopped abnormally.
+	 * @param batch Operations of the current batch.
+	 * @param cause Failure that stopped the writer loop.
+	 */
+	private void abort(List<Operation<?>> batch, Throwable cause) {
+		long stamp = closeLock.writeLock();
+		try {
+			closed = true;
+		} finally {
+			closeLock.unlockWrite(stamp);
+		}
+		GraphException failure = new GraphException("AsyncGraphSystem writer stopped: " + cause);
+		failure.initCause(cause);
+		// No operation can be queued anymore.
+		queue.drainTo(batch);
+		for(Operation<?> operation : batch)
+			if(operation != STOP)
+				operation.fail(failure, completionExecutor);
+	}
+
+	/**
+	 * Applies a batch of operations in one MapperSpace and completes their
+	 * futures once it is closed. Errors failing the commit are rethrown, once
+	 * the futures of the batch are failed, and stop the writer loop.
+	 * @param batch Operations.
+	 */
+	private void applyBatch(List<Operation<?>> batch) {
+		try {
+			try(MapperSpace ms = controller.startMapperSpace()) {
+				for(Operation<?> operation : batch)
+					operation.apply(graphSystem);
+			}
+		} catch(Throwable e) {
+			logger.error("Batch of " + batch.size() + " operations failed on commit", e);
+			// Edges of the batch may be left pending by the aborted commit.
+			graphSystem.discardUncommittedEdges();
+			for(Operation<?> operation : batch)
+				operation.fail(e, completionExecutor);
+			if(e instanceof Error)
+				throw (Error) e;
+			return;
+		}
+		batchCount.incrementAndGet();
+		operationCount.addAndGet(batch.size());
+		for(Operation<?> operation : batch)
+			operation.complete(completionExecutor);
+	}
+}
@@ -0,0 +1,101 @@
+package de.tum.ei.lkn.eces.graph;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe, lock-free set iterating in insertion order.
+ *
+ * Each added element gets a sequence number from a shared counter. An index
+ * map gives the sequence number of each element and a skip list gives the
+ * elements by sequence number. Adds and removes of different elements do
+ * not contend on any lock. Iterators are weakly consistent: they never
+ * throw ConcurrentModificationException and reflect some, not necessarily
+ * all, of the modifications made after their creation.
+ *
+ * @param <E> Element type.
+ * @author Amaury Van Bemten
+ */
+final class ConcurrentInsertionOrderedSet<E> extends AbstractSet<E> {
+	/**
+	 * Next sequence number.
+	 */
+	private final AtomicLong sequence = new AtomicLong();
+
+	/**
+	 * Sequence number of each element.
+	 */
+	private final ConcurrentHashMap<E, Long> indices = new ConcurrentHashMap<>();
+
+	/**
+	 * Elements by sequence number.
+	 */
+	private final ConcurrentSkipListMap<Long, E> elements = new ConcurrentSkipListMap<>();
+
+	@Override
+	public int size() {
+		return indices.size();
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return indices.containsKey(o);
+	}
+
+	@Override
+	public boolean add(E e) {
+		Long index = sequence.getAndIncrement();
+		if(indices.putIfAbsent(e, index) != null)
+			return false;
+		elements.put(index, e);
+		// A concurrent removal may have missed the entry that was just put.
+		if(!index.equals(indices.get(e)))
+			elements.remove(index);
+		return true;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		Long index = indices.remove(o);
+		if(index == null)
+			return false;
+		elements.remove(index);
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		for(E e : indices.keySet())
+			remove(e);
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		Iterator<E> iterator = elements.values().iterator();
+		return new Iterator<E>() {
+			private E last;
+
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public E next() {
+				last = iterator.next();
+				return last;
+			}
+
+			@Override
+			public void remove() {
+				if(last == null)
+					throw new IllegalStateException();
+				ConcurrentInsertionOrderedSet.this.remove(last);
+				last = null;
+			}
+		};
+	}
+}
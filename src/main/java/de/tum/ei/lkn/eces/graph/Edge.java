@@ -93,7 +93,8 @@ public class Edge extends Component {
 	 * @param name Name.
 	 */
 	protected void setName(String name) {
-		this.name = name;
+		// Unnamed Edges all share the same (interned) empty String.
+		this.name = (name == null || name.isEmpty()) ? "" : name;
 	}
 
 	/**
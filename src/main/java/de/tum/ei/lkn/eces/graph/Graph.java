@@ -2,11 +2,14 @@ package de.tum.ei.lkn.eces.graph;
 
 import de.tum.ei.lkn.eces.core.Component;
 import de.tum.ei.lkn.eces.core.annotations.ComponentBelongsTo;
+import de.tum.ei.lkn.eces.graph.tracing.GraphTracing;
+import de.tum.ei.lkn.eces.graph.tracing.OperationTrace;
 
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
 
 /**
  * Class representing a generic Graph.
@@ -17,21 +20,51 @@ import java.util.Set;
 @ComponentBelongsTo(system = GraphSystem.class)
 public class Graph extends Component {
 	/**
-	 * Set of all the Nodes of the Graph.
+	 * Set of all the Nodes of the Graph, in insertion order.
 	 * */
-	protected Set<Node> nodes;
+	protected volatile Set<Node> nodes;
 
 	/**
-	 * Set of all the Edges of the Graph.
+	 * Set of all the Edges of the Graph, in insertion order.
 	 */
-	protected Set<Edge> edges;
+	protected volatile Set<Edge> edges;
+
+	/**
+	 * Whether Nodes and Edges can be added and removed concurrently without
+	 * updating the Graph Component.
+	 */
+	private volatile boolean concurrent;
+
+	/**
+	 * Taken in shared mode by the changes applied directly to the
+	 * concurrent sets, and in exclusive mode to switch the mode, so that no
+	 * change is lost while the sets are copied.
+	 */
+	private final StampedLock modeLock = new StampedLock();
+
+	/**
+	 * Whether the Graph must remain a directed acyclic Graph.
+	 */
+	private volatile boolean acyclic;
+
+	/**
+	 * Structural version, incremented after each addition or removal of a
+	 * Node or an Edge and after each change of the adjacency of a Node.
+	 */
+	private final AtomicLong version = new AtomicLong();
+
+	/**
+	 * Edges accepted by the cycle check of an acyclic Graph and not yet in
+	 * the adjacency of their source Node.
+	 */
+	private final PendingEdges pendingEdges = new PendingEdges();
 
 	/**
 	 * Creates a new empty Graph.
 	 */
 	protected Graph() {
-		nodes = new HashSet<>();
-		edges = new HashSet<>();
+		nodes = new InsertionOrderedSet<>();
+		edges = new InsertionOrderedSet<>();
 	}
 
 	/**
@@ -39,7 +72,8 @@ public class Graph extends Component {
 	 * @param node Node to add.
 	 */
 	protected void addNode(Node node) {
-		nodes.add(node);
+		if(nodes.add(node))
+			structureChanged();
 	}
 
 	/**
@@ -47,11 +81,14 @@ public class Graph extends Component {
 	 * @param node Node to remove.
 	 */
 	protected void removeNode(Node node) {
-		nodes.remove(node);
+		if(nodes.remove(node))
+			structureChanged();
 	}
 
 	/**
-	 * Gets the Nodes of the Graph.
+	 * Gets the Nodes of the Graph. The iteration order is the order in which
+	 * the Nodes were added.
+	 * In concurrent mode, the returned view is weakly consistent.
 	 * @return the nodes of the Graph.
 	 */
 	public Set<Node> getNodes() {
@@ -63,7 +100,8 @@ public class Graph extends Component {
 	 * @param edge Edge to add.
 	 */
 	protected void addEdge(Edge edge) {
-		edges.add(edge);
+		if(edges.add(edge))
+			structureChanged();
 	}
 
 	/**
@@ -71,45 +109,158 @@ public class Graph extends Component {
 	 * @param edge Edge to remove.
 	 */
 	protected void removeEdge(Edge edge) {
-		edges.remove(edge);
+		if(edges.remove(edge))
+			structureChanged();
 	}
 
 	/**
-	 * Gets the Edges of the Graph.
+	 * Gets the Edges of the Graph. The iteration order is the order in which
+	 * the Edges were added.
+	 * In concurrent mode, the returned view is weakly consistent.
 	 * @return the Edges of the Graph.
 	 */
 	public Set<Edge> getEdges() {
 		return Collections.unmodifiableSet(edges);
 	}
 
+	/**
+	 * Gets the structural version of the Graph. The version changes each
+	 * time a Node or an Edge is added to or removed from the Graph, and each
+	 * time the adjacency of one of its Nodes changes, so that derived data
+	 * (caches, compact views, ...) can detect that they are stale. The
+	 * version is incremented after the change is made: data derived after
+	 * reading a version is stale as soon as the version differs, even if it
+	 * was derived while an operation was only partly applied.
+	 * @return current version.
+	 */
+	public long getVersion() {
+		return version.get();
+	}
+
+	/**
+	 * Increments the structural version. Called after each change of the
+	 * Node and Edge sets and of the adjacency of the Nodes.
+	 */
+	void structureChanged() {
+		version.incrementAndGet();
+	}
+
+	/**
+	 * Tells whether the Graph is flagged as a directed acyclic Graph. Edge
+	 * creations closing a cycle are then rejected by the GraphSystem.
+	 * @return true if the Graph must remain acyclic.
+	 */
+	public boolean isAcyclic() {
+		return acyclic;
+	}
+
+	/**
+	 * Flags or unflags the Graph as a directed acyclic Graph.
+	 * @param acyclic true if the Graph must remain acyclic.
+	 */
+	protected void setAcyclic(boolean acyclic) {
+		this.acyclic = acyclic;
+	}
+
+	/**
+	 * Gets the Edges accepted by the cycle check and not yet in the
+	 * adjacency of their source Node.
+	 * @return the pending Edges.
+	 */
+	PendingEdges getPendingEdges() {
+		return pendingEdges;
+	}
+
+	/**
+	 * Tells whether the Graph is in concurrent mode. In this mode, the sets
+	 * of Nodes and Edges are thread-safe and the GraphSystem adds and
+	 * removes Nodes and Edges without updating (and hence locking) the Graph
+	 * Component. Only the Nodes touched by an operation are updated.
+	 * @return true if the Graph is in concurrent mode.
+	 */
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * Switches the Graph to or from concurrent mode. The Nodes and Edges are
+	 * moved to a store of the new kind, keeping their order. The switch
+	 * waits for the changes being applied by changeConcurrently() and
+	 * blocks the next ones until the new sets are in place.
+	 * @param concurrent true for concurrent mode.
+	 */
+	protected void setConcurrent(boolean concurrent) {
+		long stamp = modeLock.writeLock();
+		try {
+			if(this.concurrent == concurrent)
+				return;
+			Set<Node> newNodes = concurrent ? new ConcurrentInsertionOrderedSet<>() : new InsertionOrderedSet<>();
+			Set<Edge> newEdges = concurrent ? new ConcurrentInsertionOrderedSet<>() : new InsertionOrderedSet<>();
+			newNodes.addAll(nodes);
+			newEdges.addAll(edges);
+			nodes = newNodes;
+			edges = newEdges;
+			this.concurrent = concurrent;
+		} finally {
+			modeLock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Applies a change to the Node or Edge sets right away if the Graph is
+	 * in concurrent mode. The mode cannot be switched while the change is
+	 * applied.
+	 * @param change Change to apply.
+	 * @return false if the Graph is not in concurrent mode, in which case
+	 *         the change was not applied.
+	 */
+	boolean changeConcurrently(Runnable change) {
+		long stamp = modeLock.readLock();
+		try {
+			if(!concurrent)
+				return false;
+			change.run();
+			return true;
+		} finally {
+			modeLock.unlockRead(stamp);
+		}
+	}
+
 	/**
 	* Creates a GML representation of the Graph.
 	* @return String.
 	*/
 	public String toGML() {
-		StringBuilder out = new StringBuilder("graph [\n");
-		out.append("\tdirected 1\n");
-		out.append("\tid ").append(this.getId()).append("\n");
-
-		// Printing each node definition.
-		for(Node node : this.getNodes()) {
-		out.append("\t node [\n");
-		out.append("\t\tid ").append(node.getId()).append("\n");
-		out.append("\t]\n");
-		}
+		OperationTrace event = GraphTracing.beginOperation("toGML");
+		boolean failed = true;
+		try {
+			StringBuilder out = new StringBuilder("graph [\n");
+			out.append("\tdirected 1\n");
+			out.append("\tid ").append(this.getId()).append("\n");
 
-		// Printing each edge definition.
-		for(Node node : this.getNodes()) {
-			List<Edge> connections = node.getIncomingConnections();
-			for(Edge e : connections) {
-				out.append("\tedge [\n");
-				out.append("\t\t source ").append(e.getSource().getId()).append("\n");
-				out.append("\t\t target ").append(e.getDestination().getId()).append("\n");
-				out.append("\t]\n");
+			// Printing each node definition.
+			for(Node node : this.getNodes()) {
+			out.append("\t node [\n");
+			out.append("\t\tid ").append(node.getId()).append("\n");
+			out.append("\t]\n");
 			}
-		}
 
-		out.append("]\n");
-		return out.toString();
+			// Printing each edge definition.
+			for(Node node : this.getNodes()) {
+				List<Edge> connections = node.getIncomingConnections();
+				for(Edge e : connections) {
+					out.append("\tedge [\n");
+					out.append("\t\t source ").append(e.getSource().getId()).append("\n");
+					out.append("\t\t target ").append(e.getDestination().getId()).append("\n");
+					out.append("\t]\n");
+				}
+			}
+
+			out.append("]\n");
+			failed = false;
+			return out.toString();
+		} finally {
+			event.finish(this, 0, failed);
+		}
 	}
 }
@@ -0,0 +1,192 @@
+package de.tum.ei.lkn.eces.graph;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Set of Node and Edge additions and removals turning a Graph into another
+ * one, as computed by GraphSystem#diff and applied by
+ * GraphSystem#applyPatch. Nodes are identified by name, Edges by the names
+ * of their source and destination Nodes and their own name. Names are the
+ * only identification shared by two Graphs, so both Graphs must give a
+ * unique name to every Node: a Graph with several unnamed Nodes is
+ * rejected.
+ *
+ * @author Amaury Van Bemten
+ */
+public final class GraphPatch {
+	/**
+	 * Graph to which the patch applies.
+	 */
+	private final Graph graph;
+
+	/**
+	 * Version of the Graph when the patch was computed.
+	 */
+	private final long baseVersion;
+
+	/**
+	 * Nodes of the Graph to remove.
+	 */
+	private final List<Node> removedNodes;
+
+	/**
+	 * Names of the Nodes to add.
+	 */
+	private final List<String> addedNodes;
+
+	/**
+	 * Edges of the Graph to remove.
+	 */
+	private final List<Edge> removedEdges;
+
+	/**
+	 * Edges to add.
+	 */
+	private final List<EdgeSignature> addedEdges;
+
+	GraphPatch(Graph graph, long baseVersion, List<Node> removedNodes, List<String> addedNodes, List<Edge> removedEdges, List<EdgeSignature> addedEdges) {
+		this.graph = graph;
+		this.baseVersion = baseVersion;
+		this.removedNodes = Collections.unmodifiableList(removedNodes);
+		this.addedNodes = Collections.unmodifiableList(addedNodes);
+		this.removedEdges = Collections.unmodifiableList(removedEdges);
+		this.addedEdges = Collections.unmodifiableList(addedEdges);
+	}
+
+	/**
+	 * Gets the Graph to which the patch applies.
+	 * @return the Graph.
+	 */
+	public Graph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Gets the version of the Graph for which the patch was computed. The
+	 * patch cannot be applied once the Graph has changed.
+	 * @return the base version.
+	 */
+	public long getBaseVersion() {
+		return baseVersion;
+	}
+
+	/**
+	 * Gets the Nodes to remove. All the Edges connected to them are in the
+	 * Edges to remove.
+	 * @return the Nodes.
+	 */
+	public List<Node> getRemovedNodes() {
+		return removedNodes;
+	}
+
+	/**
+	 * Gets the names of the Nodes to add.
+	 * @return the names.
+	 */
+	public List<String> getAddedNodes() {
+		return addedNodes;
+	}
+
+	/**
+	 * Gets the Edges to remove.
+	 * @return the Edges.
+	 */
+	public List<Edge> getRemovedEdges() {
+		return removedEdges;
+	}
+
+	/**
+	 * Gets the Edges to add.
+	 * @return the Edge signatures.
+	 */
+	public List<EdgeSignature> getAddedEdges() {
+		return addedEdges;
+	}
+
+	/**
+	 * Gets the number of mutations of the patch.
+	 * @return number of Node and Edge additions and removals.
+	 */
+	public int size() {
+		return removedNodes.size() + addedNodes.size() + removedEdges.size() + addedEdges.size();
+	}
+
+	/**
+	 * Tells whether the patch has no mutation.
+	 * @return true if the two Graphs were identical.
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public String toString() {
+		return "GraphPatch(-" + removedNodes.size() + "/+" + addedNodes.size() + " Nodes, -" + removedEdges.size() + "/+" + addedEdges.size() + " Edges)";
+	}
+
+	/**
+	 * Identification of an Edge by names: name of the source Node, name of
+	 * the destination Node and name of the Edge.
+	 */
+	public static final class EdgeSignature {
+		private final String sourceName;
+		private final String destinationName;
+		private final String name;
+
+		EdgeSignature(String sourceName, String destinationName, String name) {
+			this.sourceName = sourceName;
+			this.destinationName = destinationName;
+			this.name = name;
+		}
+
+		EdgeSignature(Edge edge) {
+			this(edge.getSource().getName(), edge.getDestination().getName(), edge.getName());
+		}
+
+		/**
+		 * Gets the name of the source Node.
+		 * @return the name.
+		 */
+		public String getSourceName() {
+			return sourceName;
+		}
+
+		/**
+		 * Gets the name of the destination Node.
+		 * @return the name.
+		 */
+		public String getDestinationName() {
+			return destinationName;
+		}
+
+		/**
+		 * Gets the name of the Edge.
+		 * @return the name.
+		 */
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if(this == o)
+				return true;
+			if(!(o instanceof EdgeSignature))
+				return false;
+			EdgeSignature other = (EdgeSignature) o;
+			return sourceName.equals(other.sourceName) && destinationName.equals(other.destinationName) && name.equals(other.name);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(sourceName, destinationName, name);
+		}
+
+		@Override
+		public String toString() {
+			return sourceName + " -> " + destinationName + (name.isEmpty() ? "" : " (" + name + ")");
+		}
+	}
+}
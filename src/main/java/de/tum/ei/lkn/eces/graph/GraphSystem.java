@@ -4,14 +4,26 @@ import de.tum.ei.lkn.eces.core.Controller;
 import de.tum.ei.lkn.eces.core.Entity;
 import de.tum.ei.lkn.eces.core.MapperSpace;
 import de.tum.ei.lkn.eces.core.RootSystem;
+import de.tum.ei.lkn.eces.graph.algorithms.TopologicalSort;
 import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
 import de.tum.ei.lkn.eces.graph.mappers.EdgeMapper;
 import de.tum.ei.lkn.eces.graph.mappers.GraphMapper;
 import de.tum.ei.lkn.eces.graph.mappers.NodeMapper;
-
+import de.tum.ei.lkn.eces.graph.tracing.GraphTracing;
+import de.tum.ei.lkn.eces.graph.tracing.OperationTrace;
+import de.tum.ei.lkn.eces.graph.tracing.PhaseTrace;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * System handling a Graph.
@@ -35,6 +47,12 @@ public class GraphSystem  extends RootSystem {
 	 */
 	private NodeMapper nodeMapper;
 
+	/**
+	 * Edges whose creation was started by each thread and which are not yet
+	 * in the adjacency of their end Nodes.
+	 */
+	private final ThreadLocal<Set<EdgeBatch>> uncommittedEdges = ThreadLocal.withInitial(()->Collections.newSetFromMap(new IdentityHashMap<>()));
+
 	/**
 	 * Creates a new GraphSystem.
 	 * @param controller Controller responsible for the GraphSystem.
@@ -71,19 +89,37 @@ public class GraphSystem  extends RootSystem {
 	 * @param graph Graph to be deleted.
 	 */
 	public void deleteGraph(Graph graph) {
-		try(MapperSpace ms = controller.startMapperSpace()) {
-			graphMapper.acquireReadLock(graph);
-			for(Edge edge : graph.getEdges())
-				deleteEdge(edge);
-
-			for(Node node : graph.getNodes()) {
-				nodeMapper.detachComponent(node);
-				graphMapper.updateComponent(graph, ()->graph.removeNode(node));
+		OperationTrace event = GraphTracing.beginOperation("deleteGraph");
+		PhaseTrace commit;
+		int affected = 0;
+		boolean failed = true;
+		try {
+			try(MapperSpace ms = controller.startMapperSpace()) {
+				PhaseTrace lock = GraphTracing.beginPhase("deleteGraph", PhaseTrace.LOCK);
+				graphMapper.acquireReadLock(graph);
+				lock.finish();
+
+				PhaseTrace update = GraphTracing.beginPhase("deleteGraph", PhaseTrace.UPDATE);
+				affected = graph.getNodes().size() + graph.getEdges().size();
+				// All the Nodes go away: their adjacency is cleared rather than shrunk Edge by Edge.
+				for(Edge edge : graph.getEdges())
+					deleteEdge(graph, edge, true, true);
+
+				for(Node node : graph.getNodes()) {
+					nodeMapper.detachComponent(node);
+					updateGraph(graph, ()->graph.removeNode(node));
+				}
+
+				graphMapper.detachComponent(graph);
+				update.finish();
+
+				logger.info(graph + " deletion triggered.");
+				commit = GraphTracing.beginPhase("deleteGraph", PhaseTrace.COMMIT);
 			}
-
-			graphMapper.detachComponent(graph);
-
-			logger.info(graph + " deletion triggered.");
+			commit.finish();
+			failed = false;
+		} finally {
+			event.finish(graph, affected, failed);
 		}
 	}
 
@@ -97,6 +133,72 @@ public class GraphSystem  extends RootSystem {
 		}
 	}
 
+	/**
+	 * Flags or unflags a Graph as a directed acyclic Graph. While flagged,
+	 * the creation of an Edge closing a directed cycle is rejected.
+	 *
+	 * When flagging, the Edges whose creation started without cycle check
+	 * are waited for before the Graph is checked, so that they cannot go
+	 * unnoticed. The calling thread must hence not be creating Edges in the
+	 * Graph in an open MapperSpace.
+	 * @param graph Graph to flag.
+	 * @param acyclic true if the Graph must remain acyclic.
+	 * @throws GraphException if the Graph is flagged while it already has a
+	 *                        cycle or while the calling thread is creating
+	 *                        Edges in it.
+	 */
+	public void setAcyclic(Graph graph, boolean acyclic) {
+		PendingEdges pending = graph.getPendingEdges();
+		if(acyclic && !graph.isAcyclic()) {
+			for(EdgeBatch batch : uncommittedEdges.get())
+				if(batch.graph == graph && !batch.checked)
+					throw new GraphException(graph + " cannot be flagged as acyclic while Edges are being created in it by the same thread");
+
+			// From now on, creations are checked under the monitor.
+			synchronized(pending) {
+				graph.setAcyclic(true);
+			}
+			pending.awaitUnchecked();
+			synchronized(pending) {
+				if(TopologicalSort.hasCycle(graph)) {
+					graph.setAcyclic(false);
+					throw new GraphException(graph + " has a cycle and cannot be flagged as acyclic");
+				}
+			}
+		}
+		else if(!acyclic) {
+			synchronized(pending) {
+				graph.setAcyclic(false);
+			}
+		}
+
+		try(MapperSpace ms = controller.startMapperSpace()) {
+			// The flag is already set, the update notifies the listeners.
+			graphMapper.updateComponent(graph, ()->{});
+		}
+	}
+
+	/**
+	 * Switches a Graph to or from concurrent mode. In concurrent mode, Nodes
+	 * and Edges are added to and removed from the Graph without updating the
+	 * Graph Component, so that operations touching disjoint Nodes do not
+	 * serialize on the Graph. Only the touched Nodes are updated. The Graph
+	 * does not get update events for these operations and its Nodes and
+	 * Edges are visible as soon as they are created, before the Node and Edge
+	 * Components are. On Graphs flagged as acyclic, the cycle check of new
+	 * Edges and the changes of the adjacency of the Nodes are made under a
+	 * per-Graph monitor, so that concurrent Edge creations cannot close a
+	 * cycle. The switch waits for the Graph changes being applied by other
+	 * threads.
+	 * @param graph Graph to switch.
+	 * @param concurrent true for concurrent mode.
+	 */
+	public void setConcurrent(Graph graph, boolean concurrent) {
+		try(MapperSpace ms = controller.startMapperSpace()) {
+			graphMapper.updateComponent(graph, ()->graph.setConcurrent(concurrent));
+		}
+	}
+
 	/**
 	* Creates a Node as a Component of a new Entity and adds it to
 	* the given Graph.
@@ -141,38 +243,121 @@ public class GraphSystem  extends RootSystem {
 		// Create the Node object and add it to the Entity.
 		Node node = new Node(graph, name);
 
-		try(MapperSpace ms = controller.startMapperSpace()) {
-			// Update Graph before to avoid updating Nodes if the Graph is write-protected.
-			graphMapper.updateComponent(graph, ()->graph.addNode(node));
-			nodeMapper.attachComponent(entity, node);
-
-			logger.info(node + " creation in " + graph + " triggered.");
+		OperationTrace event = GraphTracing.beginOperation("createNode");
+		PhaseTrace commit;
+		boolean failed = true;
+		try {
+			try(MapperSpace ms = controller.startMapperSpace()) {
+				PhaseTrace update = GraphTracing.beginPhase("createNode", PhaseTrace.UPDATE);
+				// Update Graph before to avoid updating Nodes if the Graph is write-protected.
+				updateGraph(graph, ()->graph.addNode(node));
+				nodeMapper.attachComponent(entity, node);
+				update.finish();
+
+				logger.info(node + " creation in " + graph + " triggered.");
+				commit = GraphTracing.beginPhase("createNode", PhaseTrace.COMMIT);
+			}
+			commit.finish();
+			failed = false;
+		} finally {
+			event.finish(graph, 1, failed);
 		}
 
 		return node;
 	}
 
+	/**
+	 * Creates many Nodes at once, each as a Component of a new Entity. The
+	 * Graph is updated only once for all the Nodes.
+	 * @param graph the target Graph.
+	 * @param names Names of the Nodes (null entries for unnamed Nodes).
+	 * @return the new Node instances, in the order of the names.
+	 */
+	public Node[] createNodes(Graph graph, String[] names) {
+		Node[] nodes = new Node[names.length];
+		for(int i = 0; i < names.length; i++)
+			nodes[i] = new Node(graph, names[i]);
+
+		OperationTrace event = GraphTracing.beginOperation("createNodes");
+		PhaseTrace commit;
+		boolean failed = true;
+		try {
+			try(MapperSpace ms = controller.startMapperSpace()) {
+				PhaseTrace update = GraphTracing.beginPhase("createNodes", PhaseTrace.UPDATE);
+				// Update Graph before to avoid updating Nodes if the Graph is write-protected.
+				updateGraph(graph, ()->{
+					for(Node node : nodes)
+						graph.addNode(node);
+				});
+				for(Node node : nodes)
+					nodeMapper.attachComponent(controller.createEntity(), node);
+				update.finish();
+
+				logger.info(nodes.length + " Nodes creation in " + graph + " triggered.");
+				commit = GraphTracing.beginPhase("createNodes", PhaseTrace.COMMIT);
+			}
+			commit.finish();
+			failed = false;
+		} finally {
+			event.finish(graph, nodes.length, failed);
+		}
+
+		return nodes;
+	}
+
 	/**
 	 * Deletes a Node and all Edges connected to it.
 	 * @param node Node to delete.
 	 */
 	public void deleteNode(Node node) {
-		try(MapperSpace ms = controller.startMapperSpace()) {
-			nodeMapper.acquireReadLock(node);
-			Graph graph = node.getGraph();
-			// Update Graph before to avoid updating Nodes if the Graph is write-protected.
-			graphMapper.updateComponent(graph, ()->graph.removeNode(node));
-
-			List<Edge> outgoingConnections = node.getOutgoingConnections();
-			for(Edge edge : outgoingConnections)
-				deleteEdge(edge);
-
-			List<Edge> incomingConnections = node.getIncomingConnections();
-			for(Edge edge : incomingConnections)
-				deleteEdge(edge);
-			nodeMapper.detachComponent(node);
+		OperationTrace event = GraphTracing.beginOperation("deleteNode");
+		PhaseTrace commit;
+		Graph graph = node.getGraph();
+		int affected = 1;
+		boolean failed = true;
+		try {
+			try(MapperSpace ms = controller.startMapperSpace()) {
+				PhaseTrace lock = GraphTracing.beginPhase("deleteNode", PhaseTrace.LOCK);
+				nodeMapper.acquireReadLock(node);
+				Edge[] outgoingConnections = node.copyOutgoingConnections();
+				Edge[] incomingConnections = node.copyIncomingConnections();
+				// The neighbours lose an Edge: each one is locked once before being updated.
+				Set<Node> neighbours = Collections.newSetFromMap(new IdentityHashMap<>());
+				neighbours.add(node);
+				for(Edge edge : outgoingConnections)
+					if(neighbours.add(edge.getDestination()))
+						nodeMapper.acquireReadLock(edge.getDestination());
+				for(Edge edge : incomingConnections)
+					if(neighbours.add(edge.getSource()))
+						nodeMapper.acquireReadLock(edge.getSource());
+				lock.finish();
+
+				PhaseTrace update = GraphTracing.beginPhase("deleteNode", PhaseTrace.UPDATE);
+				// Update Graph before to avoid updating Nodes if the Graph is write-protected.
+				updateGraph(graph, ()->graph.removeNode(node));
+
+				// The adjacency of the deleted Node is cleared rather than shrunk Edge by Edge.
+				for(Edge edge : outgoingConnections) {
+					deleteEdge(graph, edge, true, edge.getDestination() == node);
+					affected++;
+				}
+
+				for(Edge edge : incomingConnections) {
+					if(edge.getSource() != node) { // Self-loops were deleted with the outgoing Edges.
+						deleteEdge(graph, edge, false, true);
+						affected++;
+					}
+				}
+				nodeMapper.detachComponent(node);
+				update.finish();
 
-			logger.info(node + " deletion from " + node.getGraph() + " triggered.");
+				logger.info(node + " deletion from " + node.getGraph() + " triggered.");
+				commit = GraphTracing.beginPhase("deleteNode", PhaseTrace.COMMIT);
+			}
+			commit.finish();
+			failed = false;
+		} finally {
+			event.finish(graph, affected, failed);
 		}
 	}
 
@@ -216,7 +401,9 @@ public class GraphSystem  extends RootSystem {
 	 * @param name Edge name.
 	 * @param entity Entity object that will carry the Edge Component.
 	 * @return the new Edge instance.
-	 * @throws GraphException if the two Nodes do not belong to the same Graph.
+	 * @throws GraphException if the two Nodes do not belong to the same Graph
+	 *                        or if the Edge would close a cycle in a Graph
+	 *                        flagged as acyclic.
   	 */
 	public Edge createEdge(Node srcNode, Node dstNode, String name, Entity entity) {
 		if(srcNode.getGraph() != dstNode.getGraph())
@@ -224,42 +411,220 @@ public class GraphSystem  extends RootSystem {
 
 		Edge edge = new Edge(srcNode, dstNode, name);
 
-		try(MapperSpace ms = controller.startMapperSpace()) {
-			edgeMapper.attachComponent(entity, edge);
-			nodeMapper.acquireReadLock(srcNode);
-			Graph graph = srcNode.getGraph();
-			// Update Graph before to avoid updating Nodes if the Graph is write-protected.
-			graphMapper.updateComponent(graph, ()->graph.addEdge(edge));
-			nodeMapper.updateComponent(srcNode, ()->srcNode.addOutgoingConnection(edge));
-			nodeMapper.updateComponent(dstNode, ()->dstNode.addIncomingConnection(edge));
-
-			logger.info(edge + " creation (" + srcNode + " -> " + dstNode + ") in " + graph + " triggered.");
+		OperationTrace event = GraphTracing.beginOperation("createEdge");
+		PhaseTrace commit;
+		Graph graph = srcNode.getGraph();
+		boolean failed = true;
+		try {
+			try(MapperSpace ms = controller.startMapperSpace()) {
+				PhaseTrace lock = GraphTracing.beginPhase("createEdge", PhaseTrace.LOCK);
+				nodeMapper.acquireReadLock(srcNode);
+				nodeMapper.acquireReadLock(dstNode);
+				lock.finish();
+
+				// Checked once the end Nodes are locked, before anything is attached.
+				EdgeBatch batch = beginEdges(graph, Collections.emptySet(), edge);
+				try {
+					edgeMapper.attachComponent(entity, edge);
+
+					PhaseTrace update = GraphTracing.beginPhase("createEdge", PhaseTrace.UPDATE);
+					// Update Graph before to avoid updating Nodes if the Graph is write-protected.
+					updateGraph(graph, ()->graph.addEdge(edge));
+					updateAdjacency(graph, batch.checked, srcNode, ()->{
+						srcNode.addOutgoingConnection(edge);
+						if(batch.checked)
+							graph.getPendingEdges().remove(edge);
+					});
+					updateAdjacency(graph, batch.checked, dstNode, ()->{
+						dstNode.addIncomingConnection(edge);
+						endEdges(batch);
+					});
+					update.finish();
+				}
+				catch(RuntimeException | Error e) {
+					abandonEdges(batch);
+					throw e;
+				}
+
+				logger.info(edge + " creation (" + srcNode + " -> " + dstNode + ") in " + graph + " triggered.");
+				commit = GraphTracing.beginPhase("createEdge", PhaseTrace.COMMIT);
+			}
+			commit.finish();
+			failed = false;
+		} finally {
+			event.finish(graph, 1, failed);
 		}
 
 		return edge;
 	}
 
+	/**
+	 * Creates many Edges at once, each as a Component of a new Entity. The
+	 * Graph and every touched Node are updated only once, and the adjacency
+	 * of each Node is grown only once.
+	 * @param sources Source of each Edge.
+	 * @param destinations Destination of each Edge.
+	 * @param names Name of each Edge (null array or entries for unnamed
+	 *              Edges).
+	 * @return the new Edge instances, in the order of the arguments.
+	 * @throws GraphException if the arrays do not have the same length, if
+	 *                        the Nodes are not all in the same Graph or if an
+	 *                        Edge would close a cycle in a Graph flagged as
+	 *                        acyclic (with the existing Edges or with the
+	 *                        other Edges of the batch). No Edge is created
+	 *                        then.
+	 */
+	public Edge[] createEdges(Node[] sources, Node[] destinations, String[] names) {
+		return createEdges(sources, destinations, names, Collections.emptySet());
+	}
+
+	/**
+	 * Creates many Edges at once, ignoring some existing Edges in the cycle
+	 * check of an acyclic Graph.
+	 * @param sources Source of each Edge.
+	 * @param destinations Destination of each Edge.
+	 * @param names Name of each Edge.
+	 * @param deleted Edges being deleted in the same MapperSpace.
+	 * @return the new Edge instances, in the order of the arguments.
+	 */
+	private Edge[] createEdges(Node[] sources, Node[] destinations, String[] names, Set<Edge> deleted) {
+		if(sources.length != destinations.length || (names != null && names.length != sources.length))
+			throw new GraphException("One source, destination (and name) is needed per Edge");
+		if(sources.length == 0)
+			return new Edge[0];
+
+		Graph graph = sources[0].getGraph();
+		for(int i = 0; i < sources.length; i++)
+			if(sources[i].getGraph() != graph || destinations[i].getGraph() != graph)
+				throw new GraphException("Can only create Edges between Nodes of the same Graph");
+
+		Edge[] edges = new Edge[sources.length];
+		Map<Node, List<Edge>> outgoing = new IdentityHashMap<>();
+		Map<Node, List<Edge>> incoming = new IdentityHashMap<>();
+		for(int i = 0; i < edges.length; i++) {
+			edges[i] = new Edge(sources[i], destinations[i], names == null ? "" : names[i]);
+			outgoing.computeIfAbsent(sources[i], n -> new ArrayList<>()).add(edges[i]);
+			incoming.computeIfAbsent(destinations[i], n -> new ArrayList<>()).add(edges[i]);
+		}
+
+		OperationTrace event = GraphTracing.beginOperation("createEdges");
+		PhaseTrace commit;
+		boolean failed = true;
+		try {
+			try(MapperSpace ms = controller.startMapperSpace()) {
+				// The whole batch is checked before anything is attached.
+				EdgeBatch batch = beginEdges(graph, deleted, edges);
+				try {
+					PhaseTrace update = GraphTracing.beginPhase("createEdges", PhaseTrace.UPDATE);
+					for(Edge edge : edges)
+						edgeMapper.attachComponent(controller.createEntity(), edge);
+					// Update Graph before to avoid updating Nodes if the Graph is write-protected.
+					updateGraph(graph, ()->{
+						for(Edge edge : edges)
+							graph.addEdge(edge);
+					});
+					for(Map.Entry<Node, List<Edge>> entry : outgoing.entrySet()) {
+						Node node = entry.getKey();
+						List<Edge> nodeEdges = entry.getValue();
+						updateAdjacency(graph, batch.checked, node, ()->{
+							node.reserveOutgoingConnections(nodeEdges.size());
+							for(Edge edge : nodeEdges) {
+								node.addOutgoingConnection(edge);
+								if(batch.checked)
+									graph.getPendingEdges().remove(edge);
+							}
+						});
+					}
+					int remaining = incoming.size();
+					for(Map.Entry<Node, List<Edge>> entry : incoming.entrySet()) {
+						Node node = entry.getKey();
+						List<Edge> nodeEdges = entry.getValue();
+						// The changes are applied in order: the last one completes the batch.
+						boolean last = --remaining == 0;
+						updateAdjacency(graph, batch.checked, node, ()->{
+							node.reserveIncomingConnections(nodeEdges.size());
+							for(Edge edge : nodeEdges)
+								node.addIncomingConnection(edge);
+							if(last)
+								endEdges(batch);
+						});
+					}
+					update.finish();
+				}
+				catch(RuntimeException | Error e) {
+					abandonEdges(batch);
+					throw e;
+				}
+
+				logger.info(edges.length + " Edges creation in " + graph + " triggered.");
+				commit = GraphTracing.beginPhase("createEdges", PhaseTrace.COMMIT);
+			}
+			commit.finish();
+			failed = false;
+		} finally {
+			event.finish(graph, edges.length, failed);
+		}
+
+		return edges;
+	}
+
 	/**
 	 * Deletes an Edge.
 	 * @param edge Edge to delete.
 	 */
 	public void deleteEdge(Edge edge) {
-		try(MapperSpace ms = controller.startMapperSpace()) {
-			edgeMapper.acquireReadLock(edge);
-			Node src = edge.getSource();
-			Node dst = edge.getDestination();
-			nodeMapper.acquireReadLock(src);
-			Graph graph = src.getGraph();
-			edgeMapper.detachComponent(edge);
-			// Update Graph before to avoid updating Nodes if the Graph is write-protected.
-			graphMapper.updateComponent(graph, ()->graph.removeEdge(edge));
-			nodeMapper.updateComponent(src, ()->src.removeOutgoingConnection(edge));
-			nodeMapper.updateComponent(dst, ()->dst.removeIncomingConnection(edge));
-
-			logger.info(edge + " deletion from " + graph + " programmed.");
+		OperationTrace event = GraphTracing.beginOperation("deleteEdge");
+		PhaseTrace commit;
+		Graph graph = edge.getSource().getGraph();
+		boolean failed = true;
+		try {
+			try(MapperSpace ms = controller.startMapperSpace()) {
+				PhaseTrace lock = GraphTracing.beginPhase("deleteEdge", PhaseTrace.LOCK);
+				edgeMapper.acquireReadLock(edge);
+				Node src = edge.getSource();
+				nodeMapper.acquireReadLock(src);
+				lock.finish();
+
+				PhaseTrace update = GraphTracing.beginPhase("deleteEdge", PhaseTrace.UPDATE);
+				deleteEdge(graph, edge, false, false);
+				update.finish();
+
+				logger.info(edge + " deletion from " + graph + " programmed.");
+				commit = GraphTracing.beginPhase("deleteEdge", PhaseTrace.COMMIT);
+			}
+			commit.finish();
+			failed = false;
+		} finally {
+			event.finish(graph, 1, failed);
 		}
 	}
 
+	/**
+	 * Deletes an Edge inside the current MapperSpace.
+	 * @param graph Graph of the Edge.
+	 * @param edge Edge to delete.
+	 * @param clearSource true if the source Node is being deleted too: its
+	 *                    outgoing Edges are then cleared in O(1) instead of
+	 *                    removing this Edge in O(degree).
+	 * @param clearDestination Same for the destination Node and its
+	 *                         incoming Edges.
+	 */
+	private void deleteEdge(Graph graph, Edge edge, boolean clearSource, boolean clearDestination) {
+		Node src = edge.getSource();
+		Node dst = edge.getDestination();
+		edgeMapper.detachComponent(edge);
+		// Update Graph before to avoid updating Nodes if the Graph is write-protected.
+		updateGraph(graph, ()->graph.removeEdge(edge));
+		if(clearSource)
+			updateAdjacency(graph, graph.isAcyclic(), src, src::clearOutgoingConnections);
+		else
+			updateAdjacency(graph, graph.isAcyclic(), src, ()->src.removeOutgoingConnection(edge));
+		if(clearDestination)
+			updateAdjacency(graph, graph.isAcyclic(), dst, dst::clearIncomingConnections);
+		else
+			updateAdjacency(graph, graph.isAcyclic(), dst, ()->dst.removeIncomingConnection(edge));
+	}
+
 	/**
 	 * Deletes an Edge.
 	 * @param entity Entity holding the Edge to delete.
@@ -269,4 +634,330 @@ public class GraphSystem  extends RootSystem {
 			deleteEdge(edgeMapper.get(entity));
 		}
 	}
+
+	/**
+	 * Computes the mutations turning a Graph into another one. Nodes are
+	 * matched by name and Edges by the names of their source and destination
+	 * Nodes and their own name, parallel Edges with the same names being
+	 * matched one to one. The computation is linear in the size of the two
+	 * Graphs.
+	 * @param a Graph to be changed.
+	 * @param b Graph to be reached.
+	 * @return the patch to apply to Graph a.
+	 * @throws GraphException if a Graph has several Nodes with the same name
+	 *                        (including several unnamed Nodes).
+	 */
+	public GraphPatch diff(Graph a, Graph b) {
+		long baseVersion = a.getVersion();
+		Map<String, Node> aNodes = nodesByName(a);
+		Map<String, Node> bNodes = nodesByName(b);
+
+		List<Node> removedNodes = new ArrayList<>();
+		for(Node node : aNodes.values())
+			if(!bNodes.containsKey(node.getName()))
+				removedNodes.add(node);
+		List<String> addedNodes = new ArrayList<>();
+		for(String name : bNodes.keySet())
+			if(!aNodes.containsKey(name))
+				addedNodes.add(name);
+
+		Map<GraphPatch.EdgeSignature, Deque<Edge>> aEdges = new HashMap<>();
+		for(Edge edge : a.getEdges())
+			aEdges.computeIfAbsent(new GraphPatch.EdgeSignature(edge), k -> new ArrayDeque<>()).add(edge);
+		Set<Edge> matchedEdges = Collections.newSetFromMap(new IdentityHashMap<>());
+		List<GraphPatch.EdgeSignature> addedEdges = new ArrayList<>();
+		for(Edge edge : b.getEdges()) {
+			GraphPatch.EdgeSignature signature = new GraphPatch.EdgeSignature(edge);
+			Deque<Edge> candidates = aEdges.get(signature);
+			if(candidates != null && !candidates.isEmpty())
+				matchedEdges.add(candidates.poll());
+			else
+				addedEdges.add(signature);
+		}
+		List<Edge> removedEdges = new ArrayList<>();
+		for(Edge edge : a.getEdges())
+			if(!matchedEdges.contains(edge))
+				removedEdges.add(edge);
+
+		return new GraphPatch(a, baseVersion, removedNodes, addedNodes, removedEdges, addedEdges);
+	}
+
+	/**
+	 * Applies a patch computed by diff, in one MapperSpace. Only the Nodes
+	 * and Edges that differ are removed or created, so that the cost and the
+	 * number of events are proportional to the size of the patch.
+	 * @param patch Patch to apply.
+	 * @throws GraphException if the Graph changed since the patch was
+	 *                        computed or if it has several Nodes with the
+	 *                        same name.
+	 */
+	public void applyPatch(GraphPatch patch) {
+		Graph graph = patch.getGraph();
+		try(MapperSpace ms = controller.startMapperSpace()) {
+			graphMapper.acquireReadLock(graph);
+			// Checked under the lock, so that the Graph cannot change meanwhile.
+			if(graph.getVersion() != patch.getBaseVersion())
+				throw new GraphException(graph + " changed since " + patch + " was computed");
+			if(patch.isEmpty())
+				return;
+			Map<String, Node> nodes = nodesByName(graph);
+
+			for(Edge edge : patch.getRemovedEdges())
+				deleteEdge(edge);
+			// All the Edges of the removed Nodes have just been deleted.
+			for(Node node : patch.getRemovedNodes()) {
+				updateGraph(graph, ()->graph.removeNode(node));
+				nodeMapper.detachComponent(node);
+				nodes.remove(node.getName());
+			}
+
+			if(!patch.getAddedNodes().isEmpty())
+				for(Node node : createNodes(graph, patch.getAddedNodes().toArray(new String[0])))
+					nodes.put(node.getName(), node);
+
+			List<GraphPatch.EdgeSignature> addedEdges = patch.getAddedEdges();
+			Node[] sources = new Node[addedEdges.size()];
+			Node[] destinations = new Node[addedEdges.size()];
+			String[] names = new String[addedEdges.size()];
+			for(int i = 0; i < names.length; i++) {
+				GraphPatch.EdgeSignature signature = addedEdges.get(i);
+				sources[i] = nodes.get(signature.getSourceName());
+				destinations[i] = nodes.get(signature.getDestinationName());
+				names[i] = signature.getName();
+			}
+			// The removed Edges are still in the adjacency until the MapperSpace
+			// is closed: they must not make the new ones look like cycles.
+			Set<Edge> removedEdges = Collections.newSetFromMap(new IdentityHashMap<>());
+			removedEdges.addAll(patch.getRemovedEdges());
+			createEdges(sources, destinations, names, removedEdges);
+
+			logger.info(patch + " application to " + graph + " triggered.");
+		}
+	}
+
+	/**
+	 * Indexes the Nodes of a Graph by name.
+	 * @param graph Graph.
+	 * @return the Nodes by name, in the order of the Graph.
+	 * @throws GraphException if two Nodes have the same name.
+	 */
+	private static Map<String, Node> nodesByName(Graph graph) {
+		Map<String, Node> nodes = new LinkedHashMap<>();
+		for(Node node : graph.getNodes()) {
+			if(nodes.put(node.getName(), node) != null) {
+				String duplicate = node.getName().isEmpty() ? "several unnamed Nodes" : "several Nodes named '" + node.getName() + "'";
+				throw new GraphException(graph + " has " + duplicate + ": diff and applyPatch match Nodes by name and need unique names");
+			}
+		}
+		return nodes;
+	}
+
+	/**
+	 * Applies a change to the Node or Edge sets of a Graph. In concurrent
+	 * mode, the thread-safe sets are changed right away without updating the
+	 * Graph Component. Otherwise, the Graph Component is updated.
+	 * @param graph Graph to change.
+	 * @param change Change to apply.
+	 */
+	private void updateGraph(Graph graph, Runnable change) {
+		if(!graph.changeConcurrently(change))
+			graphMapper.updateComponent(graph, change);
+	}
+
+	/**
+	 * Changes the adjacency of a Node. For acyclic Graphs, the change is
+	 * made under the monitor of the pending Edges, so that it is atomic with
+	 * respect to the cycle checks.
+	 * @param graph Graph of the Node.
+	 * @param acyclic Whether the Graph was flagged as acyclic when the
+	 *                operation started.
+	 * @param node Node to update.
+	 * @param change Change to apply.
+	 */
+	private void updateAdjacency(Graph graph, boolean acyclic, Node node, Runnable change) {
+		if(acyclic) {
+			PendingEdges pending = graph.getPendingEdges();
+			nodeMapper.updateComponent(node, ()->{
+				synchronized(pending) {
+					change.run();
+				}
+			});
+		}
+		else
+			nodeMapper.updateComponent(node, change);
+	}
+
+	/**
+	 * Starts the creation of Edges: checks them if the Graph is flagged as
+	 * acyclic, counts them as unchecked otherwise, and records them as not
+	 * committed yet for the calling thread.
+	 * @param graph Graph of the Edges.
+	 * @param deleted Existing Edges to ignore in the cycle check.
+	 * @param edges Edges to add, in order.
+	 * @return the record of the Edges.
+	 * @throws GraphException if an Edge would close a cycle.
+	 */
+	private EdgeBatch beginEdges(Graph graph, Set<Edge> deleted, Edge... edges) {
+		PendingEdges pending = graph.getPendingEdges();
+		pending.beginUnchecked(edges.length);
+		boolean checked = graph.isAcyclic();
+		if(checked) {
+			pending.endUnchecked(edges.length);
+			acceptEdges(graph, deleted, edges);
+		}
+		EdgeBatch batch = new EdgeBatch(graph, edges, checked);
+		uncommittedEdges.get().add(batch);
+		return batch;
+	}
+
+	/**
+	 * Ends the creation of Edges once they are in the adjacency of their end
+	 * Nodes.
+	 * @param batch Record of the Edges.
+	 */
+	private void endEdges(EdgeBatch batch) {
+		if(batch.done)
+			return;
+		batch.done = true;
+		forget(batch);
+		if(!batch.checked)
+			batch.graph.getPendingEdges().endUnchecked(batch.edges.length);
+	}
+
+	/**
+	 * Ends the creation of Edges that will not be in the adjacency of their
+	 * end Nodes: the pending Edges are dropped so that they are not taken
+	 * into account by the next cycle checks.
+	 * @param batch Record of the Edges.
+	 */
+	private void abandonEdges(EdgeBatch batch) {
+		if(batch.done)
+			return;
+		batch.done = true;
+		forget(batch);
+		PendingEdges pending = batch.graph.getPendingEdges();
+		if(batch.checked) {
+			synchronized(pending) {
+				for(Edge edge : batch.edges)
+					pending.remove(edge);
+			}
+		}
+		else
+			pending.endUnchecked(batch.edges.length);
+	}
+
+	/**
+	 * Removes a record from the ones of the calling thread.
+	 * @param batch Record of the Edges.
+	 */
+	private void forget(EdgeBatch batch) {
+		Set<EdgeBatch> batches = uncommittedEdges.get();
+		batches.remove(batch);
+		if(batches.isEmpty())
+			uncommittedEdges.remove();
+	}
+
+	/**
+	 * Drops the Edges whose creation was started by the calling thread in
+	 * a MapperSpace that did not apply its changes, e.g., because a change
+	 * queued before them failed. Otherwise, on an acyclic Graph, these Edges
+	 * would still be taken into account by the next cycle checks and
+	 * flagging a Graph would wait for them forever. Must only be called once
+	 * the outermost MapperSpace is closed.
+	 */
+	public void discardUncommittedEdges() {
+		for(EdgeBatch batch : new ArrayList<>(uncommittedEdges.get()))
+			abandonEdges(batch);
+		uncommittedEdges.remove();
+	}
+
+	/**
+	 * Checks that Edges to be added to an acyclic Graph do not close a cycle
+	 * and registers them as pending, so that the Edges checked afterwards,
+	 * in the same batch, in the same MapperSpace or by other threads, take
+	 * them into account even before they are in the adjacency of their
+	 * source Node. If an Edge is rejected, none of the Edges is registered.
+	 * @param graph Acyclic Graph.
+	 * @param deleted Existing Edges to ignore.
+	 * @param edges Edges to add, in order.
+	 * @throws GraphException if an Edge would close a cycle.
+	 */
+	private static void acceptEdges(Graph graph, Set<Edge> deleted, Edge... edges) {
+		PendingEdges pending = graph.getPendingEdges();
+		// The check and the registration are atomic with respect to other threads.
+		synchronized(pending) {
+			for(int i = 0; i < edges.length; i++) {
+				Edge edge = edges[i];
+				if(isReachable(edge.getDestination(), edge.getSource(), pending, deleted)) {
+					for(int j = 0; j < i; j++)
+						pending.remove(edges[j]);
+					throw new GraphException("An Edge from " + edge.getSource() + " to " + edge.getDestination() + " would create a cycle in " + graph);
+				}
+				pending.add(edge);
+			}
+		}
+	}
+
+	/**
+	 * Tells whether a Node can be reached from another one. Used to detect,
+	 * before adding an Edge, whether it would close a cycle. Only the region
+	 * reachable from the start Node is explored, iteratively. The pending
+	 * Edges are followed as well as the adjacency of the Nodes.
+	 * @param from start Node.
+	 * @param to target Node.
+	 * @param pending Edges accepted but not yet in the adjacency.
+	 * @param deleted Edges of the adjacency not to follow.
+	 * @return true if there is a directed path from 'from' to 'to'.
+	 */
+	private static boolean isReachable(Node from, Node to, PendingEdges pending, Set<Edge> deleted) {
+		if(from == to)
+			return true;
+
+		Set<Node> visited = new HashSet<>();
+		Deque<Node> stack = new ArrayDeque<>();
+		visited.add(from);
+		stack.push(from);
+		while(!stack.isEmpty()) {
+			Node node = stack.pop();
+			List<Edge> outgoing = node.getOutgoingConnections();
+			List<Edge> accepted = pending.getOutgoing(node);
+			int degree = outgoing.size();
+			for(int i = 0; i < degree + accepted.size(); i++) {
+				Edge edge = i < degree ? outgoing.get(i) : accepted.get(i - degree);
+				if(i < degree && deleted.contains(edge))
+					continue;
+				Node next = edge.getDestination();
+				if(next == to)
+					return true;
+				if(visited.add(next))
+					stack.push(next);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Edges created by one operation.
+	 */
+	private static final class EdgeBatch {
+		private final Graph graph;
+		private final Edge[] edges;
+
+		/**
+		 * Whether the Edges went through the cycle check.
+		 */
+		private final boolean checked;
+
+		/**
+		 * Whether the Edges are in the adjacency or dropped. Only accessed
+		 * by the thread creating them.
+		 */
+		private boolean done;
+
+		private EdgeBatch(Graph graph, Edge[] edges, boolean checked) {
+			this.graph = graph;
+			this.edges = edges;
+			this.checked = checked;
+		}
+	}
 }
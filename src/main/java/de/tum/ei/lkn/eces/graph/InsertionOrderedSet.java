@@ -0,0 +1,166 @@
+package de.tum.ei.lkn.eces.graph;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Set iterating in insertion order, backed by an array and an index map.
+ *
+ * Removals leave a hole in the array (O(1)); the array is compacted, in
+ * amortized O(1), once holes make up more than half of it. Iteration is a
+ * scan of the array, which is cheaper than walking the buckets of a
+ * HashSet and, unlike for a HashSet, does not depend on identity hash codes.
+ *
+ * @param <E> Element type.
+ * @author Amaury Van Bemten
+ */
+final class InsertionOrderedSet<E> extends AbstractSet<E> {
+	/**
+	 * Compaction is not worth it below this many slots.
+	 */
+	private static final int MIN_COMPACTION_SLOTS = 16;
+
+	/**
+	 * Elements in insertion order, null for removed elements.
+	 */
+	private Object[] elements = new Object[8];
+
+	/**
+	 * Number of used slots of the array (elements and holes).
+	 */
+	private int slots;
+
+	/**
+	 * Slot of each element.
+	 */
+	private final Map<E, Integer> indices = new HashMap<>();
+
+	/**
+	 * Number of structural modifications, for fail-fast iterators.
+	 */
+	private int modCount;
+
+	@Override
+	public int size() {
+		return indices.size();
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return indices.containsKey(o);
+	}
+
+	@Override
+	public boolean add(E e) {
+		if(e == null)
+			throw new NullPointerException();
+		if(indices.containsKey(e))
+			return false;
+		if(slots == elements.length)
+			elements = Arrays.copyOf(elements, slots * 2);
+		indices.put(e, slots);
+		elements[slots++] = e;
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		Integer index = indices.remove(o);
+		if(index == null)
+			return false;
+		elements[index] = null;
+		modCount++;
+		if(slots >= MIN_COMPACTION_SLOTS && indices.size() < slots / 2)
+			compact();
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		indices.clear();
+		Arrays.fill(elements, 0, slots, null);
+		slots = 0;
+		modCount++;
+	}
+
+	/**
+	 * Moves the elements to the front of the array, keeping their order.
+	 */
+	@SuppressWarnings("unchecked")
+	private void compact() {
+		int target = 0;
+		for(int i = 0; i < slots; i++) {
+			Object element = elements[i];
+			if(element != null) {
+				elements[target] = element;
+				indices.put((E) element, target);
+				target++;
+			}
+		}
+		Arrays.fill(elements, target, slots, null);
+		slots = target;
+		if(elements.length > 8 && slots < elements.length / 4)
+			elements = Arrays.copyOf(elements, Math.max(8, elements.length / 2));
+	}
+
+	@Override
+	public Object[] toArray() {
+		Object[] result = new Object[indices.size()];
+		int count = 0;
+		for(int i = 0; i < slots; i++)
+			if(elements[i] != null)
+				result[count++] = elements[i];
+		return result;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			private int next = advance(0);
+			private int last = -1;
+			private int expectedModCount = modCount;
+
+			private int advance(int from) {
+				while(from < slots && elements[from] == null)
+					from++;
+				return from;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return next < slots;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public E next() {
+				if(modCount != expectedModCount)
+					throw new ConcurrentModificationException();
+				if(next >= slots)
+					throw new NoSuchElementException();
+				last = next;
+				next = advance(next + 1);
+				return (E) elements[last];
+			}
+
+			@Override
+			public void remove() {
+				if(last < 0)
+					throw new IllegalStateException();
+				if(modCount != expectedModCount)
+					throw new ConcurrentModificationException();
+				// Leave a hole without compacting so that the cursor stays valid.
+				indices.remove(elements[last]);
+				elements[last] = null;
+				last = -1;
+				expectedModCount = ++modCount;
+			}
+		};
+	}
+}
@@ -16,14 +16,32 @@ import java.util.*;
 @ComponentBelongsTo(system = GraphSystem.class)
 public class Node extends Component {
 	/**
-	 * List of all the Edges for which the node is the source.
+	 * Shared empty adjacency array used by Nodes without Edges.
 	 */
-	protected LinkedList<Edge> outgoingConnections;
+	private static final Edge[] NO_EDGES = new Edge[0];
 
 	/**
-	 * List of all Edge for which the Node is the destination.
+	 * Edges for which the node is the source. Only the first outDegree
+	 * entries are valid. The array is allocated lazily and grown on demand
+	 * so that low-degree Nodes do not pay for an empty list.
 	 */
-	protected LinkedList<Edge> incomingConnections;
+	private Edge[] outgoingConnections;
+
+	/**
+	 * Number of valid entries in outgoingConnections.
+	 */
+	private int outDegree;
+
+	/**
+	 * Edges for which the Node is the destination. Only the first inDegree
+	 * entries are valid.
+	 */
+	private Edge[] incomingConnections;
+
+	/**
+	 * Number of valid entries in incomingConnections.
+	 */
+	private int inDegree;
 
 	/**
 	 * Graph to which the Node belongs.
@@ -41,10 +59,10 @@ public class Node extends Component {
 	 * @param name Name of the Node.
 	 */
 	protected Node(Graph graph, String name) {
-		this.name = name;
+		this.name = (name == null || name.isEmpty()) ? "" : name;
 		this.graph = graph;
-		this.outgoingConnections = new LinkedList<>();
-		this.incomingConnections = new LinkedList<>();
+		this.outgoingConnections = NO_EDGES;
+		this.incomingConnections = NO_EDGES;
 	}
 
 	/**
@@ -98,23 +116,31 @@ public class Node extends Component {
 	 * Adds an incoming Edge to the Node.
 	 * @param edge outgoing Edge.
 	 */
-	protected void addOutgoingConnection(Edge edge) {
-		outgoingConnections.add(edge);
+	protected synchronized void addOutgoingConnection(Edge edge) {
+		if(outDegree == outgoingConnections.length)
+			outgoingConnections = grow(outgoingConnections);
+		outgoingConnections[outDegree++] = edge;
+		graph.structureChanged();
 	}
 
 	/**
 	 * Removes an outgoing Edge from the Node.
 	 * @param edge The Edge to remove.
 	 */
-	protected void removeOutgoingConnection(Edge edge) {
-		outgoingConnections.remove(edge);
+	protected synchronized void removeOutgoingConnection(Edge edge) {
+		outDegree = remove(outgoingConnections, outDegree, edge);
+		if(outDegree == 0)
+			outgoingConnections = NO_EDGES;
+		graph.structureChanged();
 	}
 
 	/**
 	 * Removes all the outgoing Edges of the Node.
 	 */
-	protected void clearOutgoingConnections() {
-		outgoingConnections.clear();
+	protected synchronized void clearOutgoingConnections() {
+		outgoingConnections = NO_EDGES;
+		outDegree = 0;
+		graph.structureChanged();
 	}
 
 	/**
@@ -122,23 +148,47 @@ public class Node extends Component {
 	 * @return List of the Edges.
 	 */
 	public List<Edge> getOutgoingConnections() {
-		return Collections.unmodifiableList(outgoingConnections);
+		return new ConnectionList(true);
+	}
+
+	/**
+	 * Copies the outgoing Edges. Unlike iterating over
+	 * {@link #getOutgoingConnections()}, the copy is consistent even if the
+	 * adjacency of the Node changes concurrently.
+	 * @return the outgoing Edges at one point in time.
+	 */
+	public synchronized Edge[] copyOutgoingConnections() {
+		return Arrays.copyOf(outgoingConnections, outDegree);
+	}
+
+	/**
+	 * Gets the number of outgoing Edges.
+	 * @return Number of Edges for which the Node is the source.
+	 */
+	public int getOutDegree() {
+		return outDegree;
 	}
 
 	/**
 	 * Adds an incoming Edge to the Node.
 	 * @param edge incoming Edge.
 	 */
-	protected void addIncomingConnection(Edge edge) {
-		incomingConnections.add(edge);
+	protected synchronized void addIncomingConnection(Edge edge) {
+		if(inDegree == incomingConnections.length)
+			incomingConnections = grow(incomingConnections);
+		incomingConnections[inDegree++] = edge;
+		graph.structureChanged();
 	}
 
 	/**
 	 * Removes an incoming Edge from the Node.
 	 * @param edge The Edge to remove.
 	 */
-	protected void removeIncomingConnection(Edge edge) {
-		incomingConnections.remove(edge);
+	protected synchronized void removeIncomingConnection(Edge edge) {
+		inDegree = remove(incomingConnections, inDegree, edge);
+		if(inDegree == 0)
+			incomingConnections = NO_EDGES;
+		graph.structureChanged();
 	}
 
 	/**
@@ -146,14 +196,138 @@ public class Node extends Component {
 	 * @return List of the Edges.
 	 */
 	public List<Edge> getIncomingConnections() {
-		return Collections.unmodifiableList(incomingConnections);
+		return new ConnectionList(false);
+	}
+
+	/**
+	 * Gets the outgoing adjacency array itself, for the footprint checks.
+	 * Only the first {@link #getOutDegree()} entries are valid.
+	 * @return the array (shared empty array if there is no outgoing Edge).
+	 */
+	Edge[] outgoingArray() {
+		return outgoingConnections;
+	}
+
+	/**
+	 * Gets the incoming adjacency array itself, for the footprint checks.
+	 * Only the first {@link #getInDegree()} entries are valid.
+	 * @return the array (shared empty array if there is no incoming Edge).
+	 */
+	Edge[] incomingArray() {
+		return incomingConnections;
+	}
+
+	/**
+	 * Copies the incoming Edges, consistently with respect to concurrent
+	 * changes of the adjacency of the Node.
+	 * @return the incoming Edges at one point in time.
+	 */
+	public synchronized Edge[] copyIncomingConnections() {
+		return Arrays.copyOf(incomingConnections, inDegree);
+	}
+
+	/**
+	 * Gets the number of incoming Edges.
+	 * @return Number of Edges for which the Node is the destination.
+	 */
+	public int getInDegree() {
+		return inDegree;
 	}
 
 	/**
 	 * Removes all the incoming Edges of the Node.
 	 */
-	public void clearIncomingConnections() {
-		incomingConnections.clear();
+	public synchronized void clearIncomingConnections() {
+		incomingConnections = NO_EDGES;
+		inDegree = 0;
+		graph.structureChanged();
+	}
+
+	/**
+	 * Makes room for a number of additional outgoing Edges, so that bulk
+	 * insertions do not grow the adjacency array step by step. The array at
+	 * least doubles, so that many small batches on the same Node stay
+	 * linear overall.
+	 * @param additional Number of Edges that will be added.
+	 */
+	protected synchronized void reserveOutgoingConnections(int additional) {
+		outgoingConnections = reserve(outgoingConnections, outDegree + additional);
+	}
+
+	/**
+	 * Makes room for a number of additional incoming Edges.
+	 * @param additional Number of Edges that will be added.
+	 */
+	protected synchronized void reserveIncomingConnections(int additional) {
+		incomingConnections = reserve(incomingConnections, inDegree + additional);
+	}
+
+	/**
+	 * Returns an adjacency array with room for a number of Edges, growing
+	 * it to at least twice its length if it is too small.
+	 * @param edges Current adjacency array.
+	 * @param needed Number of Edges the array must be able to hold.
+	 * @return the same array or a larger one containing the same Edges.
+	 */
+	private static Edge[] reserve(Edge[] edges, int needed) {
+		if(needed <= edges.length)
+			return edges;
+		return Arrays.copyOf(edges, Math.max(needed, edges.length << 1));
+	}
+
+	/**
+	 * Returns a copy of an adjacency array with more room. Arrays start
+	 * with a single slot (most hosts have a single link) and then double.
+	 * @param edges Current adjacency array.
+	 * @return Larger array containing the same Edges.
+	 */
+	private static Edge[] grow(Edge[] edges) {
+		return Arrays.copyOf(edges, edges.length == 0 ? 1 : edges.length << 1);
+	}
+
+	/**
+	 * Removes the first occurrence of an Edge from an adjacency array while
+	 * preserving the order of the remaining Edges.
+	 * @param edges Adjacency array.
+	 * @param size Number of valid entries in the array.
+	 * @param edge Edge to remove.
+	 * @return New number of valid entries.
+	 */
+	private static int remove(Edge[] edges, int size, Edge edge) {
+		for(int i = 0; i < size; i++) {
+			if(edges[i] == edge) {
+				System.arraycopy(edges, i + 1, edges, i, size - i - 1);
+				edges[--size] = null;
+				break;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Unmodifiable live view on one of the adjacency arrays of the Node.
+	 */
+	private final class ConnectionList extends AbstractList<Edge> implements RandomAccess {
+		/**
+		 * Whether the view is on the outgoing (true) or incoming (false) Edges.
+		 */
+		private final boolean outgoing;
+
+		private ConnectionList(boolean outgoing) {
+			this.outgoing = outgoing;
+		}
+
+		@Override
+		public Edge get(int index) {
+			if(index < 0 || index >= size())
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+			return outgoing ? outgoingConnections[index] : incomingConnections[index];
+		}
+
+		@Override
+		public int size() {
+			return outgoing ? outDegree : inDegree;
+		}
 	}
 
 	@Override
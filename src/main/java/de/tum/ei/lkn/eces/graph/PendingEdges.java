@@ -0,0 +1,96 @@
+package de.tum.ei.lkn.eces.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Edges of an acyclic Graph that passed the cycle check but are not in the
+ * adjacency of their source Node yet, because the MapperSpace creating them
+ * is still open.
+ *
+ * The cycle check of the next Edges takes them into account, so that the
+ * Edges of a batch are checked against each other. An Edge is removed once
+ * it is in the outgoing connections of its source Node.
+ *
+ * The Edges created without cycle check, because the Graph was not flagged
+ * when their creation started, are counted as well, so that flagging the
+ * Graph can wait for them to be in the adjacency before checking it. The
+ * count is thread-safe on its own, the rest is guarded by the monitor of the
+ * instance.
+ *
+ * @author Amaury Van Bemten
+ */
+final class PendingEdges {
+	/**
+	 * Pending Edges by source Node.
+	 */
+	private final Map<Node, List<Edge>> outgoing = new IdentityHashMap<>();
+
+	/**
+	 * Number of Edges being created without cycle check.
+	 */
+	private final LongAdder unchecked = new LongAdder();
+
+	/**
+	 * Registers an Edge as pending.
+	 * @param edge Edge accepted by the cycle check.
+	 */
+	void add(Edge edge) {
+		outgoing.computeIfAbsent(edge.getSource(), n -> new ArrayList<>(1)).add(edge);
+	}
+
+	/**
+	 * Unregisters an Edge.
+	 * @param edge Edge now in the adjacency of its source Node (or dropped).
+	 */
+	void remove(Edge edge) {
+		List<Edge> edges = outgoing.get(edge.getSource());
+		if(edges != null && edges.remove(edge) && edges.isEmpty())
+			outgoing.remove(edge.getSource());
+	}
+
+	/**
+	 * Gets the pending Edges leaving a Node.
+	 * @param node Source Node.
+	 * @return the pending Edges (empty list if none).
+	 */
+	List<Edge> getOutgoing(Node node) {
+		List<Edge> edges = outgoing.get(node);
+		return edges == null ? Collections.emptyList() : edges;
+	}
+
+	/**
+	 * Counts Edges whose creation starts. Called before the acyclic flag of
+	 * the Graph is read, so that either the flag is seen or the Edges are
+	 * waited for by {@link #awaitUnchecked()}.
+	 * @param count number of Edges.
+	 */
+	void beginUnchecked(int count) {
+		unchecked.add(count);
+	}
+
+	/**
+	 * Uncounts Edges that are checked after all, in the adjacency of their
+	 * end Nodes or dropped.
+	 * @param count number of Edges.
+	 */
+	void endUnchecked(int count) {
+		unchecked.add(-count);
+	}
+
+	/**
+	 * Waits until all the Edges created without cycle check are in the
+	 * adjacency or dropped. Must be called once the Graph is flagged as
+	 * acyclic, so that no new such creation starts, and without holding the
+	 * monitor, which these creations may need.
+	 */
+	void awaitUnchecked() {
+		while(unchecked.sum() != 0)
+			LockSupport.parkNanos(100_000L);
+	}
+}
@@ -0,0 +1,288 @@
+package de.tum.ei.lkn.eces.graph.algorithms;
+
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+import de.tum.ei.lkn.eces.graph.view.CompactGraph;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Node betweenness, Edge betweenness and closeness centrality using Brandes'
+ * algorithm on the directed Graph.
+ *
+ * One single-source shortest path computation (BFS for hop counts, Dijkstra
+ * for weighted Edges) is run per source, followed by the accumulation of the
+ * dependencies in reverse order of distance. In sampled mode, only a random
+ * subset of sources is used and the betweenness values are scaled up
+ * accordingly (Brandes and Pich). In parallel mode, sources are spread over
+ * the common fork/join pool, each task accumulating into its own arrays,
+ * which are summed at the end.
+ *
+ * @author Amaury Van Bemten
+ */
+public final class Centrality {
+	/**
+	 * Compact Graph on which centrality is computed.
+	 */
+	private final CompactGraph graph;
+
+	/**
+	 * Cost of each Edge, by Edge index, or null for hop counts.
+	 */
+	private final double[] costs;
+
+	/**
+	 * Whether sources are processed in parallel.
+	 */
+	private final boolean parallel;
+
+	/**
+	 * Creates a hop-count centrality computation.
+	 * @param graph Compact Graph.
+	 * @param parallel Whether sources are processed in parallel.
+	 */
+	public Centrality(CompactGraph graph, boolean parallel) {
+		this.graph = graph;
+		this.costs = null;
+		this.parallel = parallel;
+	}
+
+	/**
+	 * Creates a weighted centrality computation.
+	 * @param graph Compact Graph.
+	 * @param cost Cost of each Edge (strictly positive).
+	 * @param parallel Whether sources are processed in parallel.
+	 * @throws GraphException if a cost is not strictly positive.
+	 */
+	public Centrality(CompactGraph graph, ToDoubleFunction<Edge> cost, boolean parallel) {
+		this.graph = graph;
+		this.costs = ShortestPathWorkspace.costs(graph, cost);
+		this.parallel = parallel;
+		// Zero-cost Edges would make the counting of shortest paths depend on the settling order.
+		for(int e = 0; e < costs.length; e++)
+			if(costs[e] == 0)
+				throw new GraphException("Edge costs must be strictly positive for centrality (" + graph.getEdge(e) + ")");
+	}
+
+	/**
+	 * Creates a sequential hop-count centrality computation.
+	 * @param graph Graph.
+	 */
+	public Centrality(Graph graph) {
+		this(CompactGraph.of(graph), false);
+	}
+
+	/**
+	 * Computes exact centrality, using every Node as source.
+	 * @return centrality values.
+	 */
+	public CentralityResult compute() {
+		int[] sources = new int[graph.nodeCount()];
+		for(int v = 0; v < sources.length; v++)
+			sources[v] = v;
+		return compute(sources, 1.0);
+	}
+
+	/**
+	 * Approximates centrality from a uniform sample of sources. Betweenness
+	 * values are scaled by the inverse of the sampled fraction so that they
+	 * estimate the exact values. Closeness is only known for the sampled
+	 * sources.
+	 * @param samples Number of sources (exact computation if at least the
+	 *                number of Nodes).
+	 * @param seed Seed of the sampling.
+	 * @return centrality values.
+	 * @throws GraphException if the number of samples is not positive.
+	 */
+	public CentralityResult compute(int samples, long seed) {
+		if(samples <= 0)
+			throw new GraphException("At least one source must be sampled");
+		int n = graph.nodeCount();
+		if(samples >= n)
+			return compute();
+
+		// Partial Fisher-Yates shuffle.
+		int[] nodes = new int[n];
+		for(int v = 0; v < n; v++)
+			nodes[v] = v;
+		Random random = new Random(seed);
+		for(int i = 0; i < samples; i++) {
+			int j = i + random.nextInt(n - i);
+			int tmp = nodes[i];
+			nodes[i] = nodes[j];
+			nodes[j] = tmp;
+		}
+		return compute(Arrays.copyOf(nodes, samples), (double) n / samples);
+	}
+
+	/**
+	 * Runs Brandes' algorithm from the given sources.
+	 * @param sources Source Node indices.
+	 * @param scale Factor applied to the betweenness values.
+	 * @return centrality values.
+	 */
+	private CentralityResult compute(int[] sources, double scale) {
+		IntStream stream = IntStream.range(0, sources.length);
+		if(parallel)
+			stream = stream.parallel();
+		Accumulator total = stream.collect(() -> new Accumulator(graph, costs),
+				(accumulator, i) -> accumulator.accumulate(sources[i]),
+				Accumulator::merge);
+
+		double[] closeness = new double[graph.nodeCount()];
+		Arrays.fill(closeness, Double.NaN);
+		for(int s : sources)
+			closeness[s] = total.closeness[s];
+		if(scale != 1.0) {
+			for(int v = 0; v < total.nodeBetweenness.length; v++)
+				total.nodeBetweenness[v] *= scale;
+			for(int e = 0; e < total.edgeBetweenness.length; e++)
+				total.edgeBetweenness[e] *= scale;
+		}
+		return new CentralityResult(graph, total.nodeBetweenness, total.edgeBetweenness, closeness, sources.length);
+	}
+
+	/**
+	 * Per-task state: betweenness sums and single-source scratch arrays.
+	 */
+	private static final class Accumulator {
+		private final CompactGraph graph;
+		private final double[] costs;
+		private final double[] nodeBetweenness;
+		private final double[] edgeBetweenness;
+		private final double[] closeness;
+
+		private final double[] distance;
+		private final double[] paths;
+		private final double[] dependency;
+		private final int[] order;
+		private final IndexedMinHeap heap;
+
+		private Accumulator(CompactGraph graph, double[] costs) {
+			int n = graph.nodeCount();
+			this.graph = graph;
+			this.costs = costs;
+			this.nodeBetweenness = new double[n];
+			this.edgeBetweenness = new double[graph.edgeCount()];
+			this.closeness = new double[n];
+			this.distance = new double[n];
+			this.paths = new double[n];
+			this.dependency = new double[n];
+			this.order = new int[n];
+			this.heap = costs == null ? null : new IndexedMinHeap(n);
+			Arrays.fill(distance, Double.POSITIVE_INFINITY);
+		}
+
+		/**
+		 * Adds the dependencies of one source.
+		 * @param s Source Node index.
+		 */
+		private void accumulate(int s) {
+			int settled = costs == null ? breadthFirst(s) : dijkstra(s);
+
+			double sum = 0;
+			for(int i = 0; i < settled; i++)
+				sum += distance[order[i]];
+			closeness[s] = sum > 0 ? (settled - 1) / sum : 0;
+
+			// Dependencies in reverse order of distance.
+			for(int i = settled - 1; i >= 0; i--) {
+				int w = order[i];
+				double coefficient = (1 + dependency[w]) / paths[w];
+				for(int k = graph.inBegin(w); k < graph.inEnd(w); k++) {
+					int e = graph.inEdge(k);
+					int u = graph.source(e);
+					if(distance[u] + cost(e) == distance[w]) {
+						double contribution = paths[u] * coefficient;
+						edgeBetweenness[e] += contribution;
+						dependency[u] += contribution;
+					}
+				}
+				if(w != s)
+					nodeBetweenness[w] += dependency[w];
+			}
+
+			// Reset only what was touched.
+			for(int i = 0; i < settled; i++) {
+				int v = order[i];
+				distance[v] = Double.POSITIVE_INFINITY;
+				paths[v] = 0;
+				dependency[v] = 0;
+			}
+		}
+
+		private double cost(int e) {
+			return costs == null ? 1 : costs[e];
+		}
+
+		/**
+		 * Hop-count shortest paths, using the order array as queue.
+		 * @return number of reached Nodes.
+		 */
+		private int breadthFirst(int s) {
+			distance[s] = 0;
+			paths[s] = 1;
+			order[0] = s;
+			int head = 0;
+			int tail = 1;
+			while(head < tail) {
+				int v = order[head++];
+				for(int e = graph.outBegin(v); e < graph.outEnd(v); e++) {
+					int w = graph.target(e);
+					if(distance[w] == Double.POSITIVE_INFINITY) {
+						distance[w] = distance[v] + 1;
+						order[tail++] = w;
+					}
+					if(distance[w] == distance[v] + 1)
+						paths[w] += paths[v];
+				}
+			}
+			return tail;
+		}
+
+		/**
+		 * Weighted shortest paths.
+		 * @return number of reached Nodes.
+		 */
+		private int dijkstra(int s) {
+			distance[s] = 0;
+			paths[s] = 1;
+			heap.push(s, 0);
+			int settled = 0;
+			while(!heap.isEmpty()) {
+				int v = heap.poll();
+				order[settled++] = v;
+				for(int e = graph.outBegin(v); e < graph.outEnd(v); e++) {
+					int w = graph.target(e);
+					double candidate = distance[v] + costs[e];
+					if(candidate < distance[w]) {
+						distance[w] = candidate;
+						paths[w] = paths[v];
+						heap.push(w, candidate);
+					}
+					else if(candidate == distance[w]) {
+						paths[w] += paths[v];
+					}
+				}
+			}
+			return settled;
+		}
+
+		/**
+		 * Adds the sums of another accumulator to this one.
+		 * @param other Other accumulator.
+		 */
+		private void merge(Accumulator other) {
+			for(int v = 0; v < nodeBetweenness.length; v++) {
+				nodeBetweenness[v] += other.nodeBetweenness[v];
+				closeness[v] += other.closeness[v];
+			}
+			for(int e = 0; e < edgeBetweenness.length; e++)
+				edgeBetweenness[e] += other.edgeBetweenness[e];
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package de.tum.ei.lkn.eces.graph.algorithms;
+
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.view.CompactGraph;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Result of a Centrality computation. Values are stored by dense Node and
+ * Edge index of the compact Graph and can be looked up by Node or Edge.
+ *
+ * Betweenness is the sum, over ordered pairs of distinct Nodes, of the
+ * fraction of shortest paths between them that go through the Node (resp.
+ * Edge). Closeness of a Node is the number of Nodes it reaches divided by
+ * the sum of the distances to them.
+ *
+ * @author Amaury Van Bemten
+ */
+public final class CentralityResult {
+	/**
+	 * Compact Graph on which centrality was computed.
+	 */
+	private final CompactGraph graph;
+
+	/**
+	 * Betweenness of each Node, by Node index.
+	 */
+	private final double[] nodeBetweenness;
+
+	/**
+	 * Betweenness of each Edge, by Edge index.
+	 */
+	private final double[] edgeBetweenness;
+
+	/**
+	 * Closeness of each Node, by Node index (NaN if not a source).
+	 */
+	private final double[] closeness;
+
+	/**
+	 * Number of sources used.
+	 */
+	private final int sourceCount;
+
+	CentralityResult(CompactGraph graph, double[] nodeBetweenness, double[] edgeBetweenness, double[] closeness, int sourceCount) {
+		this.graph = graph;
+		this.nodeBetweenness = nodeBetweenness;
+		this.edgeBetweenness = edgeBetweenness;
+		this.closeness = closeness;
+		this.sourceCount = sourceCount;
+	}
+
+	/**
+	 * Gets the compact Graph whose indices key the values.
+	 * @return the compact Graph.
+	 */
+	public CompactGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Gets the number of sources the values are computed from.
+	 * @return number of sources (the number of Nodes for an exact result).
+	 */
+	public int getSourceCount() {
+		return sourceCount;
+	}
+
+	/**
+	 * Tells whether the values are exact, i.e., computed from every Node.
+	 * @return true if exact.
+	 */
+	public boolean isExact() {
+		return sourceCount == graph.nodeCount();
+	}
+
+	/**
+	 * Gets the betweenness of a Node.
+	 * @param v Node index in the compact Graph.
+	 * @return betweenness.
+	 */
+	public double getNodeBetweenness(int v) {
+		return nodeBetweenness[v];
+	}
+
+	/**
+	 * Gets the betweenness of a Node.
+	 * @param node Node.
+	 * @return betweenness.
+	 */
+	public double getNodeBetweenness(Node node) {
+		return nodeBetweenness[graph.indexOf(node)];
+	}
+
+	/**
+	 * Gets the betweenness of an Edge.
+	 * @param e Edge index in the compact Graph.
+	 * @return betweenness.
+	 */
+	public double getEdgeBetweenness(int e) {
+		return edgeBetweenness[e];
+	}
+
+	/**
+	 * Gets the betweenness of an Edge.
+	 * @param edge Edge.
+	 * @return betweenness.
+	 */
+	public double getEdgeBetweenness(Edge edge) {
+		return edgeBetweenness[graph.indexOf(edge)];
+	}
+
+	/**
+	 * Gets the closeness of a Node.
+	 * @param v Node index in the compact Graph.
+	 * @return closeness, NaN if the Node was not a sampled source.
+	 */
+	public double getCloseness(int v) {
+		return closeness[v];
+	}
+
+	/**
+	 * Gets the closeness of a Node.
+	 * @param node Node.
+	 * @return closeness, NaN if the Node was not a sampled source.
+	 */
+	public double getCloseness(Node node) {
+		return closeness[graph.indexOf(node)];
+	}
+
+	/**
+	 * Gets the Edges with the highest betweenness.
+	 * @param count Maximum number of Edges.
+	 * @return the Edges, by decreasing betweenness.
+	 */
+	public List<Edge> getTopEdges(int count) {
+		return IntStream.range(0, edgeBetweenness.length).boxed()
+				.sorted(Comparator.comparingDouble((Integer e) -> -edgeBetweenness[e]).thenComparingInt(e -> e))
+				.limit(count)
+				.map(graph::getEdge)
+				.collect(Collectors.toCollection(ArrayList::new));
+	}
+}
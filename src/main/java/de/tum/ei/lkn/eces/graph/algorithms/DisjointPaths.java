@@ -0,0 +1,284 @@
+package de.tum.ei.lkn.eces.graph.algorithms;
+
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+import de.tum.ei.lkn.eces.graph.view.CompactGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Minimum total cost pair of edge-disjoint or node-disjoint paths
+ * (Suurballe's algorithm).
+ *
+ * Implemented in its Suurballe-Tarjan form: two successive shortest paths
+ * with Node potentials (so that reduced costs stay non-negative) on a
+ * residual network built once from a CompactGraph. For node-disjoint paths,
+ * every Node is split into an in- and an out-Node joined by a unit capacity
+ * arc. The residual arcs are numbered by tail Node, so that the Dijkstra
+ * runs reuse a ShortestPathWorkspace on the network, saturated arcs being
+ * banned. The residual network and the workspace are kept between calls,
+ * so an instance is not thread-safe.
+ *
+ * @author Amaury Van Bemten
+ */
+public final class DisjointPaths {
+	/**
+	 * Tolerance, relative to the magnitude of the costs involved, on
+	 * negative reduced costs caused by rounding errors.
+	 */
+	private static final double EPSILON = 1e-9;
+
+	/**
+	 * Compact Graph on which paths are computed.
+	 */
+	private final CompactGraph graph;
+
+	/**
+	 * Cost of each Edge, by Edge index.
+	 */
+	private final double[] costs;
+
+	/**
+	 * Whether paths must be node-disjoint (rather than only edge-disjoint).
+	 */
+	private final boolean nodeDisjoint;
+
+	/**
+	 * Number of Nodes of the residual network.
+	 */
+	private final int networkSize;
+
+	/**
+	 * Residual arcs, numbered by tail Node: the arcs leaving network Node v
+	 * are arcOffsets[v] to arcOffsets[v + 1] - 1.
+	 */
+	private final int[] arcOffsets;
+	private final int[] arcTail;
+	private final int[] arcHead;
+	private final int[] arcCapacity;
+	private final double[] arcCost;
+
+	/**
+	 * Reverse arc of each arc.
+	 */
+	private final int[] arcPartner;
+
+	/**
+	 * Original Edge of each forward arc, -1 for backward and split arcs.
+	 */
+	private final int[] arcEdge;
+
+	/**
+	 * Whether each arc is a forward arc (unit capacity initially).
+	 */
+	private final boolean[] arcForward;
+
+	/**
+	 * Reduced cost of each arc for the current run.
+	 */
+	private final double[] reducedCost;
+
+	private final double[] potential;
+	private final ShortestPathWorkspace workspace;
+
+	/**
+	 * Creates an edge-disjoint or node-disjoint path computation.
+	 * @param graph Compact Graph.
+	 * @param cost Cost of each Edge (non-negative).
+	 * @param nodeDisjoint true for node-disjoint paths, false for
+	 *                     edge-disjoint paths.
+	 */
+	public DisjointPaths(CompactGraph graph, ToDoubleFunction<Edge> cost, boolean nodeDisjoint) {
+		this.graph = graph;
+		this.costs = ShortestPathWorkspace.costs(graph, cost);
+		this.nodeDisjoint = nodeDisjoint;
+
+		int n = graph.nodeCount();
+		int m = graph.edgeCount();
+		networkSize = nodeDisjoint ? 2 * n : n;
+		int pairs = nodeDisjoint ? m + n : m;
+		int arcs = 2 * pairs;
+
+		// Forward arcs of every pair, as (tail, head, cost, Edge).
+		int[] tails = new int[pairs];
+		int[] heads = new int[pairs];
+		double[] pairCosts = new double[pairs];
+		int[] pairEdges = new int[pairs];
+		for(int e = 0; e < m; e++) {
+			// In the split network, Edges go from the out-Node (n + u) to the in-Node (v).
+			tails[e] = nodeDisjoint ? n + graph.source(e) : graph.source(e);
+			heads[e] = graph.target(e);
+			pairCosts[e] = costs[e];
+			pairEdges[e] = e;
+		}
+		if(nodeDisjoint) {
+			for(int v = 0; v < n; v++) {
+				tails[m + v] = v;
+				heads[m + v] = n + v;
+				pairEdges[m + v] = -1;
+			}
+		}
+
+		arcOffsets = new int[networkSize + 1];
+		for(int p = 0; p < pairs; p++) {
+			arcOffsets[tails[p] + 1]++;
+			arcOffsets[heads[p] + 1]++;
+		}
+		for(int v = 0; v < networkSize; v++)
+			arcOffsets[v + 1] += arcOffsets[v];
+
+		arcTail = new int[arcs];
+		arcHead = new int[arcs];
+		arcCapacity = new int[arcs];
+		arcCost = new double[arcs];
+		arcPartner = new int[arcs];
+		arcEdge = new int[arcs];
+		arcForward = new boolean[arcs];
+		int[] fill = Arrays.copyOf(arcOffsets, networkSize);
+		for(int p = 0; p < pairs; p++) {
+			int forward = fill[tails[p]]++;
+			int backward = fill[heads[p]]++;
+			setArc(forward, tails[p], heads[p], pairCosts[p], pairEdges[p], backward);
+			setArc(backward, heads[p], tails[p], -pairCosts[p], -1, forward);
+			arcForward[forward] = true;
+		}
+
+		reducedCost = new double[arcs];
+		potential = new double[networkSize];
+		workspace = new ShortestPathWorkspace(arcOffsets, arcTail, arcHead);
+	}
+
+	/**
+	 * Creates an edge-disjoint or node-disjoint path computation.
+	 * @param graph Graph.
+	 * @param cost Cost of each Edge (non-negative).
+	 * @param nodeDisjoint true for node-disjoint paths, false for
+	 *                     edge-disjoint paths.
+	 */
+	public DisjointPaths(Graph graph, ToDoubleFunction<Edge> cost, boolean nodeDisjoint) {
+		this(CompactGraph.of(graph), cost, nodeDisjoint);
+	}
+
+	private void setArc(int a, int tail, int head, double cost, int edge, int partner) {
+		arcTail[a] = tail;
+		arcHead[a] = head;
+		arcCost[a] = cost;
+		arcEdge[a] = edge;
+		arcPartner[a] = partner;
+	}
+
+	/**
+	 * Computes the pair of disjoint paths with minimum total cost.
+	 * @param source Source Node.
+	 * @param destination Destination Node.
+	 * @return two disjoint paths, a single path if no disjoint pair exists,
+	 *         or an empty list if the destination cannot be reached.
+	 * @throws GraphException if a Node is not part of the Graph.
+	 */
+	public List<Path> compute(Node source, Node destination) {
+		int s = graph.indexOf(source);
+		int t = graph.indexOf(destination);
+		if(s < 0 || t < 0)
+			throw new GraphException("Both Nodes must belong to " + graph.getGraph());
+		if(s == t)
+			return new ArrayList<>();
+
+		for(int a = 0; a < arcCapacity.length; a++)
+			arcCapacity[a] = arcForward[a] ? 1 : 0;
+		Arrays.fill(potential, 0);
+
+		int start = nodeDisjoint ? graph.nodeCount() + s : s;
+		int paths = 0;
+		while(paths < 2 && shortestPath(start, t, paths > 0)) {
+			for(int v = t; v != start; v = arcTail[workspace.predecessor(v)]) {
+				int a = workspace.predecessor(v);
+				arcCapacity[a]--;
+				arcCapacity[arcPartner[a]]++;
+			}
+			paths++;
+		}
+
+		return decompose(s, t, paths);
+	}
+
+	/**
+	 * Dijkstra on reduced costs in the residual network. Updates the
+	 * potentials of the reached Nodes.
+	 * @param start Start network Node.
+	 * @param target Target network Node.
+	 * @param reachedBefore Whether a previous run updated the potentials.
+	 *                      Only the arcs leaving Nodes it reached are then
+	 *                      usable: the others cannot be reached anymore and
+	 *                      their potentials are stale.
+	 * @return true if the target was reached.
+	 * @throws GraphException if a reduced cost is negative beyond rounding
+	 *                        errors.
+	 */
+	private boolean shortestPath(int start, int target, boolean reachedBefore) {
+		workspace.clearBans();
+		for(int a = 0; a < reducedCost.length; a++) {
+			int v = arcTail[a];
+			if(arcCapacity[a] <= 0 || (reachedBefore && !workspace.isReached(v))) {
+				workspace.banEdge(a);
+				continue;
+			}
+			int w = arcHead[a];
+			double reduced = arcCost[a] + potential[v] - potential[w];
+			if(reduced < 0) {
+				double scale = Math.abs(arcCost[a]) + Math.abs(potential[v]) + Math.abs(potential[w]);
+				if(reduced < -EPSILON * Math.max(1, scale))
+					throw new GraphException("Negative reduced cost " + reduced + " on a residual arc: inconsistent potentials");
+				// Rounding error.
+				reduced = 0;
+			}
+			reducedCost[a] = reduced;
+		}
+
+		workspace.run(reducedCost, start, -1);
+		if(!workspace.isReached(target))
+			return false;
+		for(int v = 0; v < networkSize; v++)
+			if(workspace.isReached(v))
+				potential[v] += workspace.distance(v);
+		return true;
+	}
+
+	/**
+	 * Follows the Edges carrying flow from the source to build the paths.
+	 */
+	private List<Path> decompose(int s, int t, int paths) {
+		int n = graph.nodeCount();
+		boolean[] used = new boolean[graph.edgeCount()];
+		for(int a = 0; a < arcCapacity.length; a++)
+			if(arcEdge[a] >= 0 && arcCapacity[a] == 0)
+				used[arcEdge[a]] = true;
+
+		List<Path> result = new ArrayList<>(paths);
+		for(int p = 0; p < paths; p++) {
+			List<Edge> edges = new ArrayList<>();
+			double cost = 0;
+			int v = s;
+			while(v != t) {
+				int next = -1;
+				for(int e = graph.outBegin(v); e < graph.outEnd(v) && next < 0; e++)
+					if(used[e])
+						next = e;
+				if(next < 0 || edges.size() > n)
+					throw new GraphException("Inconsistent flow while decomposing disjoint paths");
+				used[next] = false;
+				edges.add(graph.getEdge(next));
+				cost += costs[next];
+				v = graph.target(next);
+			}
+			result.add(new Path(edges, cost));
+		}
+
+		result.sort((a, b) -> Double.compare(a.getCost(), b.getCost()));
+		return result;
+	}
+}
@@ -0,0 +1,84 @@
+package de.tum.ei.lkn.eces.graph.algorithms;
+
+import de.tum.ei.lkn.eces.core.ComponentStatus;
+import de.tum.ei.lkn.eces.core.Controller;
+import de.tum.ei.lkn.eces.core.RootSystem;
+import de.tum.ei.lkn.eces.core.annotations.ComponentStateIs;
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Node;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * System maintaining shortest path trees under Edge creations and
+ * deletions.
+ *
+ * Trees registered with track() listen to the Edge and Node events of the
+ * GraphSystem and are repaired incrementally instead of being recomputed
+ * from scratch when, e.g., a link fails.
+ *
+ * @author Amaury Van Bemten
+ */
+public class DynamicShortestPathSystem extends RootSystem {
+	/**
+	 * Trees currently maintained.
+	 */
+	private final List<ShortestPathTree> trees = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Creates a new DynamicShortestPathSystem.
+	 * @param controller Controller responsible for the system.
+	 */
+	public DynamicShortestPathSystem(Controller controller) {
+		super(controller);
+	}
+
+	/**
+	 * Computes a shortest path tree and keeps it up to date.
+	 * @param source Root of the tree.
+	 * @param cost Cost of the Edges (non-negative and constant for a given
+	 *             Edge).
+	 * @return the maintained tree.
+	 */
+	public ShortestPathTree track(Node source, ToDoubleFunction<Edge> cost) {
+		ShortestPathTree tree = new ShortestPathTree(source, cost);
+		trees.add(tree);
+		logger.info("Shortest path tree from " + source + " tracked.");
+		return tree;
+	}
+
+	/**
+	 * Stops maintaining a tree.
+	 * @param tree Tree returned by track().
+	 */
+	public void untrack(ShortestPathTree tree) {
+		trees.remove(tree);
+	}
+
+	@ComponentStateIs(State = ComponentStatus.New)
+	public void edgeCreated(Edge edge) {
+		for(ShortestPathTree tree : trees)
+			if(tree.getGraph() == edge.getSource().getGraph())
+				tree.edgeAdded(edge);
+	}
+
+	@ComponentStateIs(State = ComponentStatus.Destroyed)
+	public void edgeDeleted(Edge edge) {
+		for(ShortestPathTree tree : trees)
+			if(tree.getGraph() == edge.getSource().getGraph())
+				tree.edgeRemoved(edge);
+	}
+
+	@ComponentStateIs(State = ComponentStatus.Destroyed)
+	public void nodeDeleted(Node node) {
+		for(ShortestPathTree tree : trees) {
+			if(tree.getGraph() == node.getGraph()) {
+				tree.nodeRemoved(node);
+				if(tree.getSource() == node)
+					trees.remove(tree);
+			}
+		}
+	}
+}
@@ -0,0 +1,195 @@
+package de.tum.ei.lkn.eces.graph.algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of integer items (0..capacity-1) with double keys and
+ * decrease-key support. Everything is stored in primitive arrays so that
+ * the heap can be reused across runs without allocation.
+ *
+ * @author Amaury Van Bemten
+ */
+public final class IndexedMinHeap {
+	/**
+	 * Items in heap order.
+	 */
+	private final int[] heap;
+
+	/**
+	 * Position of each item in the heap, -1 if absent.
+	 */
+	private final int[] positions;
+
+	/**
+	 * Key of each item.
+	 */
+	private final double[] keys;
+
+	/**
+	 * Number of items in the heap.
+	 */
+	private int size;
+
+	/**
+	 * Creates an empty heap.
+	 * @param capacity Number of distinct items (items are 0..capacity-1).
+	 */
+	public IndexedMinHeap(int capacity) {
+		heap = new int[capacity];
+		positions = new int[capacity];
+		keys = new double[capacity];
+		Arrays.fill(positions, -1);
+	}
+
+	/**
+	 * Gets the number of items the heap can hold.
+	 * @return capacity.
+	 */
+	public int capacity() {
+		return heap.length;
+	}
+
+	/**
+	 * Tells whether the heap is empty.
+	 * @return true if empty.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Gets the number of items in the heap.
+	 * @return size.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Tells whether an item is in the heap.
+	 * @param item Item.
+	 * @return true if present.
+	 */
+	public boolean contains(int item) {
+		return positions[item] >= 0;
+	}
+
+	/**
+	 * Gets the key of an item in the heap.
+	 * @param item Item.
+	 * @return its key.
+	 */
+	public double key(int item) {
+		return keys[item];
+	}
+
+	/**
+	 * Inserts an item or decreases its key. Does nothing if the item is
+	 * already in the heap with a smaller or equal key.
+	 * @param item Item.
+	 * @param key Key.
+	 * @return true if the heap was modified.
+	 */
+	public boolean push(int item, double key) {
+		int position = positions[item];
+		if(position < 0) {
+			keys[item] = key;
+			heap[size] = item;
+			positions[item] = size;
+			siftUp(size++);
+			return true;
+		}
+		if(key < keys[item]) {
+			keys[item] = key;
+			siftUp(position);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the item with the smallest key without removing it.
+	 * @return the item.
+	 */
+	public int peek() {
+		return heap[0];
+	}
+
+	/**
+	 * Removes the item with the smallest key.
+	 * @return the item.
+	 */
+	public int poll() {
+		int item = heap[0];
+		positions[item] = -1;
+		if(--size > 0) {
+			heap[0] = heap[size];
+			positions[heap[0]] = 0;
+			siftDown(0);
+		}
+		return item;
+	}
+
+	/**
+	 * Removes an arbitrary item from the heap.
+	 * @param item Item to remove.
+	 */
+	public void remove(int item) {
+		int position = positions[item];
+		if(position < 0)
+			return;
+		positions[item] = -1;
+		if(position == --size)
+			return;
+		int moved = heap[size];
+		heap[position] = moved;
+		positions[moved] = position;
+		siftUp(position);
+		if(positions[moved] == position)
+			siftDown(position);
+	}
+
+	/**
+	 * Removes all the items, in time proportional to the current size.
+	 */
+	public void clear() {
+		for(int i = 0; i < size; i++)
+			positions[heap[i]] = -1;
+		size = 0;
+	}
+
+	private void siftUp(int position) {
+		int item = heap[position];
+		double key = keys[item];
+		while(position > 0) {
+			int parent = (position - 1) >>> 1;
+			int parentItem = heap[parent];
+			if(keys[parentItem] <= key)
+				break;
+			heap[position] = parentItem;
+			positions[parentItem] = position;
+			position = parent;
+		}
+		heap[position] = item;
+		positions[item] = position;
+	}
+
+	private void siftDown(int position) {
+		int item = heap[position];
+		double key = keys[item];
+		int half = size >>> 1;
+		while(position < half) {
+			int child = 2 * position + 1;
+			int right = child + 1;
+			if(right < size && keys[heap[right]] < keys[heap[child]])
+				child = right;
+			if(key <= keys[heap[child]])
+				break;
+			heap[position] = heap[child];
+			positions[heap[position]] = position;
+			position = child;
+		}
+		heap[position] = item;
+		positions[item] = position;
+	}
+}
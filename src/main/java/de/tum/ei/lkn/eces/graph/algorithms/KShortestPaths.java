@@ -0,0 +1,265 @@
+package de.tum.ei.lkn.eces.graph.algorithms;
+
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+import de.tum.ei.lkn.eces.graph.view.CompactGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * K-shortest loopless paths using Yen's algorithm.
+ *
+ * Spur paths are computed on a CompactGraph with ShortestPathWorkspaces
+ * borrowed from a pool owned by the instance, so that they are reused
+ * across spur computations without being tied to the pool threads. Following Lawler, only the spur Nodes from the
+ * deviation Node of the last accepted path onwards are explored (the earlier
+ * ones were already explored when its parent was accepted), and identical
+ * candidates are only kept once. In parallel mode, the spur computations of
+ * one iteration are spread over the common fork/join pool.
+ *
+ * @author Amaury Van Bemten
+ */
+public final class KShortestPaths {
+	/**
+	 * Compact Graph on which paths are computed.
+	 */
+	private final CompactGraph graph;
+
+	/**
+	 * Cost of each Edge, by Edge index.
+	 */
+	private final double[] costs;
+
+	/**
+	 * Whether spur paths are computed in parallel.
+	 */
+	private final boolean parallel;
+
+	/**
+	 * Idle shortest path states. At most one per concurrent spur
+	 * computation is ever created.
+	 */
+	private final Queue<ShortestPathWorkspace> workspaces = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Creates a sequential k-shortest paths computation.
+	 * @param graph Compact Graph.
+	 * @param cost Cost of each Edge (non-negative).
+	 */
+	public KShortestPaths(CompactGraph graph, ToDoubleFunction<Edge> cost) {
+		this(graph, cost, false);
+	}
+
+	/**
+	 * Creates a k-shortest paths computation.
+	 * @param graph Compact Graph.
+	 * @param cost Cost of each Edge (non-negative).
+	 * @param parallel Whether spur paths are computed in parallel.
+	 */
+	public KShortestPaths(CompactGraph graph, ToDoubleFunction<Edge> cost, boolean parallel) {
+		this.graph = graph;
+		this.costs = ShortestPathWorkspace.costs(graph, cost);
+		this.parallel = parallel;
+	}
+
+	/**
+	 * Creates a sequential k-shortest paths computation.
+	 * @param graph Graph.
+	 * @param cost Cost of each Edge (non-negative).
+	 */
+	public KShortestPaths(Graph graph, ToDoubleFunction<Edge> cost) {
+		this(CompactGraph.of(graph), cost, false);
+	}
+
+	/**
+	 * Candidate or accepted path in index form.
+	 */
+	private static final class IndexPath implements Comparable<IndexPath> {
+		private final int[] edges;
+		private final double cost;
+		private final int deviation;
+		private final long sequence;
+
+		private IndexPath(int[] edges, double cost, int deviation, long sequence) {
+			this.edges = edges;
+			this.cost = cost;
+			this.deviation = deviation;
+			this.sequence = sequence;
+		}
+
+		@Override
+		public int compareTo(IndexPath other) {
+			int result = Double.compare(cost, other.cost);
+			if(result == 0)
+				result = Integer.compare(edges.length, other.edges.length);
+			if(result == 0)
+				result = Long.compare(sequence, other.sequence);
+			return result;
+		}
+	}
+
+	/**
+	 * Hashable wrapper around an Edge sequence, used to deduplicate
+	 * candidates.
+	 */
+	private static final class EdgeSequence {
+		private final int[] edges;
+		private final int hash;
+
+		private EdgeSequence(int[] edges) {
+			this.edges = edges;
+			this.hash = Arrays.hashCode(edges);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof EdgeSequence && Arrays.equals(edges, ((EdgeSequence) other).edges);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	/**
+	 * Computes the k shortest loopless paths between two Nodes.
+	 * @param source Source Node.
+	 * @param destination Destination Node.
+	 * @param k Maximum number of paths.
+	 * @return up to k paths, by increasing cost.
+	 * @throws GraphException if a Node is not part of the Graph.
+	 */
+	public List<Path> compute(Node source, Node destination, int k) {
+		int s = graph.indexOf(source);
+		int t = graph.indexOf(destination);
+		if(s < 0 || t < 0)
+			throw new GraphException("Both Nodes must belong to " + graph.getGraph());
+
+		List<Path> result = new ArrayList<>();
+		if(k <= 0 || s == t)
+			return result;
+
+		ShortestPathWorkspace workspace = borrow();
+		IndexPath shortest;
+		try {
+			if(!workspace.run(costs, s, t))
+				return result;
+			shortest = new IndexPath(workspace.pathTo(t), workspace.distance(t), 0, 0);
+		} finally {
+			workspaces.add(workspace);
+		}
+
+		long sequence = 0;
+		List<IndexPath> accepted = new ArrayList<>();
+		accepted.add(shortest);
+		sequence++;
+		PriorityQueue<IndexPath> candidates = new PriorityQueue<>();
+		Set<EdgeSequence> known = new HashSet<>();
+		known.add(new EdgeSequence(accepted.get(0).edges));
+
+		while(accepted.size() < k) {
+			IndexPath last = accepted.get(accepted.size() - 1);
+			IntStream spurIndices = IntStream.range(last.deviation, last.edges.length);
+			if(parallel)
+				spurIndices = spurIndices.parallel();
+			List<IndexPath> spurs = spurIndices
+					.mapToObj(i -> spur(accepted, last, i, t))
+					.collect(Collectors.toList());
+
+			// Candidates are added in spur order so that the result does not
+			// depend on the thread scheduling.
+			for(IndexPath spur : spurs)
+				if(spur != null && known.add(new EdgeSequence(spur.edges)))
+					candidates.add(new IndexPath(spur.edges, spur.cost, spur.deviation, sequence++));
+
+			if(candidates.isEmpty())
+				break;
+			accepted.add(candidates.poll());
+		}
+
+		for(IndexPath path : accepted)
+			result.add(toPath(path));
+		return result;
+	}
+
+	/**
+	 * Computes the best deviation of a path at a given spur position.
+	 * @param accepted Paths accepted so far.
+	 * @param last Last accepted path.
+	 * @param i Position of the spur Node in the last path.
+	 * @param t Target Node index.
+	 * @return the candidate, or null if there is none.
+	 */
+	private IndexPath spur(List<IndexPath> accepted, IndexPath last, int i, int t) {
+		ShortestPathWorkspace workspace = borrow();
+		try {
+			return spur(workspace, accepted, last, i, t);
+		} finally {
+			workspaces.add(workspace);
+		}
+	}
+
+	private IndexPath spur(ShortestPathWorkspace workspace, List<IndexPath> accepted, IndexPath last, int i, int t) {
+
+		// Ban the next Edge of every accepted path sharing the root.
+		for(IndexPath path : accepted)
+			if(path.edges.length > i && sharesRoot(path.edges, last.edges, i))
+				workspace.banEdge(path.edges[i]);
+
+		// Ban the root Nodes to keep the path loopless.
+		double rootCost = 0;
+		for(int j = 0; j < i; j++) {
+			workspace.banNode(graph.source(last.edges[j]));
+			rootCost += costs[last.edges[j]];
+		}
+
+		int spurNode = graph.source(last.edges[i]);
+		if(!workspace.run(costs, spurNode, t))
+			return null;
+
+		int[] spurPath = workspace.pathTo(t);
+		int[] edges = Arrays.copyOf(last.edges, i + spurPath.length);
+		System.arraycopy(spurPath, 0, edges, i, spurPath.length);
+		return new IndexPath(edges, rootCost + workspace.distance(t), i, 0);
+	}
+
+	/**
+	 * Takes an idle workspace from the pool, or creates one if all are in
+	 * use. The workspace has no ban and must be given back once done.
+	 * @return the workspace.
+	 */
+	private ShortestPathWorkspace borrow() {
+		ShortestPathWorkspace workspace = workspaces.poll();
+		if(workspace == null)
+			return new ShortestPathWorkspace(graph);
+		workspace.clearBans();
+		return workspace;
+	}
+
+	private static boolean sharesRoot(int[] a, int[] b, int length) {
+		for(int j = 0; j < length; j++)
+			if(a[j] != b[j])
+				return false;
+		return true;
+	}
+
+	private Path toPath(IndexPath path) {
+		List<Edge> edges = new ArrayList<>(path.edges.length);
+		for(int e : path.edges)
+			edges.add(graph.getEdge(e));
+		return new Path(edges, path.cost);
+	}
+}
@@ -0,0 +1,258 @@
+package de.tum.ei.lkn.eces.graph.algorithms;
+
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+import de.tum.ei.lkn.eces.graph.view.CompactGraph;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Maximum flow / minimum cut between sets of Nodes using Dinic's algorithm.
+ *
+ * The residual network is a CSR structure in primitive arrays: every Edge
+ * yields a forward arc with its capacity and a backward arc, and a super
+ * source and a super sink are connected with infinite capacity to the given
+ * sources and sinks. Both the level BFS and the blocking flow search are
+ * iterative.
+ *
+ * @author Amaury Van Bemten
+ */
+public final class MaxFlow {
+	/**
+	 * Residual capacities below this value are considered saturated.
+	 */
+	private static final double EPSILON = 1e-9;
+
+	/**
+	 * Compact Graph on which flows are computed.
+	 */
+	private final CompactGraph graph;
+
+	/**
+	 * Capacity of each Edge, by Edge index.
+	 */
+	private final double[] capacities;
+
+	/**
+	 * Creates a max-flow computation.
+	 * @param graph Compact Graph.
+	 * @param capacity Capacity of each Edge (non-negative, may be infinite).
+	 * @throws GraphException if a capacity is negative or NaN.
+	 */
+	public MaxFlow(CompactGraph graph, ToDoubleFunction<Edge> capacity) {
+		this.graph = graph;
+		this.capacities = new double[graph.edgeCount()];
+		for(int e = 0; e < capacities.length; e++) {
+			capacities[e] = capacity.applyAsDouble(graph.getEdge(e));
+			if(!(capacities[e] >= 0))
+				throw new GraphException("Edge capacities must be non-negative (" + graph.getEdge(e) + ": " + capacities[e] + ")");
+		}
+	}
+
+	/**
+	 * Creates a max-flow computation.
+	 * @param graph Graph.
+	 * @param capacity Capacity of each Edge (non-negative, may be infinite).
+	 */
+	public MaxFlow(Graph graph, ToDoubleFunction<Edge> capacity) {
+		this(CompactGraph.of(graph), capacity);
+	}
+
+	/**
+	 * Computes a maximum flow between two Nodes.
+	 * @param source Source Node.
+	 * @param sink Sink Node.
+	 * @return the flow and the corresponding minimum cut.
+	 */
+	public MaxFlowResult compute(Node source, Node sink) {
+		return compute(Collections.singleton(source), Collections.singleton(sink));
+	}
+
+	/**
+	 * Computes a maximum flow from a set of sources to a set of sinks.
+	 * @param sources Source Nodes.
+	 * @param sinks Sink Nodes.
+	 * @return the flow and the corresponding minimum cut.
+	 * @throws GraphException if a Node is not part of the Graph or is both a
+	 *                        source and a sink.
+	 */
+	public MaxFlowResult compute(Collection<Node> sources, Collection<Node> sinks) {
+		int n = graph.nodeCount();
+		int m = graph.edgeCount();
+		int superSource = n;
+		int superSink = n + 1;
+
+		// 0 = none, 1 = source, 2 = sink.
+		byte[] role = new byte[n];
+		for(Node node : sources)
+			role[checkedIndex(node)] = 1;
+		for(Node node : sinks) {
+			int v = checkedIndex(node);
+			if(role[v] == 1)
+				throw new GraphException(node + " cannot be both a source and a sink");
+			role[v] = 2;
+		}
+		int terminals = 0;
+		for(int v = 0; v < n; v++)
+			if(role[v] != 0)
+				terminals++;
+
+		// CSR layout of the residual network.
+		int[] offsets = new int[n + 3];
+		for(int v = 0; v < n; v++)
+			offsets[v + 1] = graph.outDegree(v) + graph.inDegree(v) + (role[v] != 0 ? 1 : 0);
+		for(int v = 0; v < n; v++)
+			if(role[v] == 1)
+				offsets[superSource + 1]++;
+			else if(role[v] == 2)
+				offsets[superSink + 1]++;
+		for(int v = 0; v < n + 2; v++)
+			offsets[v + 1] += offsets[v];
+
+		int arcs = 2 * (m + terminals);
+		int[] head = new int[arcs];
+		int[] reverse = new int[arcs];
+		double[] residual = new double[arcs];
+		int[] fill = Arrays.copyOf(offsets, n + 2);
+		// forwardArc[e]: position of the forward arc of Edge e.
+		int[] forwardArc = new int[m];
+
+		for(int e = 0; e < m; e++) {
+			int u = graph.source(e);
+			int w = graph.target(e);
+			int a = fill[u]++;
+			int b = fill[w]++;
+			head[a] = w;
+			head[b] = u;
+			residual[a] = capacities[e];
+			reverse[a] = b;
+			reverse[b] = a;
+			forwardArc[e] = a;
+		}
+		for(int v = 0; v < n; v++) {
+			if(role[v] == 0)
+				continue;
+			int from = role[v] == 1 ? superSource : v;
+			int to = role[v] == 1 ? v : superSink;
+			int a = fill[from]++;
+			int b = fill[to]++;
+			head[a] = to;
+			head[b] = from;
+			residual[a] = Double.POSITIVE_INFINITY;
+			reverse[a] = b;
+			reverse[b] = a;
+		}
+
+		int size = n + 2;
+		int[] level = new int[size];
+		int[] queue = new int[size];
+		int[] current = new int[size];
+		int[] pathArcs = new int[size];
+		double value = 0;
+
+		while(buildLevels(offsets, head, residual, level, queue, superSource, superSink)) {
+			System.arraycopy(offsets, 0, current, 0, size);
+			value += blockingFlow(offsets, head, reverse, residual, level, current, pathArcs, superSource, superSink);
+		}
+
+		// After the last BFS, level[v] >= 0 exactly for the source side of a minimum cut.
+		double[] flows = new double[m];
+		boolean[] sourceSide = new boolean[n];
+		for(int v = 0; v < n; v++)
+			sourceSide[v] = level[v] >= 0;
+		for(int e = 0; e < m; e++)
+			flows[e] = residual[reverse[forwardArc[e]]];
+
+		return new MaxFlowResult(graph, value, flows, sourceSide);
+	}
+
+	private int checkedIndex(Node node) {
+		int v = graph.indexOf(node);
+		if(v < 0)
+			throw new GraphException(node + " does not belong to " + graph.getGraph());
+		return v;
+	}
+
+	/**
+	 * BFS computing the level of every Node in the residual network.
+	 * @return true if the sink is reachable.
+	 */
+	private static boolean buildLevels(int[] offsets, int[] head, double[] residual, int[] level, int[] queue, int source, int sink) {
+		Arrays.fill(level, -1);
+		level[source] = 0;
+		queue[0] = source;
+		int tail = 1;
+		for(int i = 0; i < tail; i++) {
+			int v = queue[i];
+			for(int a = offsets[v]; a < offsets[v + 1]; a++) {
+				int w = head[a];
+				if(level[w] < 0 && residual[a] > EPSILON) {
+					level[w] = level[v] + 1;
+					queue[tail++] = w;
+				}
+			}
+		}
+		return level[sink] >= 0;
+	}
+
+	/**
+	 * Iterative DFS saturating the level graph.
+	 * @return the flow pushed.
+	 */
+	private static double blockingFlow(int[] offsets, int[] head, int[] reverse, double[] residual, int[] level,
+									   int[] current, int[] pathArcs, int source, int sink) {
+		double pushed = 0;
+		int depth = 0;
+		int v = source;
+
+		while(true) {
+			if(v == sink) {
+				double bottleneck = Double.POSITIVE_INFINITY;
+				for(int i = 0; i < depth; i++)
+					bottleneck = Math.min(bottleneck, residual[pathArcs[i]]);
+				if(bottleneck == Double.POSITIVE_INFINITY)
+					throw new GraphException("Infinite capacity path between the sources and the sinks");
+				int retreat = depth;
+				for(int i = depth - 1; i >= 0; i--) {
+					int a = pathArcs[i];
+					residual[a] -= bottleneck;
+					residual[reverse[a]] += bottleneck;
+					if(residual[a] <= EPSILON)
+						retreat = i;
+				}
+				pushed += bottleneck;
+				// Resume from the tail of the first saturated arc.
+				depth = retreat;
+				v = depth == 0 ? source : head[pathArcs[depth - 1]];
+				continue;
+			}
+
+			boolean advanced = false;
+			for(; current[v] < offsets[v + 1]; current[v]++) {
+				int a = current[v];
+				int w = head[a];
+				if(residual[a] > EPSILON && level[w] == level[v] + 1) {
+					pathArcs[depth++] = a;
+					v = w;
+					advanced = true;
+					break;
+				}
+			}
+			if(advanced)
+				continue;
+
+			// Dead end: remove v from the level graph and retreat.
+			if(v == source)
+				return pushed;
+			level[v] = -1;
+			int a = pathArcs[--depth];
+			v = head[reverse[a]];
+			current[v]++;
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package de.tum.ei.lkn.eces.graph.algorithms;
+
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.view.CompactGraph;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Result of a MaxFlow computation: flow value, flow on every Edge and a
+ * minimum cut.
+ *
+ * @author Amaury Van Bemten
+ */
+public final class MaxFlowResult {
+	/**
+	 * Compact Graph on which the flow was computed.
+	 */
+	private final CompactGraph graph;
+
+	/**
+	 * Total flow from the sources to the sinks.
+	 */
+	private final double value;
+
+	/**
+	 * Flow on each Edge, by Edge index.
+	 */
+	private final double[] flows;
+
+	/**
+	 * Whether each Node is on the source side of the minimum cut.
+	 */
+	private final boolean[] sourceSide;
+
+	MaxFlowResult(CompactGraph graph, double value, double[] flows, boolean[] sourceSide) {
+		this.graph = graph;
+		this.value = value;
+		this.flows = flows;
+		this.sourceSide = sourceSide;
+	}
+
+	/**
+	 * Gets the value of the maximum flow (= capacity of the minimum cut).
+	 * @return flow value.
+	 */
+	public double getValue() {
+		return value;
+	}
+
+	/**
+	 * Gets the flow on an Edge.
+	 * @param e Edge index in the compact Graph.
+	 * @return flow.
+	 */
+	public double getFlow(int e) {
+		return flows[e];
+	}
+
+	/**
+	 * Gets the flow on an Edge.
+	 * @param edge Edge.
+	 * @return flow.
+	 */
+	public double getFlow(Edge edge) {
+		return flows[graph.indexOf(edge)];
+	}
+
+	/**
+	 * Tells whether a Node is on the source side of the minimum cut.
+	 * @param node Node.
+	 * @return true if the Node is reachable from the sources in the final
+	 *         residual network.
+	 */
+	public boolean isOnSourceSide(Node node) {
+		return sourceSide[graph.indexOf(node)];
+	}
+
+	/**
+	 * Gets the Edges of the minimum cut, i.e., the Edges going from the
+	 * source side to the sink side.
+	 * @return the cut Edges.
+	 */
+	public Set<Edge> getMinCut() {
+		Set<Edge> cut = new HashSet<>();
+		for(int e = 0; e < flows.length; e++)
+			if(sourceSide[graph.source(e)] && !sourceSide[graph.target(e)])
+				cut.add(graph.getEdge(e));
+		return cut;
+	}
+}
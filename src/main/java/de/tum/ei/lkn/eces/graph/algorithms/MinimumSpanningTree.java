@@ -0,0 +1,203 @@
+package de.tum.ei.lkn.eces.graph.algorithms;
+
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+import de.tum.ei.lkn.eces.graph.view.CompactGraph;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Minimum spanning forest of a Graph, Edge directions being ignored.
+ *
+ * Three classic algorithms are provided on a CompactGraph: Kruskal (Edges
+ * taken in cost order from an IndexedMinHeap, joined with a UnionFind),
+ * Prim (IndexedMinHeap of Node keys, one tree per connected component) and
+ * Boruvka, whose search for the cheapest Edge leaving each component can
+ * run in parallel on very large Graphs. The three algorithms return forests
+ * of the same, minimum, cost; the forests are identical when Edge costs are
+ * distinct.
+ *
+ * @author Amaury Van Bemten
+ */
+public final class MinimumSpanningTree {
+	/**
+	 * Compact Graph.
+	 */
+	private final CompactGraph graph;
+
+	/**
+	 * Cost of each Edge, by Edge index.
+	 */
+	private final double[] costs;
+
+	/**
+	 * Creates a minimum spanning tree computation.
+	 * @param graph Compact Graph.
+	 * @param cost Cost of each Edge (negative costs are allowed).
+	 * @throws GraphException if a cost is NaN.
+	 */
+	public MinimumSpanningTree(CompactGraph graph, ToDoubleFunction<Edge> cost) {
+		this.graph = graph;
+		this.costs = new double[graph.edgeCount()];
+		for(int e = 0; e < costs.length; e++) {
+			costs[e] = cost.applyAsDouble(graph.getEdge(e));
+			if(Double.isNaN(costs[e]))
+				throw new GraphException("Edge costs must be numbers (" + graph.getEdge(e) + ")");
+		}
+	}
+
+	/**
+	 * Creates a minimum spanning tree computation.
+	 * @param graph Graph.
+	 * @param cost Cost of each Edge (negative costs are allowed).
+	 */
+	public MinimumSpanningTree(Graph graph, ToDoubleFunction<Edge> cost) {
+		this(CompactGraph.of(graph), cost);
+	}
+
+	/**
+	 * Orders Edges by cost, then by index. Boruvka needs this strict order
+	 * so that the Edges chosen by different components cannot form a cycle.
+	 */
+	private boolean lighter(int e, int f) {
+		return costs[e] < costs[f] || (costs[e] == costs[f] && e < f);
+	}
+
+	/**
+	 * Computes the forest with Kruskal's algorithm.
+	 * @return the Edges of the forest.
+	 */
+	public Set<Edge> kruskal() {
+		int n = graph.nodeCount();
+		IndexedMinHeap heap = new IndexedMinHeap(costs.length);
+		for(int e = 0; e < costs.length; e++)
+			heap.push(e, costs[e]);
+
+		UnionFind sets = new UnionFind(n);
+		Set<Edge> tree = new HashSet<>();
+		while(!heap.isEmpty() && tree.size() < n - 1) {
+			int e = heap.poll();
+			if(sets.union(graph.source(e), graph.target(e)))
+				tree.add(graph.getEdge(e));
+		}
+		return tree;
+	}
+
+	/**
+	 * Computes the forest with Prim's algorithm.
+	 * @return the Edges of the forest.
+	 */
+	public Set<Edge> prim() {
+		int n = graph.nodeCount();
+		IndexedMinHeap heap = new IndexedMinHeap(n);
+		boolean[] inTree = new boolean[n];
+		int[] bestEdge = new int[n];
+		Arrays.fill(bestEdge, -1);
+		Set<Edge> tree = new HashSet<>();
+
+		for(int root = 0; root < n; root++) {
+			if(inTree[root])
+				continue;
+			heap.push(root, Double.NEGATIVE_INFINITY);
+			while(!heap.isEmpty()) {
+				int v = heap.poll();
+				inTree[v] = true;
+				if(bestEdge[v] >= 0)
+					tree.add(graph.getEdge(bestEdge[v]));
+				for(int e = graph.outBegin(v); e < graph.outEnd(v); e++)
+					relax(heap, inTree, bestEdge, e, graph.target(e));
+				for(int k = graph.inBegin(v); k < graph.inEnd(v); k++) {
+					int e = graph.inEdge(k);
+					relax(heap, inTree, bestEdge, e, graph.source(e));
+				}
+			}
+		}
+		return tree;
+	}
+
+	private void relax(IndexedMinHeap heap, boolean[] inTree, int[] bestEdge, int e, int w) {
+		if(inTree[w])
+			return;
+		if(bestEdge[w] < 0 || lighter(e, bestEdge[w])) {
+			bestEdge[w] = e;
+			heap.push(w, costs[e]);
+		}
+	}
+
+	/**
+	 * Computes the forest with Boruvka's algorithm.
+	 * @param parallel Whether the cheapest Edge of each component is searched
+	 *                 in parallel.
+	 * @return the Edges of the forest.
+	 */
+	public Set<Edge> boruvka(boolean parallel) {
+		int n = graph.nodeCount();
+		int m = costs.length;
+		UnionFind sets = new UnionFind(n);
+		int[] components = new int[n];
+		AtomicIntegerArray cheapest = new AtomicIntegerArray(n);
+		Set<Edge> tree = new HashSet<>();
+
+		boolean merged = true;
+		while(merged && sets.count() > 1) {
+			// Flattened components: read-only during the parallel phase.
+			for(int v = 0; v < n; v++) {
+				components[v] = sets.find(v);
+				cheapest.set(v, -1);
+			}
+
+			IntStream edges = IntStream.range(0, m);
+			if(parallel)
+				edges = edges.parallel();
+			edges.forEach(e -> {
+				int a = components[graph.source(e)];
+				int b = components[graph.target(e)];
+				if(a != b) {
+					offer(cheapest, a, e);
+					offer(cheapest, b, e);
+				}
+			});
+
+			merged = false;
+			for(int c = 0; c < n; c++) {
+				int e = cheapest.get(c);
+				if(e >= 0 && sets.union(graph.source(e), graph.target(e))) {
+					tree.add(graph.getEdge(e));
+					merged = true;
+				}
+			}
+		}
+		return tree;
+	}
+
+	/**
+	 * Keeps the lighter of the current and the offered Edge for a component.
+	 */
+	private void offer(AtomicIntegerArray cheapest, int component, int e) {
+		while(true) {
+			int current = cheapest.get(component);
+			if(current >= 0 && !lighter(e, current))
+				return;
+			if(cheapest.compareAndSet(component, current, e))
+				return;
+		}
+	}
+
+	/**
+	 * Gets the total cost of a set of Edges.
+	 * @param edges Edges of the Graph.
+	 * @return sum of their costs.
+	 */
+	public double cost(Set<Edge> edges) {
+		double total = 0;
+		for(Edge edge : edges)
+			total += costs[graph.indexOf(edge)];
+		return total;
+	}
+}
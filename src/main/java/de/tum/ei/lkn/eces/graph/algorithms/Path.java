@@ -0,0 +1,78 @@
+package de.tum.ei.lkn.eces.graph.algorithms;
+
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Path (sequence of consecutive Edges) returned by the path algorithms.
+ *
+ * @author Amaury Van Bemten
+ */
+public final class Path {
+	/**
+	 * Edges of the Path, in order.
+	 */
+	private final List<Edge> edges;
+
+	/**
+	 * Total cost of the Path.
+	 */
+	private final double cost;
+
+	/**
+	 * Creates a Path.
+	 * @param edges Edges of the Path, in order.
+	 * @param cost Total cost of the Path.
+	 */
+	public Path(List<Edge> edges, double cost) {
+		this.edges = Collections.unmodifiableList(new ArrayList<>(edges));
+		this.cost = cost;
+	}
+
+	/**
+	 * Gets the Edges of the Path.
+	 * @return Edges, in order.
+	 */
+	public List<Edge> getEdges() {
+		return edges;
+	}
+
+	/**
+	 * Gets the Nodes traversed by the Path, including both ends.
+	 * @return Nodes, in order. Empty for an empty Path.
+	 */
+	public List<Node> getNodes() {
+		List<Node> nodes = new ArrayList<>(edges.size() + 1);
+		if(edges.isEmpty())
+			return nodes;
+		nodes.add(edges.get(0).getSource());
+		for(Edge edge : edges)
+			nodes.add(edge.getDestination());
+		return nodes;
+	}
+
+	/**
+	 * Gets the total cost of the Path.
+	 * @return cost.
+	 */
+	public double getCost() {
+		return cost;
+	}
+
+	/**
+	 * Gets the number of Edges of the Path.
+	 * @return number of hops.
+	 */
+	public int size() {
+		return edges.size();
+	}
+
+	@Override
+	public String toString() {
+		return edges + " (cost " + cost + ")";
+	}
+}
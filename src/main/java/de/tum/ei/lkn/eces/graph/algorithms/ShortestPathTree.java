@@ -0,0 +1,329 @@
+package de.tum.ei.lkn.eces.graph.algorithms;
+
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Shortest path tree from a source Node that is repaired incrementally when
+ * Edges are added or removed (Ramalingam-Reps style).
+ *
+ * An Edge insertion only propagates from its destination through the Nodes
+ * whose distance decreases. A tree Edge deletion only invalidates the
+ * subtree hanging below it: the subtree Nodes are re-seeded from their
+ * incoming Edges coming from outside the subtree and settled again with
+ * Dijkstra. The work is hence proportional to the affected region, not to
+ * the Graph size. Edge costs must be non-negative and must not change while
+ * the Edge exists.
+ *
+ * Trees are maintained by a DynamicShortestPathSystem. All the methods are
+ * synchronized.
+ *
+ * @author Amaury Van Bemten
+ */
+public final class ShortestPathTree {
+	/**
+	 * Per-Node state.
+	 */
+	private static final class Label {
+		private double distance = Double.POSITIVE_INFINITY;
+		private Edge parent;
+		private final List<Node> children = new ArrayList<>(2);
+	}
+
+	/**
+	 * Entry of the Dijkstra queue (lazy deletion).
+	 */
+	private static final class QueueEntry implements Comparable<QueueEntry> {
+		private final Node node;
+		private final double distance;
+		private final Edge parent;
+
+		private QueueEntry(Node node, double distance, Edge parent) {
+			this.node = node;
+			this.distance = distance;
+			this.parent = parent;
+		}
+
+		@Override
+		public int compareTo(QueueEntry other) {
+			return Double.compare(distance, other.distance);
+		}
+	}
+
+	/**
+	 * Root of the tree.
+	 */
+	private final Node source;
+
+	/**
+	 * Graph of the source.
+	 */
+	private final Graph graph;
+
+	/**
+	 * Cost of the Edges.
+	 */
+	private final ToDoubleFunction<Edge> cost;
+
+	/**
+	 * Labels of the reached Nodes.
+	 */
+	private final Map<Node, Label> labels = new HashMap<>();
+
+	/**
+	 * Number of Nodes whose label was touched by the last repair.
+	 */
+	private int lastRepairSize;
+
+	/**
+	 * Computes the initial tree.
+	 * @param source Root of the tree.
+	 * @param cost Cost of the Edges (non-negative).
+	 */
+	ShortestPathTree(Node source, ToDoubleFunction<Edge> cost) {
+		this.source = source;
+		this.graph = source.getGraph();
+		this.cost = cost;
+
+		Label root = new Label();
+		root.distance = 0;
+		labels.put(source, root);
+		PriorityQueue<QueueEntry> queue = new PriorityQueue<>();
+		relaxOutgoing(source, queue);
+		lastRepairSize = 1 + settle(queue);
+	}
+
+	/**
+	 * Gets the root of the tree.
+	 * @return source Node.
+	 */
+	public Node getSource() {
+		return source;
+	}
+
+	/**
+	 * Gets the Graph of the tree.
+	 * @return the Graph.
+	 */
+	public Graph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Gets the shortest path distance from the source to a Node.
+	 * @param node Node.
+	 * @return distance, or positive infinity if the Node is unreachable.
+	 */
+	public synchronized double getDistance(Node node) {
+		Label label = labels.get(node);
+		return label == null ? Double.POSITIVE_INFINITY : label.distance;
+	}
+
+	/**
+	 * Tells whether a Node is reachable from the source.
+	 * @param node Node.
+	 * @return true if reachable.
+	 */
+	public synchronized boolean isReachable(Node node) {
+		return labels.containsKey(node);
+	}
+
+	/**
+	 * Gets the last Edge of the shortest path to a Node.
+	 * @param node Node.
+	 * @return the Edge, or null for the source and unreachable Nodes.
+	 */
+	public synchronized Edge getParentEdge(Node node) {
+		Label label = labels.get(node);
+		return label == null ? null : label.parent;
+	}
+
+	/**
+	 * Gets the shortest path from the source to a Node.
+	 * @param node Node.
+	 * @return the Path, or null if the Node is unreachable.
+	 */
+	public synchronized Path getPath(Node node) {
+		Label label = labels.get(node);
+		if(label == null)
+			return null;
+		LinkedList<Edge> edges = new LinkedList<>();
+		for(Edge edge = label.parent; edge != null; edge = labels.get(edge.getSource()).parent)
+			edges.addFirst(edge);
+		return new Path(edges, label.distance);
+	}
+
+	/**
+	 * Gets the number of Nodes whose distance was touched by the last
+	 * update (initial computation or repair).
+	 * @return number of Nodes.
+	 */
+	public synchronized int getLastRepairSize() {
+		return lastRepairSize;
+	}
+
+	/**
+	 * Repairs the tree after an Edge insertion.
+	 * @param edge new Edge.
+	 */
+	synchronized void edgeAdded(Edge edge) {
+		lastRepairSize = 0;
+		Label from = labels.get(edge.getSource());
+		if(from == null)
+			return;
+		double candidate = from.distance + checkedCost(edge);
+		if(candidate >= getDistance(edge.getDestination()))
+			return;
+
+		PriorityQueue<QueueEntry> queue = new PriorityQueue<>();
+		queue.add(new QueueEntry(edge.getDestination(), candidate, edge));
+		lastRepairSize = settle(queue);
+	}
+
+	/**
+	 * Repairs the tree after an Edge deletion.
+	 * @param edge deleted Edge.
+	 */
+	synchronized void edgeRemoved(Edge edge) {
+		lastRepairSize = 0;
+		Label label = labels.get(edge.getDestination());
+		if(label == null || label.parent != edge)
+			return;
+
+		List<Node> affected = invalidateSubtree(edge.getDestination());
+		reseed(affected, edge);
+		lastRepairSize = affected.size();
+	}
+
+	/**
+	 * Forgets a deleted Node and repairs the part of the tree below it.
+	 * @param node deleted Node.
+	 */
+	synchronized void nodeRemoved(Node node) {
+		lastRepairSize = 0;
+		if(node == source) {
+			lastRepairSize = labels.size();
+			labels.clear();
+			return;
+		}
+		if(!labels.containsKey(node))
+			return;
+
+		List<Node> affected = invalidateSubtree(node);
+		affected.remove(node);
+		// The Edges of the deleted Node have no labelled source anymore.
+		reseed(affected, null);
+		lastRepairSize = affected.size() + 1;
+	}
+
+	/**
+	 * Removes the labels of a Node and of all its descendants in the tree.
+	 * @param root Root of the subtree (not the source).
+	 * @return the Nodes of the subtree.
+	 */
+	private List<Node> invalidateSubtree(Node root) {
+		Label rootLabel = labels.get(root);
+		Label parent = labels.get(rootLabel.parent.getSource());
+		if(parent != null)
+			parent.children.remove(root);
+
+		List<Node> affected = new ArrayList<>();
+		Deque<Node> stack = new ArrayDeque<>();
+		stack.push(root);
+		while(!stack.isEmpty()) {
+			Node node = stack.pop();
+			affected.add(node);
+			Label removed = labels.remove(node);
+			for(Node child : removed.children)
+				stack.push(child);
+		}
+		return affected;
+	}
+
+	/**
+	 * Settles invalidated Nodes again from their incoming Edges coming from
+	 * Nodes that are still labelled.
+	 * @param affected invalidated Nodes.
+	 * @param removed deleted Edge, skipped since it may still be in the
+	 *                adjacency when the deletion is notified (null if
+	 *                none).
+	 */
+	private void reseed(List<Node> affected, Edge removed) {
+		PriorityQueue<QueueEntry> queue = new PriorityQueue<>();
+		for(Node node : affected) {
+			for(Edge incoming : node.getIncomingConnections()) {
+				if(incoming == removed)
+					continue;
+				Label parent = labels.get(incoming.getSource());
+				if(parent != null)
+					queue.add(new QueueEntry(node, parent.distance + checkedCost(incoming), incoming));
+			}
+		}
+		settle(queue);
+	}
+
+	/**
+	 * Dijkstra from the entries of the queue. A Node is (re)labelled only if
+	 * its distance strictly decreases.
+	 * @return number of Nodes whose label changed.
+	 */
+	private int settle(PriorityQueue<QueueEntry> queue) {
+		int changed = 0;
+		while(!queue.isEmpty()) {
+			QueueEntry entry = queue.poll();
+			Label label = labels.get(entry.node);
+			if(label != null && label.distance <= entry.distance)
+				continue;
+			if(label == null) {
+				label = new Label();
+				labels.put(entry.node, label);
+			}
+			else if(label.parent != null) {
+				labels.get(label.parent.getSource()).children.remove(entry.node);
+			}
+			label.distance = entry.distance;
+			label.parent = entry.parent;
+			labels.get(entry.parent.getSource()).children.add(entry.node);
+			changed++;
+			relaxOutgoing(entry.node, queue);
+		}
+		return changed;
+	}
+
+	private void relaxOutgoing(Node node, PriorityQueue<QueueEntry> queue) {
+		double base = labels.get(node).distance;
+		for(Edge edge : node.getOutgoingConnections()) {
+			double candidate = base + checkedCost(edge);
+			if(candidate < getDistance(edge.getDestination()))
+				queue.add(new QueueEntry(edge.getDestination(), candidate, edge));
+		}
+	}
+
+	private double checkedCost(Edge edge) {
+		double value = cost.applyAsDouble(edge);
+		if(!(value >= 0))
+			throw new GraphException("Edge costs must be non-negative (" + edge + ": " + value + ")");
+		return value;
+	}
+
+	/**
+	 * Gets the Nodes currently reachable from the source.
+	 * @return unmodifiable snapshot of the reachable Nodes.
+	 */
+	public synchronized List<Node> getReachableNodes() {
+		return Collections.unmodifiableList(new ArrayList<>(labels.keySet()));
+	}
+}
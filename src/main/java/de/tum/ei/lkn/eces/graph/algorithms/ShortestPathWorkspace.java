@@ -0,0 +1,295 @@
+package de.tum.ei.lkn.eces.graph.algorithms;
+
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+import de.tum.ei.lkn.eces.graph.view.CompactGraph;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Reusable state for Dijkstra runs on a CompactGraph.
+ *
+ * All the arrays are allocated once. Distances and bans are invalidated by
+ * bumping epoch counters instead of clearing the arrays, so that many
+ * consecutive runs (e.g., the spur computations of k-shortest paths) only
+ * cost what they explore. A workspace is not thread-safe: use one per
+ * thread.
+ *
+ * @author Amaury Van Bemten
+ */
+public final class ShortestPathWorkspace {
+	/**
+	 * Graph on which the workspace runs (null for a bare network).
+	 */
+	private final CompactGraph graph;
+
+	/**
+	 * Outgoing arcs of Node v are the arc indices outOffsets[v] to
+	 * outOffsets[v + 1] - 1.
+	 */
+	private final int[] outOffsets;
+
+	/**
+	 * Tail Node of each arc.
+	 */
+	private final int[] sources;
+
+	/**
+	 * Head Node of each arc.
+	 */
+	private final int[] targets;
+
+	/**
+	 * Tentative distance of each Node, valid if reached[v] == runEpoch.
+	 */
+	private final double[] distance;
+
+	/**
+	 * Edge through which each Node was reached, -1 for the source.
+	 */
+	private final int[] predecessor;
+
+	/**
+	 * Run in which each Node was last reached.
+	 */
+	private final int[] reached;
+
+	/**
+	 * Ban generation in which each Edge was last banned.
+	 */
+	private final int[] bannedEdges;
+
+	/**
+	 * Ban generation in which each Node was last banned.
+	 */
+	private final int[] bannedNodes;
+
+	/**
+	 * Priority queue of the runs.
+	 */
+	private final IndexedMinHeap heap;
+
+	/**
+	 * Current run.
+	 */
+	private int runEpoch;
+
+	/**
+	 * Current ban generation.
+	 */
+	private int banEpoch = 1;
+
+	/**
+	 * Creates a workspace for a Graph.
+	 * @param graph Compact Graph.
+	 */
+	public ShortestPathWorkspace(CompactGraph graph) {
+		this(graph, outOffsets(graph), sources(graph), targets(graph));
+	}
+
+	/**
+	 * Creates a workspace for a bare network in CSR form, whose arcs are
+	 * numbered by tail Node like the Edges of a CompactGraph.
+	 * @param outOffsets Start of the arcs of each Node, plus the number of
+	 *                   arcs at the end.
+	 * @param sources Tail Node of each arc.
+	 * @param targets Head Node of each arc.
+	 */
+	ShortestPathWorkspace(int[] outOffsets, int[] sources, int[] targets) {
+		this(null, outOffsets, sources, targets);
+	}
+
+	private ShortestPathWorkspace(CompactGraph graph, int[] outOffsets, int[] sources, int[] targets) {
+		this.graph = graph;
+		this.outOffsets = outOffsets;
+		this.sources = sources;
+		this.targets = targets;
+		int n = outOffsets.length - 1;
+		distance = new double[n];
+		predecessor = new int[n];
+		reached = new int[n];
+		bannedNodes = new int[n];
+		bannedEdges = new int[targets.length];
+		heap = new IndexedMinHeap(n);
+	}
+
+	private static int[] outOffsets(CompactGraph graph) {
+		int[] offsets = new int[graph.nodeCount() + 1];
+		for(int v = 0; v < graph.nodeCount(); v++)
+			offsets[v + 1] = graph.outEnd(v);
+		return offsets;
+	}
+
+	private static int[] sources(CompactGraph graph) {
+		int[] sources = new int[graph.edgeCount()];
+		for(int e = 0; e < sources.length; e++)
+			sources[e] = graph.source(e);
+		return sources;
+	}
+
+	private static int[] targets(CompactGraph graph) {
+		int[] targets = new int[graph.edgeCount()];
+		for(int e = 0; e < targets.length; e++)
+			targets[e] = graph.target(e);
+		return targets;
+	}
+
+	/**
+	 * Evaluates a cost function on every Edge of a compact Graph.
+	 * @param graph Compact Graph.
+	 * @param cost Cost function.
+	 * @return cost of every Edge, by Edge index.
+	 * @throws GraphException if a cost is negative or NaN.
+	 */
+	public static double[] costs(CompactGraph graph, ToDoubleFunction<Edge> cost) {
+		double[] costs = new double[graph.edgeCount()];
+		for(int e = 0; e < costs.length; e++) {
+			costs[e] = cost.applyAsDouble(graph.getEdge(e));
+			if(!(costs[e] >= 0))
+				throw new GraphException("Edge costs must be non-negative (" + graph.getEdge(e) + ": " + costs[e] + ")");
+		}
+		return costs;
+	}
+
+	/**
+	 * Gets the Graph of the workspace.
+	 * @return the compact Graph, or null for a bare network.
+	 */
+	public CompactGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Excludes an Edge from the next runs, until clearBans() is called.
+	 * @param e Edge index.
+	 */
+	public void banEdge(int e) {
+		bannedEdges[e] = banEpoch;
+	}
+
+	/**
+	 * Excludes a Node from the next runs, until clearBans() is called.
+	 * @param v Node index.
+	 */
+	public void banNode(int v) {
+		bannedNodes[v] = banEpoch;
+	}
+
+	/**
+	 * Tells whether an Edge is currently banned.
+	 * @param e Edge index.
+	 * @return true if banned.
+	 */
+	public boolean isEdgeBanned(int e) {
+		return bannedEdges[e] == banEpoch;
+	}
+
+	/**
+	 * Tells whether a Node is currently banned.
+	 * @param v Node index.
+	 * @return true if banned.
+	 */
+	public boolean isNodeBanned(int v) {
+		return bannedNodes[v] == banEpoch;
+	}
+
+	/**
+	 * Lifts all the bans in constant time.
+	 */
+	public void clearBans() {
+		banEpoch++;
+	}
+
+	/**
+	 * Runs Dijkstra's algorithm, skipping banned Nodes and Edges.
+	 * @param costs Cost of each Edge (non-negative).
+	 * @param source Source Node index.
+	 * @param target Target Node index at which the search stops once it is
+	 *               settled, or -1 to compute the whole shortest path tree.
+	 * @return true if the target (or, for -1, any Node) was reached.
+	 */
+	public boolean run(double[] costs, int source, int target) {
+		runEpoch++;
+		heap.clear();
+		if(isNodeBanned(source))
+			return false;
+
+		distance[source] = 0;
+		predecessor[source] = -1;
+		reached[source] = runEpoch;
+		heap.push(source, 0);
+
+		while(!heap.isEmpty()) {
+			int v = heap.poll();
+			if(v == target)
+				return true;
+			double base = distance[v];
+			for(int e = outOffsets[v]; e < outOffsets[v + 1]; e++) {
+				if(bannedEdges[e] == banEpoch)
+					continue;
+				int w = targets[e];
+				if(bannedNodes[w] == banEpoch)
+					continue;
+				double candidate = base + costs[e];
+				if(reached[w] != runEpoch) {
+					reached[w] = runEpoch;
+					distance[w] = candidate;
+					predecessor[w] = e;
+					heap.push(w, candidate);
+				}
+				else if(candidate < distance[w] && heap.contains(w)) {
+					distance[w] = candidate;
+					predecessor[w] = e;
+					heap.push(w, candidate);
+				}
+			}
+		}
+
+		return target < 0;
+	}
+
+	/**
+	 * Tells whether a Node was reached by the last run.
+	 * @param v Node index.
+	 * @return true if reached.
+	 */
+	public boolean isReached(int v) {
+		return reached[v] == runEpoch;
+	}
+
+	/**
+	 * Gets the distance of a Node computed by the last run.
+	 * @param v Node index.
+	 * @return the distance, or positive infinity if not reached.
+	 */
+	public double distance(int v) {
+		return reached[v] == runEpoch ? distance[v] : Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Gets the Edge through which a Node was reached in the last run.
+	 * @param v Node index.
+	 * @return Edge index, or -1 for the source or unreached Nodes.
+	 */
+	public int predecessor(int v) {
+		return reached[v] == runEpoch ? predecessor[v] : -1;
+	}
+
+	/**
+	 * Gets the Edges of the path to a Node found by the last run.
+	 * @param v Node index.
+	 * @return Edge indices from the source to v, or null if v was not
+	 *         reached.
+	 */
+	public int[] pathTo(int v) {
+		if(reached[v] != runEpoch)
+			return null;
+		int length = 0;
+		for(int e = predecessor[v]; e >= 0; e = predecessor[sources[e]])
+			length++;
+		int[] path = new int[length];
+		for(int e = predecessor[v]; e >= 0; e = predecessor[sources[e]])
+			path[--length] = e;
+		return path;
+	}
+}
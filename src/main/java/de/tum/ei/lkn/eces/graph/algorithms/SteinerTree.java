@@ -0,0 +1,229 @@
+package de.tum.ei.lkn.eces.graph.algorithms;
+
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+import de.tum.ei.lkn.eces.graph.view.CompactGraph;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Steiner tree approximation of Kou, Markowsky and Berman (KMB), Edge
+ * directions being ignored. The tree costs at most 2 (1 - 1/leaves) times
+ * the optimum.
+ *
+ * Shortest paths from each terminal are computed with Dijkstra on a
+ * CompactGraph (optionally in parallel over the terminals). A minimum
+ * spanning tree of the metric closure of the terminals is expanded into
+ * the underlying paths, a minimum spanning tree of the resulting subgraph
+ * is taken and non-terminal leaves are pruned.
+ *
+ * @author Amaury Van Bemten
+ */
+public final class SteinerTree {
+	/**
+	 * Compact Graph.
+	 */
+	private final CompactGraph graph;
+
+	/**
+	 * Cost of each Edge, by Edge index.
+	 */
+	private final double[] costs;
+
+	/**
+	 * Whether shortest paths of the terminals are computed in parallel.
+	 */
+	private final boolean parallel;
+
+	/**
+	 * Creates a Steiner tree computation.
+	 * @param graph Compact Graph.
+	 * @param cost Cost of each Edge (non-negative).
+	 * @param parallel Whether shortest paths of the terminals are computed
+	 *                 in parallel.
+	 */
+	public SteinerTree(CompactGraph graph, ToDoubleFunction<Edge> cost, boolean parallel) {
+		this.graph = graph;
+		this.costs = ShortestPathWorkspace.costs(graph, cost);
+		this.parallel = parallel;
+	}
+
+	/**
+	 * Creates a sequential Steiner tree computation.
+	 * @param graph Graph.
+	 * @param cost Cost of each Edge (non-negative).
+	 */
+	public SteinerTree(Graph graph, ToDoubleFunction<Edge> cost) {
+		this(CompactGraph.of(graph), cost, false);
+	}
+
+	/**
+	 * Computes a tree connecting the terminals.
+	 * @param terminals Nodes to connect.
+	 * @return the Edges of the tree (empty for less than two terminals).
+	 * @throws GraphException if a terminal is not in the Graph or if the
+	 *                        terminals are not connected.
+	 */
+	public Set<Edge> compute(Collection<Node> terminals) {
+		Set<Integer> unique = new LinkedHashSet<>();
+		for(Node node : terminals) {
+			int v = graph.indexOf(node);
+			if(v < 0)
+				throw new GraphException(node + " is not in the Graph");
+			unique.add(v);
+		}
+		int[] terminalIndices = unique.stream().mapToInt(Integer::intValue).toArray();
+		int t = terminalIndices.length;
+		if(t < 2)
+			return new HashSet<>();
+
+		// 1. Shortest paths from every terminal.
+		double[][] distances = new double[t][];
+		int[][] parents = new int[t][];
+		IntStream sources = IntStream.range(0, t);
+		if(parallel)
+			sources = sources.parallel();
+		sources.forEach(i -> {
+			distances[i] = new double[graph.nodeCount()];
+			parents[i] = new int[graph.nodeCount()];
+			dijkstra(terminalIndices[i], distances[i], parents[i]);
+		});
+
+		// 2. Minimum spanning tree of the metric closure (dense Prim).
+		int[] closureParent = new int[t];
+		double[] closureKey = new double[t];
+		boolean[] inClosureTree = new boolean[t];
+		Arrays.fill(closureKey, Double.POSITIVE_INFINITY);
+		Arrays.fill(closureParent, -1);
+		closureKey[0] = 0;
+		for(int round = 0; round < t; round++) {
+			int best = -1;
+			for(int j = 0; j < t; j++)
+				if(!inClosureTree[j] && (best < 0 || closureKey[j] < closureKey[best]))
+					best = j;
+			if(closureKey[best] == Double.POSITIVE_INFINITY)
+				throw new GraphException("The terminals are not connected");
+			inClosureTree[best] = true;
+			for(int j = 0; j < t; j++) {
+				double distance = distances[best][terminalIndices[j]];
+				if(!inClosureTree[j] && distance < closureKey[j]) {
+					closureKey[j] = distance;
+					closureParent[j] = best;
+				}
+			}
+		}
+
+		// 3. Expansion of the closure Edges into paths.
+		boolean[] inSubgraph = new boolean[costs.length];
+		for(int j = 0; j < t; j++) {
+			if(closureParent[j] < 0)
+				continue;
+			int[] parent = parents[closureParent[j]];
+			int v = terminalIndices[j];
+			while(parent[v] >= 0) {
+				int e = parent[v];
+				inSubgraph[e] = true;
+				v = graph.source(e) == v ? graph.target(e) : graph.source(e);
+			}
+		}
+
+		// 4. Minimum spanning tree of the subgraph.
+		IndexedMinHeap heap = new IndexedMinHeap(costs.length);
+		for(int e = 0; e < costs.length; e++)
+			if(inSubgraph[e])
+				heap.push(e, costs[e]);
+		UnionFind sets = new UnionFind(graph.nodeCount());
+		boolean[] inTree = new boolean[costs.length];
+		int[] degrees = new int[graph.nodeCount()];
+		while(!heap.isEmpty()) {
+			int e = heap.poll();
+			if(sets.union(graph.source(e), graph.target(e))) {
+				inTree[e] = true;
+				degrees[graph.source(e)]++;
+				degrees[graph.target(e)]++;
+			}
+		}
+
+		// 5. Pruning of the non-terminal leaves.
+		boolean[] isTerminal = new boolean[graph.nodeCount()];
+		for(int v : terminalIndices)
+			isTerminal[v] = true;
+		int[] leaves = new int[graph.nodeCount()];
+		int leafCount = 0;
+		for(int v = 0; v < degrees.length; v++)
+			if(degrees[v] == 1 && !isTerminal[v])
+				leaves[leafCount++] = v;
+		while(leafCount > 0) {
+			int v = leaves[--leafCount];
+			for(int e = graph.outBegin(v); e < graph.outEnd(v); e++)
+				leafCount = prune(e, v, inTree, degrees, isTerminal, leaves, leafCount);
+			for(int k = graph.inBegin(v); k < graph.inEnd(v); k++)
+				leafCount = prune(graph.inEdge(k), v, inTree, degrees, isTerminal, leaves, leafCount);
+		}
+
+		Set<Edge> tree = new HashSet<>();
+		for(int e = 0; e < costs.length; e++)
+			if(inTree[e])
+				tree.add(graph.getEdge(e));
+		return tree;
+	}
+
+	/**
+	 * Removes the tree Edge of a leaf, queueing the other end if it becomes
+	 * a non-terminal leaf.
+	 * @return the new number of queued leaves.
+	 */
+	private int prune(int e, int leaf, boolean[] inTree, int[] degrees, boolean[] isTerminal, int[] leaves, int leafCount) {
+		if(!inTree[e])
+			return leafCount;
+		inTree[e] = false;
+		degrees[leaf]--;
+		int other = graph.source(e) == leaf ? graph.target(e) : graph.source(e);
+		if(--degrees[other] == 1 && !isTerminal[other])
+			leaves[leafCount++] = other;
+		return leafCount;
+	}
+
+	/**
+	 * Undirected Dijkstra.
+	 * @param source Source Node index.
+	 * @param distance Filled with the distance of each Node.
+	 * @param parent Filled with the Edge leading to each Node (-1 for the
+	 *               source and unreached Nodes).
+	 */
+	private void dijkstra(int source, double[] distance, int[] parent) {
+		Arrays.fill(distance, Double.POSITIVE_INFINITY);
+		Arrays.fill(parent, -1);
+		IndexedMinHeap heap = new IndexedMinHeap(graph.nodeCount());
+		boolean[] settled = new boolean[graph.nodeCount()];
+		distance[source] = 0;
+		heap.push(source, 0);
+		while(!heap.isEmpty()) {
+			int v = heap.poll();
+			settled[v] = true;
+			for(int e = graph.outBegin(v); e < graph.outEnd(v); e++)
+				relax(heap, settled, distance, parent, v, e, graph.target(e));
+			for(int k = graph.inBegin(v); k < graph.inEnd(v); k++) {
+				int e = graph.inEdge(k);
+				relax(heap, settled, distance, parent, v, e, graph.source(e));
+			}
+		}
+	}
+
+	private void relax(IndexedMinHeap heap, boolean[] settled, double[] distance, int[] parent, int v, int e, int w) {
+		double candidate = distance[v] + costs[e];
+		if(!settled[w] && candidate < distance[w]) {
+			distance[w] = candidate;
+			parent[w] = e;
+			heap.push(w, candidate);
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package de.tum.ei.lkn.eces.graph.algorithms;
+
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.view.CompactGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Strongly connected components using an iterative version of Tarjan's
+ * algorithm, so that deep chains do not overflow the call stack.
+ *
+ * @author Amaury Van Bemten
+ */
+public final class StronglyConnectedComponents {
+	/**
+	 * Compact Graph on which the components were computed.
+	 */
+	private final CompactGraph graph;
+
+	/**
+	 * Component index of each Node.
+	 */
+	private final int[] component;
+
+	/**
+	 * Number of components.
+	 */
+	private final int count;
+
+	/**
+	 * Computes the strongly connected components of a compact Graph.
+	 * Components are numbered in reverse topological order of the
+	 * condensation: an Edge between two components always goes from a
+	 * higher to a lower (or equal) component index.
+	 * @param graph Compact Graph.
+	 */
+	public StronglyConnectedComponents(CompactGraph graph) {
+		this.graph = graph;
+		int n = graph.nodeCount();
+		component = new int[n];
+
+		int[] index = new int[n];
+		int[] lowLink = new int[n];
+		boolean[] onStack = new boolean[n];
+		int[] tarjanStack = new int[n];
+		int[] callStack = new int[n];
+		int[] nextEdge = new int[n];
+		int tarjanTop = 0;
+		int nextIndex = 1;
+		int components = 0;
+
+		// index 0 means "not visited yet".
+		for(int root = 0; root < n; root++) {
+			if(index[root] != 0)
+				continue;
+
+			int callTop = 0;
+			callStack[0] = root;
+			index[root] = lowLink[root] = nextIndex++;
+			nextEdge[root] = graph.outBegin(root);
+			tarjanStack[tarjanTop++] = root;
+			onStack[root] = true;
+
+			while(callTop >= 0) {
+				int v = callStack[callTop];
+				if(nextEdge[v] < graph.outEnd(v)) {
+					int w = graph.target(nextEdge[v]++);
+					if(index[w] == 0) {
+						index[w] = lowLink[w] = nextIndex++;
+						nextEdge[w] = graph.outBegin(w);
+						tarjanStack[tarjanTop++] = w;
+						onStack[w] = true;
+						callStack[++callTop] = w;
+					}
+					else if(onStack[w]) {
+						lowLink[v] = Math.min(lowLink[v], index[w]);
+					}
+					continue;
+				}
+
+				// All successors of v done: "return" from v.
+				if(lowLink[v] == index[v]) {
+					int w;
+					do {
+						w = tarjanStack[--tarjanTop];
+						onStack[w] = false;
+						component[w] = components;
+					} while(w != v);
+					components++;
+				}
+				callTop--;
+				if(callTop >= 0) {
+					int parent = callStack[callTop];
+					lowLink[parent] = Math.min(lowLink[parent], lowLink[v]);
+				}
+			}
+		}
+
+		count = components;
+	}
+
+	/**
+	 * Computes the strongly connected components of a Graph.
+	 * @param graph Graph.
+	 */
+	public StronglyConnectedComponents(Graph graph) {
+		this(CompactGraph.of(graph));
+	}
+
+	/**
+	 * Gets the number of strongly connected components.
+	 * @return number of components.
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Gets the component index of a Node.
+	 * @param v Node index in the compact Graph.
+	 * @return component index.
+	 */
+	public int getComponent(int v) {
+		return component[v];
+	}
+
+	/**
+	 * Gets the component index of a Node.
+	 * @param node Node.
+	 * @return component index.
+	 */
+	public int getComponent(Node node) {
+		return component[graph.indexOf(node)];
+	}
+
+	/**
+	 * Gets the Nodes of every component.
+	 * @return one list of Nodes per component, by component index.
+	 */
+	public List<List<Node>> getComponents() {
+		List<List<Node>> result = new ArrayList<>(count);
+		for(int c = 0; c < count; c++)
+			result.add(new ArrayList<>());
+		for(int v = 0; v < component.length; v++)
+			result.get(component[v]).add(graph.getNode(v));
+		return result;
+	}
+
+	/**
+	 * Tells whether the Graph is acyclic, i.e., whether every component is a
+	 * single Node without self-loop.
+	 * @return true if the Graph is a DAG.
+	 */
+	public boolean isAcyclic() {
+		if(count != graph.nodeCount())
+			return false;
+		for(int e = 0; e < graph.edgeCount(); e++)
+			if(graph.source(e) == graph.target(e))
+				return false;
+		return true;
+	}
+}
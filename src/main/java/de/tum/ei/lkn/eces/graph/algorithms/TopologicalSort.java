@@ -0,0 +1,144 @@
+package de.tum.ei.lkn.eces.graph.algorithms;
+
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+import de.tum.ei.lkn.eces.graph.view.CompactGraph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Topological ordering and cycle detection.
+ *
+ * Uses Kahn's algorithm on an in-degree array of a CompactGraph, so that it
+ * neither recurses nor allocates per Node.
+ *
+ * @author Amaury Van Bemten
+ */
+public final class TopologicalSort {
+	private TopologicalSort() {
+	}
+
+	/**
+	 * Computes a topological order of a compact Graph.
+	 * @param graph Compact Graph.
+	 * @return Node indices in topological order, or null if the Graph has a
+	 *         cycle.
+	 */
+	public static int[] sort(CompactGraph graph) {
+		int n = graph.nodeCount();
+		int[] inDegree = new int[n];
+		for(int v = 0; v < n; v++)
+			inDegree[v] = graph.inDegree(v);
+
+		// The order array doubles as the FIFO queue of Kahn's algorithm.
+		int[] order = new int[n];
+		int tail = 0;
+		for(int v = 0; v < n; v++)
+			if(inDegree[v] == 0)
+				order[tail++] = v;
+
+		for(int head = 0; head < tail; head++) {
+			int v = order[head];
+			for(int e = graph.outBegin(v); e < graph.outEnd(v); e++) {
+				int w = graph.target(e);
+				if(--inDegree[w] == 0)
+					order[tail++] = w;
+			}
+		}
+
+		return tail == n ? order : null;
+	}
+
+	/**
+	 * Computes a topological order of a Graph.
+	 * @param graph Graph.
+	 * @return Nodes in topological order.
+	 * @throws GraphException if the Graph has a cycle.
+	 */
+	public static List<Node> sort(Graph graph) {
+		CompactGraph compact = CompactGraph.of(graph);
+		int[] order = sort(compact);
+		if(order == null)
+			throw new GraphException(graph + " has a cycle and cannot be topologically sorted");
+
+		List<Node> nodes = new ArrayList<>(order.length);
+		for(int v : order)
+			nodes.add(compact.getNode(v));
+		return nodes;
+	}
+
+	/**
+	 * Tells whether a compact Graph contains a directed cycle.
+	 * @param graph Compact Graph.
+	 * @return true if there is a cycle (including self-loops).
+	 */
+	public static boolean hasCycle(CompactGraph graph) {
+		return sort(graph) == null;
+	}
+
+	/**
+	 * Tells whether a Graph contains a directed cycle.
+	 * @param graph Graph.
+	 * @return true if there is a cycle (including self-loops).
+	 */
+	public static boolean hasCycle(Graph graph) {
+		return hasCycle(CompactGraph.of(graph));
+	}
+
+	/**
+	 * Finds a directed cycle in a Graph.
+	 * @param graph Graph.
+	 * @return Edges of a cycle in traversal order, or an empty list if the
+	 *         Graph is acyclic.
+	 */
+	public static List<Edge> findCycle(Graph graph) {
+		CompactGraph compact = CompactGraph.of(graph);
+		int n = compact.nodeCount();
+
+		// Iterative DFS: 0 = unvisited, 1 = on the stack, 2 = done.
+		byte[] state = new byte[n];
+		int[] nodeStack = new int[n];
+		int[] nextEdge = new int[n];
+		int[] parentEdge = new int[n];
+
+		for(int root = 0; root < n; root++) {
+			if(state[root] != 0)
+				continue;
+			int top = 0;
+			nodeStack[0] = root;
+			nextEdge[root] = compact.outBegin(root);
+			state[root] = 1;
+			while(top >= 0) {
+				int v = nodeStack[top];
+				if(nextEdge[v] == compact.outEnd(v)) {
+					state[v] = 2;
+					top--;
+					continue;
+				}
+				int e = nextEdge[v]++;
+				int w = compact.target(e);
+				if(state[w] == 0) {
+					state[w] = 1;
+					parentEdge[w] = e;
+					nextEdge[w] = compact.outBegin(w);
+					nodeStack[++top] = w;
+				}
+				else if(state[w] == 1) {
+					// Back edge: walk the DFS tree back from v to w.
+					List<Edge> cycle = new ArrayList<>();
+					cycle.add(compact.getEdge(e));
+					for(int u = v; u != w; u = compact.source(parentEdge[u]))
+						cycle.add(compact.getEdge(parentEdge[u]));
+					Collections.reverse(cycle);
+					return cycle;
+				}
+			}
+		}
+
+		return Collections.emptyList();
+	}
+}
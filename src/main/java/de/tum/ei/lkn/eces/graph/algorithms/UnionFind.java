@@ -0,0 +1,91 @@
+package de.tum.ei.lkn.eces.graph.algorithms;
+
+/**
+ * Disjoint sets over the integers 0..size-1, with union by size and path
+ * halving, stored in primitive arrays.
+ *
+ * @author Amaury Van Bemten
+ */
+public final class UnionFind {
+	/**
+	 * Parent of each element (itself for roots).
+	 */
+	private final int[] parents;
+
+	/**
+	 * Size of the set of each root.
+	 */
+	private final int[] sizes;
+
+	/**
+	 * Number of disjoint sets.
+	 */
+	private int count;
+
+	/**
+	 * Creates singleton sets.
+	 * @param size Number of elements.
+	 */
+	public UnionFind(int size) {
+		parents = new int[size];
+		sizes = new int[size];
+		for(int i = 0; i < size; i++) {
+			parents[i] = i;
+			sizes[i] = 1;
+		}
+		count = size;
+	}
+
+	/**
+	 * Gets the representative of the set of an element.
+	 * @param x Element.
+	 * @return the root of its set.
+	 */
+	public int find(int x) {
+		while(parents[x] != x) {
+			parents[x] = parents[parents[x]];
+			x = parents[x];
+		}
+		return x;
+	}
+
+	/**
+	 * Merges the sets of two elements.
+	 * @param x First element.
+	 * @param y Second element.
+	 * @return true if they were in different sets.
+	 */
+	public boolean union(int x, int y) {
+		int rootX = find(x);
+		int rootY = find(y);
+		if(rootX == rootY)
+			return false;
+		if(sizes[rootX] < sizes[rootY]) {
+			int tmp = rootX;
+			rootX = rootY;
+			rootY = tmp;
+		}
+		parents[rootY] = rootX;
+		sizes[rootX] += sizes[rootY];
+		count--;
+		return true;
+	}
+
+	/**
+	 * Tells whether two elements are in the same set.
+	 * @param x First element.
+	 * @param y Second element.
+	 * @return true if they are in the same set.
+	 */
+	public boolean connected(int x, int y) {
+		return find(x) == find(y);
+	}
+
+	/**
+	 * Gets the number of disjoint sets.
+	 * @return number of sets.
+	 */
+	public int count() {
+		return count;
+	}
+}
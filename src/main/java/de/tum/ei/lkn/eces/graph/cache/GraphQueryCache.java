@@ -0,0 +1,403 @@
+package de.tum.ei.lkn.eces.graph.cache;
+
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.algorithms.Path;
+import de.tum.ei.lkn.eces.graph.algorithms.ShortestPathWorkspace;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+import de.tum.ei.lkn.eces.graph.view.CompactGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Bounded LRU cache of query results on a Graph.
+ *
+ * Results are keyed by query type and end Nodes. The cache remembers the
+ * structural version of the Graph its entries were computed for: as soon
+ * as the GraphSystem adds or removes a Node or an Edge of the Graph or
+ * changes the adjacency of one of its Nodes, the version changes and the
+ * whole cache is dropped on the next access. Results computed while the
+ * Graph changed are not stored.
+ *
+ * @author Amaury Van Bemten
+ */
+public class GraphQueryCache {
+	/**
+	 * Query type of isReachable().
+	 */
+	private static final String REACHABILITY = "reachability";
+
+	/**
+	 * Graph whose queries are cached.
+	 */
+	private final Graph graph;
+
+	/**
+	 * Maximum number of cached results.
+	 */
+	private final int maximumSize;
+
+	/**
+	 * Cached results in access order (LRU first).
+	 */
+	private final LinkedHashMap<QueryKey, Object> entries;
+
+	/**
+	 * Graph version for which the entries are valid.
+	 */
+	private long version;
+
+	/**
+	 * Compact view of the Graph at the cached version, built on the first
+	 * miss needing it.
+	 */
+	private View view;
+
+	private long hits;
+	private long misses;
+	private long evictions;
+	private long invalidations;
+
+	/**
+	 * Key of a cached result.
+	 */
+	private static final class QueryKey {
+		private final Object type;
+		private final Node source;
+		private final Node destination;
+
+		private QueryKey(Object type, Node source, Node destination) {
+			this.type = type;
+			this.source = source;
+			this.destination = destination;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if(!(other instanceof QueryKey))
+				return false;
+			QueryKey key = (QueryKey) other;
+			return source == key.source && destination == key.destination && type.equals(key.type);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * type.hashCode() + System.identityHashCode(source)) + System.identityHashCode(destination);
+		}
+	}
+
+	/**
+	 * Compact view of the Graph with the scratch state of the queries
+	 * computed on it, reused from one miss to the next. Misses may be
+	 * computed concurrently: each one borrows its own scratch state.
+	 */
+	private static final class View {
+		private final CompactGraph graph;
+		private final Queue<Traversal> traversals = new ConcurrentLinkedQueue<>();
+		private final Queue<ShortestPathWorkspace> workspaces = new ConcurrentLinkedQueue<>();
+
+		/**
+		 * Edge costs of the last cost function used.
+		 */
+		private volatile Costs costs;
+
+		private View(CompactGraph graph) {
+			this.graph = graph;
+		}
+
+		private double[] costs(ToDoubleFunction<Edge> cost) {
+			Costs last = costs;
+			if(last == null || last.function != cost) {
+				last = new Costs(cost, ShortestPathWorkspace.costs(graph, cost));
+				costs = last;
+			}
+			return last.values;
+		}
+	}
+
+	/**
+	 * Cost of every Edge of a view for a cost function.
+	 */
+	private static final class Costs {
+		private final ToDoubleFunction<Edge> function;
+		private final double[] values;
+
+		private Costs(ToDoubleFunction<Edge> function, double[] values) {
+			this.function = function;
+			this.values = values;
+		}
+	}
+
+	/**
+	 * Breadth-first search state. Visited Nodes are marked with the number
+	 * of the search, so that the array is never cleared.
+	 */
+	private static final class Traversal {
+		private final int[] visited;
+		private final int[] queue;
+		private int epoch;
+
+		private Traversal(int nodeCount) {
+			visited = new int[nodeCount];
+			queue = new int[nodeCount];
+		}
+
+		private boolean reaches(CompactGraph graph, int source, int destination) {
+			if(source == destination)
+				return true;
+			if(++epoch == 0) {
+				Arrays.fill(visited, 0);
+				epoch = 1;
+			}
+			int head = 0;
+			int tail = 0;
+			visited[source] = epoch;
+			queue[tail++] = source;
+			while(head < tail) {
+				int v = queue[head++];
+				for(int e = graph.outBegin(v); e < graph.outEnd(v); e++) {
+					int w = graph.target(e);
+					if(w == destination)
+						return true;
+					if(visited[w] != epoch) {
+						visited[w] = epoch;
+						queue[tail++] = w;
+					}
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Creates a cache attached to a Graph.
+	 * @param graph Graph whose queries are cached.
+	 * @param maximumSize Maximum number of cached results.
+	 */
+	public GraphQueryCache(Graph graph, int maximumSize) {
+		if(maximumSize <= 0)
+			throw new GraphException("The cache size must be positive");
+		this.graph = graph;
+		this.maximumSize = maximumSize;
+		this.version = graph.getVersion();
+		this.entries = new LinkedHashMap<QueryKey, Object>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<QueryKey, Object> eldest) {
+				if(size() > GraphQueryCache.this.maximumSize) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Gets the Graph of the cache.
+	 * @return the Graph.
+	 */
+	public Graph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Gets a cached result, computing it on a miss.
+	 * @param type Query type (compared with equals()). Must identify
+	 *             everything the result depends on besides the end Nodes.
+	 * @param source Source Node of the query.
+	 * @param destination Destination Node of the query (may be null).
+	 * @param computation Computes the result on a miss. Called without
+	 *                    holding the cache lock.
+	 * @param <V> Result type.
+	 * @return the (possibly cached) result.
+	 */
+	@SuppressWarnings("unchecked")
+	public <V> V get(Object type, Node source, Node destination, Supplier<V> computation) {
+		QueryKey key = new QueryKey(Objects.requireNonNull(type), source, destination);
+		long computedFor;
+		synchronized(this) {
+			validate();
+			Object cached = entries.get(key);
+			if(cached != null || entries.containsKey(key)) {
+				hits++;
+				return (V) cached;
+			}
+			misses++;
+			computedFor = version;
+		}
+
+		V result = computation.get();
+
+		synchronized(this) {
+			validate();
+			if(version == computedFor && graph.getVersion() == computedFor)
+				entries.put(key, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Tells whether a Node can be reached from another one.
+	 * @param source Source Node.
+	 * @param destination Destination Node.
+	 * @return true if there is a directed path.
+	 */
+	public boolean isReachable(Node source, Node destination) {
+		return get(REACHABILITY, source, destination, () -> {
+			View view = compactView();
+			int s = indexOf(view.graph, source);
+			int d = indexOf(view.graph, destination);
+			Traversal traversal = view.traversals.poll();
+			if(traversal == null)
+				traversal = new Traversal(view.graph.nodeCount());
+			try {
+				return traversal.reaches(view.graph, s, d);
+			} finally {
+				view.traversals.add(traversal);
+			}
+		});
+	}
+
+	/**
+	 * Gets a shortest path between two Nodes.
+	 * @param source Source Node.
+	 * @param destination Destination Node.
+	 * @param cost Edge costs (non-negative). Results are cached per cost
+	 *             function instance, so the same instance must be passed
+	 *             to benefit from the cache.
+	 * @return the path, or null if the destination is unreachable.
+	 */
+	public Path shortestPath(Node source, Node destination, ToDoubleFunction<Edge> cost) {
+		return get(cost, source, destination, () -> {
+			View view = compactView();
+			int s = indexOf(view.graph, source);
+			int target = indexOf(view.graph, destination);
+			double[] costs = view.costs(cost);
+			ShortestPathWorkspace workspace = view.workspaces.poll();
+			if(workspace == null)
+				workspace = new ShortestPathWorkspace(view.graph);
+			try {
+				if(!workspace.run(costs, s, target))
+					return null;
+				List<Edge> edges = new ArrayList<>();
+				for(int e : workspace.pathTo(target))
+					edges.add(view.graph.getEdge(e));
+				return new Path(edges, workspace.distance(target));
+			} finally {
+				view.workspaces.add(workspace);
+			}
+		});
+	}
+
+	private static int indexOf(CompactGraph view, Node node) {
+		int index = view.indexOf(node);
+		if(index < 0)
+			throw new GraphException(node + " does not belong to " + view.getGraph());
+		return index;
+	}
+
+	/**
+	 * Drops all the cached results.
+	 */
+	public synchronized void invalidate() {
+		entries.clear();
+		view = null;
+		invalidations++;
+	}
+
+	/**
+	 * Drops the cached results if the Graph changed.
+	 */
+	private void validate() {
+		long current = graph.getVersion();
+		if(current != version) {
+			version = current;
+			invalidate();
+		}
+	}
+
+	/**
+	 * Gets a compact view of the Graph for the cached version. The view is
+	 * built without holding the cache lock and kept only if the Graph did
+	 * not change meanwhile.
+	 */
+	private View compactView() {
+		long builtFor;
+		synchronized(this) {
+			validate();
+			if(view != null)
+				return view;
+			builtFor = version;
+		}
+
+		View built = new View(CompactGraph.of(graph));
+
+		synchronized(this) {
+			validate();
+			if(view == null && version == builtFor && graph.getVersion() == builtFor)
+				view = built;
+		}
+		return built;
+	}
+
+	/**
+	 * Gets the number of cached results.
+	 * @return number of entries.
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Gets the number of queries answered from the cache.
+	 * @return hit count.
+	 */
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	/**
+	 * Gets the number of queries that had to be computed.
+	 * @return miss count.
+	 */
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	/**
+	 * Gets the number of results evicted because the cache was full.
+	 * @return eviction count.
+	 */
+	public synchronized long getEvictionCount() {
+		return evictions;
+	}
+
+	/**
+	 * Gets the number of times the cache was dropped.
+	 * @return invalidation count.
+	 */
+	public synchronized long getInvalidationCount() {
+		return invalidations;
+	}
+
+	/**
+	 * Gets the fraction of queries answered from the cache.
+	 * @return hit rate, 0 if no query was made.
+	 */
+	public synchronized double getHitRate() {
+		long total = hits + misses;
+		return total == 0 ? 0 : (double) hits / total;
+	}
+}
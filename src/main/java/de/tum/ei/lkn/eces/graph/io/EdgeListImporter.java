@@ -0,0 +1,386 @@
+package de.tum.ei.lkn.eces.graph.io;
+
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.GraphSystem;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Imports a topology from a plain text file.
+ *
+ * Two formats are supported, both with whitespace separated tokens, empty
+ * lines and lines starting with '#' being ignored:
+ * <ul>
+ *     <li>EDGE_LIST: "source destination [name]" per line. A line with a
+ *     single token declares an isolated Node.</li>
+ *     <li>ADJACENCY_LIST: "source destination1 destination2 ..." per line.</li>
+ * </ul>
+ *
+ * The file is memory-mapped and split in chunks at line boundaries. Chunks
+ * are parsed in parallel, each with its own Node name dictionary. The
+ * dictionaries are then merged in file order into dense Node indices (so
+ * that the result does not depend on the thread scheduling) and the Graph
+ * is filled using the bulk creation methods of the GraphSystem.
+ *
+ * @author Amaury Van Bemten
+ */
+public class EdgeListImporter {
+	/**
+	 * Supported file formats.
+	 */
+	public enum Format {
+		EDGE_LIST,
+		ADJACENCY_LIST
+	}
+
+	/**
+	 * Minimum chunk size, to avoid too many tiny tasks on small files.
+	 */
+	private static final long MIN_CHUNK_SIZE = 1 << 20;
+
+	/**
+	 * Maximum chunk size (a mapping is limited to 2 GB).
+	 */
+	private static final long MAX_CHUNK_SIZE = 1 << 30;
+
+	/**
+	 * System used to create the Nodes and Edges.
+	 */
+	private final GraphSystem graphSystem;
+
+	/**
+	 * Format of the files.
+	 */
+	private final Format format;
+
+	/**
+	 * Number of parsing threads.
+	 */
+	private final int threads;
+
+	/**
+	 * Minimum size of the chunks parsed in parallel.
+	 */
+	private final long minChunkSize;
+
+	/**
+	 * Creates an importer using one parsing thread per processor.
+	 * @param graphSystem System used to create the Nodes and Edges.
+	 * @param format Format of the files.
+	 */
+	public EdgeListImporter(GraphSystem graphSystem, Format format) {
+		this(graphSystem, format, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates an importer.
+	 * @param graphSystem System used to create the Nodes and Edges.
+	 * @param format Format of the files.
+	 * @param threads Number of parsing threads.
+	 */
+	public EdgeListImporter(GraphSystem graphSystem, Format format, int threads) {
+		this(graphSystem, format, threads, MIN_CHUNK_SIZE);
+	}
+
+	/**
+	 * Creates an importer with a custom minimum chunk size (for tests).
+	 * @param graphSystem System used to create the Nodes and Edges.
+	 * @param format Format of the files.
+	 * @param threads Number of parsing threads.
+	 * @param minChunkSize Minimum size of the chunks in bytes.
+	 */
+	EdgeListImporter(GraphSystem graphSystem, Format format, int threads, long minChunkSize) {
+		if(threads <= 0)
+			throw new GraphException("At least one parsing thread is needed");
+		this.graphSystem = graphSystem;
+		this.format = format;
+		this.threads = threads;
+		this.minChunkSize = minChunkSize;
+	}
+
+	/**
+	 * Result of the parsing of one chunk.
+	 */
+	private static final class ChunkResult {
+		/**
+		 * Node names, by local index.
+		 */
+		private final List<String> names = new ArrayList<>();
+
+		/**
+		 * Local index of each Node name.
+		 */
+		private final Map<String, Integer> indices = new HashMap<>();
+
+		/**
+		 * Local source and destination index of each Edge.
+		 */
+		private int[] sources = new int[1024];
+		private int[] destinations = new int[1024];
+
+		/**
+		 * Name of each Edge, null if no Edge has a name.
+		 */
+		private String[] edgeNames;
+
+		private int edgeCount;
+
+		private int resolve(String name) {
+			Integer index = indices.get(name);
+			if(index == null) {
+				index = names.size();
+				indices.put(name, index);
+				names.add(name);
+			}
+			return index;
+		}
+
+		private void addEdge(int source, int destination, String name) {
+			if(edgeCount == sources.length) {
+				sources = Arrays.copyOf(sources, edgeCount * 2);
+				destinations = Arrays.copyOf(destinations, edgeCount * 2);
+				if(edgeNames != null)
+					edgeNames = Arrays.copyOf(edgeNames, edgeCount * 2);
+			}
+			if(name != null && edgeNames == null)
+				edgeNames = new String[sources.length];
+			sources[edgeCount] = source;
+			destinations[edgeCount] = destination;
+			if(edgeNames != null)
+				edgeNames[edgeCount] = name;
+			edgeCount++;
+		}
+	}
+
+	/**
+	 * Imports a file into a Graph. All the Node names of the file yield new
+	 * Nodes, even if the Graph already has Nodes with the same names.
+	 * @param file File to import.
+	 * @param graph Graph to fill.
+	 * @return the created Nodes, by name, in order of first appearance.
+	 * @throws IOException if the file cannot be read.
+	 * @throws GraphException if the file is malformed.
+	 */
+	public Map<String, Node> importFile(Path file, Graph graph) throws IOException {
+		return importFile(file, graph, null);
+	}
+
+	/**
+	 * Imports a file into a Graph. All the Node names of the file yield new
+	 * Nodes, even if the Graph already has Nodes with the same names.
+	 * @param file File to import.
+	 * @param graph Graph to fill.
+	 * @param listener Progress listener (may be null).
+	 * @return the created Nodes, by name, in order of first appearance.
+	 * @throws IOException if the file cannot be read.
+	 * @throws GraphException if the file is malformed.
+	 */
+	public Map<String, Node> importFile(Path file, Graph graph, ImportProgressListener listener) throws IOException {
+		ImportProgressListener progress = listener == null ? (phase, done, total) -> {} : listener;
+		List<ChunkResult> chunks = parse(file, progress);
+
+		// Merge the chunk dictionaries in file order.
+		Map<String, Integer> globalIndices = new HashMap<>();
+		List<String> names = new ArrayList<>();
+		int edgeCount = 0;
+		boolean named = false;
+		for(int c = 0; c < chunks.size(); c++) {
+			ChunkResult chunk = chunks.get(c);
+			for(String name : chunk.names) {
+				if(!globalIndices.containsKey(name)) {
+					globalIndices.put(name, names.size());
+					names.add(name);
+				}
+			}
+			edgeCount += chunk.edgeCount;
+			named |= chunk.edgeNames != null;
+			progress.progress(ImportProgressListener.Phase.RESOLVING, c + 1, chunks.size());
+		}
+
+		long total = (long) names.size() + edgeCount;
+		Node[] nodes = graphSystem.createNodes(graph, names.toArray(new String[0]));
+		progress.progress(ImportProgressListener.Phase.CREATING, nodes.length, total);
+
+		Node[] sources = new Node[edgeCount];
+		Node[] destinations = new Node[edgeCount];
+		String[] edgeNames = named ? new String[edgeCount] : null;
+		int e = 0;
+		for(ChunkResult chunk : chunks) {
+			int[] toGlobal = new int[chunk.names.size()];
+			for(int i = 0; i < toGlobal.length; i++)
+				toGlobal[i] = globalIndices.get(chunk.names.get(i));
+			for(int i = 0; i < chunk.edgeCount; i++, e++) {
+				sources[e] = nodes[toGlobal[chunk.sources[i]]];
+				destinations[e] = nodes[toGlobal[chunk.destinations[i]]];
+				if(chunk.edgeNames != null)
+					edgeNames[e] = chunk.edgeNames[i];
+			}
+		}
+		graphSystem.createEdges(sources, destinations, edgeNames);
+		progress.progress(ImportProgressListener.Phase.CREATING, total, total);
+
+		Map<String, Node> result = new LinkedHashMap<>(nodes.length * 2);
+		for(Node node : nodes)
+			result.put(node.getName(), node);
+		return result;
+	}
+
+	/**
+	 * Splits the file at line boundaries and parses the chunks in parallel.
+	 */
+	private List<ChunkResult> parse(Path file, ImportProgressListener progress) throws IOException {
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			long[] boundaries = chunkBoundaries(channel, size);
+			int chunkCount = boundaries.length - 1;
+			AtomicLong parsed = new AtomicLong();
+
+			ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, chunkCount)));
+			try {
+				List<Future<ChunkResult>> futures = new ArrayList<>(chunkCount);
+				for(int c = 0; c < chunkCount; c++) {
+					long start = boundaries[c];
+					long length = boundaries[c + 1] - start;
+					futures.add(executor.submit(() -> {
+						ChunkResult result = parseChunk(channel.map(FileChannel.MapMode.READ_ONLY, start, length), start);
+						progress.progress(ImportProgressListener.Phase.PARSING, parsed.addAndGet(length), size);
+						return result;
+					}));
+				}
+
+				List<ChunkResult> results = new ArrayList<>(chunkCount);
+				for(Future<ChunkResult> future : futures)
+					results.add(future.get());
+				return results;
+			} catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while importing " + file, e);
+			} catch(ExecutionException e) {
+				if(e.getCause() instanceof GraphException)
+					throw (GraphException) e.getCause();
+				if(e.getCause() instanceof IOException)
+					throw (IOException) e.getCause();
+				throw new IOException("Error while importing " + file, e.getCause());
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+	}
+
+	/**
+	 * Computes chunk boundaries, each boundary (except 0 and size) being
+	 * just after a line feed.
+	 */
+	private long[] chunkBoundaries(FileChannel channel, long size) throws IOException {
+		long chunkSize = Math.max(minChunkSize, Math.min(MAX_CHUNK_SIZE, size / (threads * 4L) + 1));
+		List<Long> boundaries = new ArrayList<>();
+		boundaries.add(0L);
+		ByteBuffer buffer = ByteBuffer.allocate(4096);
+		long position = chunkSize;
+		while(position < size) {
+			// Look for the next line feed after the nominal boundary.
+			long lineEnd = -1;
+			long scan = position;
+			while(lineEnd < 0 && scan < size) {
+				buffer.clear();
+				int read = channel.read(buffer, scan);
+				if(read <= 0)
+					break;
+				for(int i = 0; i < read; i++) {
+					if(buffer.get(i) == '\n') {
+						lineEnd = scan + i + 1;
+						break;
+					}
+				}
+				scan += read;
+			}
+			if(lineEnd < 0 || lineEnd >= size)
+				break;
+			if(lineEnd - boundaries.get(boundaries.size() - 1) > Integer.MAX_VALUE)
+				throw new GraphException("Line too long around byte " + position);
+			boundaries.add(lineEnd);
+			position = lineEnd + chunkSize;
+		}
+		boundaries.add(size);
+
+		long[] result = new long[boundaries.size()];
+		for(int i = 0; i < result.length; i++)
+			result[i] = boundaries.get(i);
+		return result;
+	}
+
+	/**
+	 * Parses the lines of a chunk.
+	 * @param buffer Mapped chunk.
+	 * @param offset Offset of the chunk in the file (for error messages).
+	 */
+	private ChunkResult parseChunk(MappedByteBuffer buffer, long offset) {
+		ChunkResult result = new ChunkResult();
+		byte[] token = new byte[256];
+		List<String> tokens = new ArrayList<>();
+		int limit = buffer.limit();
+		int lineStart = 0;
+
+		while(lineStart < limit) {
+			int position = lineStart;
+			tokens.clear();
+			int tokenLength = 0;
+			while(position < limit) {
+				byte b = buffer.get(position++);
+				if(b == '\n')
+					break;
+				if(b == ' ' || b == '\t' || b == '\r') {
+					if(tokenLength > 0) {
+						tokens.add(new String(token, 0, tokenLength, StandardCharsets.UTF_8));
+						tokenLength = 0;
+					}
+					continue;
+				}
+				if(tokenLength == token.length)
+					token = Arrays.copyOf(token, tokenLength * 2);
+				token[tokenLength++] = b;
+			}
+			if(tokenLength > 0)
+				tokens.add(new String(token, 0, tokenLength, StandardCharsets.UTF_8));
+
+			if(!tokens.isEmpty() && !tokens.get(0).startsWith("#"))
+				parseLine(tokens, result, offset + lineStart);
+			lineStart = position;
+		}
+
+		return result;
+	}
+
+	private void parseLine(List<String> tokens, ChunkResult result, long lineOffset) {
+		int source = result.resolve(tokens.get(0));
+		if(format == Format.ADJACENCY_LIST) {
+			for(int i = 1; i < tokens.size(); i++)
+				result.addEdge(source, result.resolve(tokens.get(i)), null);
+			return;
+		}
+
+		if(tokens.size() > 3)
+			throw new GraphException("Malformed edge list line at byte " + lineOffset + ": " + String.join(" ", tokens));
+		if(tokens.size() > 1)
+			result.addEdge(source, result.resolve(tokens.get(1)), tokens.size() == 3 ? tokens.get(2) : null);
+	}
+}
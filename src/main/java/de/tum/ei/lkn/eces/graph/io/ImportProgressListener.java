@@ -0,0 +1,36 @@
+package de.tum.ei.lkn.eces.graph.io;
+
+/**
+ * Callback informed of the progress of a topology import.
+ *
+ * @author Amaury Van Bemten
+ */
+@FunctionalInterface
+public interface ImportProgressListener {
+	/**
+	 * Import phases.
+	 */
+	enum Phase {
+		/**
+		 * Parsing of the file, progress in bytes.
+		 */
+		PARSING,
+		/**
+		 * Resolution of the Node names, progress in chunks.
+		 */
+		RESOLVING,
+		/**
+		 * Creation of the Nodes and Edges, progress in Components.
+		 */
+		CREATING
+	}
+
+	/**
+	 * Called when some progress was made. May be called from parsing
+	 * threads.
+	 * @param phase Current phase.
+	 * @param done Amount of work done in the phase.
+	 * @param total Total amount of work of the phase.
+	 */
+	void progress(Phase phase, long done, long total);
+}
@@ -0,0 +1,67 @@
+package de.tum.ei.lkn.eces.graph.partitioning;
+
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Node;
+
+/**
+ * Edge of the original Graph whose end Nodes are in different parts. Such
+ * Edges are not copied to the part Graphs: this entry records them with the
+ * copies of their end Nodes.
+ *
+ * @author Amaury Van Bemten
+ */
+public final class BoundaryEdge {
+	private final Edge edge;
+	private final int sourcePart;
+	private final int destinationPart;
+	private final Node source;
+	private final Node destination;
+
+	BoundaryEdge(Edge edge, int sourcePart, int destinationPart, Node source, Node destination) {
+		this.edge = edge;
+		this.sourcePart = sourcePart;
+		this.destinationPart = destinationPart;
+		this.source = source;
+		this.destination = destination;
+	}
+
+	/**
+	 * Gets the Edge of the original Graph.
+	 * @return original Edge.
+	 */
+	public Edge getEdge() {
+		return edge;
+	}
+
+	/**
+	 * Gets the part of the source Node.
+	 * @return part index.
+	 */
+	public int getSourcePart() {
+		return sourcePart;
+	}
+
+	/**
+	 * Gets the part of the destination Node.
+	 * @return part index.
+	 */
+	public int getDestinationPart() {
+		return destinationPart;
+	}
+
+	/**
+	 * Gets the copy of the source Node in its part Graph.
+	 * @return part Node.
+	 */
+	public Node getSource() {
+		return source;
+	}
+
+	/**
+	 * Gets the copy of the destination Node in its part Graph.
+	 * @return part Node.
+	 */
+	public Node getDestination() {
+		return destination;
+	}
+}
@@ -0,0 +1,196 @@
+package de.tum.ei.lkn.eces.graph.partitioning;
+
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.GraphSystem;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+import de.tum.ei.lkn.eces.graph.view.CompactGraph;
+import de.tum.ei.lkn.eces.graph.view.NodeOrdering;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits a Graph into k balanced parts with few Edges between them.
+ *
+ * The Nodes are first cut into k contiguous blocks of their reverse
+ * Cuthill-McKee order (a breadth-first order started from low degree,
+ * peripheral, Nodes), which already keeps neighbours together. The assignment is then
+ * refined by label propagation: a Node moves to the part holding most of
+ * its neighbours (Edge direction ignored) if that part is not full. Every
+ * move strictly decreases the number of cut Edges, so the refinement
+ * terminates. No randomness is involved: the result is reproducible.
+ *
+ * @author Amaury Van Bemten
+ */
+public class GraphPartitioner {
+	/**
+	 * System used to create the part Graphs.
+	 */
+	private final GraphSystem graphSystem;
+
+	/**
+	 * Allowed relative excess of a part over the average part size.
+	 */
+	private final double imbalance;
+
+	/**
+	 * Maximum number of label propagation rounds.
+	 */
+	private final int maxIterations;
+
+	/**
+	 * Creates a partitioner allowing 3% imbalance and 20 refinement rounds.
+	 * @param graphSystem System used to create the part Graphs.
+	 */
+	public GraphPartitioner(GraphSystem graphSystem) {
+		this(graphSystem, 0.03, 20);
+	}
+
+	/**
+	 * Creates a partitioner.
+	 * @param graphSystem System used to create the part Graphs.
+	 * @param imbalance Allowed relative excess of a part over the average
+	 *                  part size (e.g., 0.05 for 5%).
+	 * @param maxIterations Maximum number of label propagation rounds.
+	 */
+	public GraphPartitioner(GraphSystem graphSystem, double imbalance, int maxIterations) {
+		if(imbalance < 0 || maxIterations < 0)
+			throw new GraphException("Imbalance and number of iterations must be non-negative");
+		this.graphSystem = graphSystem;
+		this.imbalance = imbalance;
+		this.maxIterations = maxIterations;
+	}
+
+	/**
+	 * Partitions a Graph and creates one Graph per part. Nodes and the
+	 * Edges internal to a part are copied (with their names) to the part
+	 * Graph, Edges between parts are returned as boundary Edges.
+	 * @param graph Graph to partition.
+	 * @param k Number of parts.
+	 * @return the partitioning.
+	 */
+	public Partitioning partition(Graph graph, int k) {
+		CompactGraph compact = CompactGraph.of(graph);
+		int[] parts = assign(compact, k);
+		int n = compact.nodeCount();
+
+		List<List<Integer>> members = new ArrayList<>(k);
+		for(int p = 0; p < k; p++)
+			members.add(new ArrayList<>());
+		for(int v = 0; v < n; v++)
+			members.get(parts[v]).add(v);
+
+		List<Graph> graphs = new ArrayList<>(k);
+		Node[] copies = new Node[n];
+		Map<Node, Node> originals = new HashMap<>(n * 2);
+		List<BoundaryEdge> boundary = new ArrayList<>();
+
+		for(int p = 0; p < k; p++) {
+			Graph part = graphSystem.createGraph();
+			graphs.add(part);
+			List<Integer> nodes = members.get(p);
+			String[] names = new String[nodes.size()];
+			for(int i = 0; i < names.length; i++)
+				names[i] = compact.getNode(nodes.get(i)).getName();
+			Node[] created = graphSystem.createNodes(part, names);
+			for(int i = 0; i < created.length; i++) {
+				copies[nodes.get(i)] = created[i];
+				originals.put(created[i], compact.getNode(nodes.get(i)));
+			}
+		}
+
+		List<List<Integer>> internal = new ArrayList<>(k);
+		for(int p = 0; p < k; p++)
+			internal.add(new ArrayList<>());
+		for(int e = 0; e < compact.edgeCount(); e++) {
+			int u = compact.source(e);
+			int w = compact.target(e);
+			if(parts[u] == parts[w])
+				internal.get(parts[u]).add(e);
+			else
+				boundary.add(new BoundaryEdge(compact.getEdge(e), parts[u], parts[w], copies[u], copies[w]));
+		}
+
+		for(List<Integer> edges : internal) {
+			Node[] sources = new Node[edges.size()];
+			Node[] destinations = new Node[edges.size()];
+			String[] names = new String[edges.size()];
+			for(int i = 0; i < sources.length; i++) {
+				int e = edges.get(i);
+				sources[i] = copies[compact.source(e)];
+				destinations[i] = copies[compact.target(e)];
+				names[i] = compact.getEdge(e).getName();
+			}
+			graphSystem.createEdges(sources, destinations, names);
+		}
+
+		return new Partitioning(compact, parts, graphs, copies, originals, boundary);
+	}
+
+	/**
+	 * Computes the part of every Node without creating any Graph.
+	 * @param graph Compact Graph.
+	 * @param k Number of parts.
+	 * @return part index of every Node, by Node index.
+	 */
+	public int[] assign(CompactGraph graph, int k) {
+		if(k <= 0)
+			throw new GraphException("The number of parts must be positive");
+		int n = graph.nodeCount();
+		int[] parts = new int[n];
+		if(n == 0)
+			return parts;
+
+		int[] order = NodeOrdering.REVERSE_CUTHILL_MCKEE.order(graph);
+		int[] sizes = new int[k];
+		for(int i = 0; i < n; i++) {
+			parts[order[i]] = (int) ((long) i * k / n);
+			sizes[parts[order[i]]]++;
+		}
+
+		int capacity = Math.max(1, (int) Math.ceil((1 + imbalance) * n / k));
+		int[] counts = new int[k];
+		int[] touched = new int[k];
+
+		for(int iteration = 0; iteration < maxIterations; iteration++) {
+			int moves = 0;
+			for(int v : order) {
+				int touchedCount = 0;
+				for(int e = graph.outBegin(v); e < graph.outEnd(v); e++)
+					touchedCount = count(parts[graph.target(e)], counts, touched, touchedCount);
+				for(int i = graph.inBegin(v); i < graph.inEnd(v); i++)
+					touchedCount = count(parts[graph.source(graph.inEdge(i))], counts, touched, touchedCount);
+
+				int current = parts[v];
+				int best = current;
+				for(int i = 0; i < touchedCount; i++) {
+					int p = touched[i];
+					if(p != current && sizes[p] < capacity && counts[p] > counts[best])
+						best = p;
+				}
+				for(int i = 0; i < touchedCount; i++)
+					counts[touched[i]] = 0;
+
+				if(best != current) {
+					sizes[current]--;
+					sizes[best]++;
+					parts[v] = best;
+					moves++;
+				}
+			}
+			if(moves == 0)
+				break;
+		}
+
+		return parts;
+	}
+
+	private static int count(int part, int[] counts, int[] touched, int touchedCount) {
+		if(counts[part]++ == 0)
+			touched[touchedCount++] = part;
+		return touchedCount;
+	}
+}
@@ -0,0 +1,126 @@
+package de.tum.ei.lkn.eces.graph.partitioning;
+
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.view.CompactGraph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a GraphPartitioner: one Graph per part and the Edges crossing
+ * parts.
+ *
+ * @author Amaury Van Bemten
+ */
+public final class Partitioning {
+	private final CompactGraph original;
+	private final int[] parts;
+	private final List<Graph> graphs;
+	private final Node[] copies;
+	private final Map<Node, Node> originals;
+	private final List<List<BoundaryEdge>> boundaryEdges;
+	private final int cutSize;
+
+	Partitioning(CompactGraph original, int[] parts, List<Graph> graphs, Node[] copies, Map<Node, Node> originals, List<BoundaryEdge> boundary) {
+		this.original = original;
+		this.parts = parts;
+		this.graphs = Collections.unmodifiableList(graphs);
+		this.copies = copies;
+		this.originals = originals;
+		this.cutSize = boundary.size();
+
+		List<List<BoundaryEdge>> perPart = new ArrayList<>(graphs.size());
+		for(int p = 0; p < graphs.size(); p++)
+			perPart.add(new ArrayList<>());
+		for(BoundaryEdge edge : boundary) {
+			perPart.get(edge.getSourcePart()).add(edge);
+			perPart.get(edge.getDestinationPart()).add(edge);
+		}
+		this.boundaryEdges = new ArrayList<>(perPart.size());
+		for(List<BoundaryEdge> list : perPart)
+			this.boundaryEdges.add(Collections.unmodifiableList(list));
+	}
+
+	/**
+	 * Gets the number of parts.
+	 * @return number of parts.
+	 */
+	public int getPartCount() {
+		return graphs.size();
+	}
+
+	/**
+	 * Gets the Graph of a part.
+	 * @param part Part index.
+	 * @return the part Graph.
+	 */
+	public Graph getGraph(int part) {
+		return graphs.get(part);
+	}
+
+	/**
+	 * Gets the Graphs of all the parts.
+	 * @return the part Graphs, by part index.
+	 */
+	public List<Graph> getGraphs() {
+		return graphs;
+	}
+
+	/**
+	 * Gets the part of a Node of the original Graph.
+	 * @param node original Node.
+	 * @return part index.
+	 */
+	public int getPart(Node node) {
+		return parts[original.indexOf(node)];
+	}
+
+	/**
+	 * Gets the copy of an original Node in its part Graph.
+	 * @param node original Node.
+	 * @return part Node.
+	 */
+	public Node getPartNode(Node node) {
+		return copies[original.indexOf(node)];
+	}
+
+	/**
+	 * Gets the original Node of a Node of a part Graph.
+	 * @param partNode Node of a part Graph.
+	 * @return original Node, or null if unknown.
+	 */
+	public Node getOriginalNode(Node partNode) {
+		return originals.get(partNode);
+	}
+
+	/**
+	 * Gets the Edges leaving or entering a part.
+	 * @param part Part index.
+	 * @return boundary Edges with one end in the part.
+	 */
+	public List<BoundaryEdge> getBoundaryEdges(int part) {
+		return boundaryEdges.get(part);
+	}
+
+	/**
+	 * Gets the number of original Edges crossing parts.
+	 * @return cut size.
+	 */
+	public int getCutSize() {
+		return cutSize;
+	}
+
+	/**
+	 * Tells whether an original Edge crosses parts.
+	 * @param edge original Edge.
+	 * @return true if the Edge is a boundary Edge.
+	 */
+	public boolean isBoundaryEdge(Edge edge) {
+		int e = original.indexOf(edge);
+		return parts[original.source(e)] != parts[original.target(e)];
+	}
+}
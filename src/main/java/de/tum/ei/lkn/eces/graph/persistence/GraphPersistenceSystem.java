@@ -0,0 +1,362 @@
+package de.tum.ei.lkn.eces.graph.persistence;
+
+import de.tum.ei.lkn.eces.core.ComponentStatus;
+import de.tum.ei.lkn.eces.core.Controller;
+import de.tum.ei.lkn.eces.core.MapperSpace;
+import de.tum.ei.lkn.eces.core.RootSystem;
+import de.tum.ei.lkn.eces.core.annotations.ComponentStateIs;
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.GraphSystem;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * System persisting a Graph to a local directory.
+ *
+ * Each Node and Edge creation and deletion of the Graph is appended to a
+ * binary redo log (see SyncPolicy for when it reaches the disk). Records are
+ * appended by the event listeners of the system, i.e., once the change is
+ * committed: the log is not written ahead of the change, and a change that
+ * is committed but not on disk yet is lost on a crash, whatever the
+ * SyncPolicy. Every given number of records, a checkpoint with the full
+ * Graph is written and the log is reset. Recovery loads the checkpoint, replays the
+ * log on it and rebuilds the Graph with one bulk creation, after which a
+ * new checkpoint is taken.
+ *
+ * Nodes and Edges get persistent identifiers, so that names do not need to
+ * be unique. Only the Graph structure and the names are persisted.
+ *
+ * @author Amaury Van Bemten
+ */
+public class GraphPersistenceSystem extends RootSystem implements AutoCloseable {
+	/**
+	 * Name of the checkpoint file in the directory.
+	 */
+	public static final String CHECKPOINT_FILE = "graph.checkpoint";
+
+	/**
+	 * Name of the log file in the directory.
+	 */
+	public static final String LOG_FILE = "graph.redo";
+
+	/**
+	 * GraphSystem used to rebuild the Graph.
+	 */
+	private final GraphSystem graphSystem;
+
+	/**
+	 * Directory holding the files.
+	 */
+	private final Path directory;
+
+	/**
+	 * When the log is forced to disk.
+	 */
+	private final SyncPolicy policy;
+
+	/**
+	 * Fsync period for the PERIODIC policy.
+	 */
+	private final long syncIntervalMillis;
+
+	/**
+	 * Number of log records after which a checkpoint is taken (0 to only
+	 * checkpoint explicitly).
+	 */
+	private final long checkpointInterval;
+
+	/**
+	 * Persisted Graph, null until open() or attach().
+	 */
+	private Graph graph;
+
+	/**
+	 * Log of the changes since the last checkpoint.
+	 */
+	private RedoLog log;
+
+	/**
+	 * Persistent identifier of each Node, in creation order.
+	 */
+	private final Map<Node, Long> nodeIds = new LinkedHashMap<>();
+
+	/**
+	 * Persistent identifier of each Edge, in creation order.
+	 */
+	private final Map<Edge, Long> edgeIds = new LinkedHashMap<>();
+
+	/**
+	 * Next free identifier.
+	 */
+	private long nextId;
+
+	/**
+	 * Number of records logged since the last checkpoint.
+	 */
+	private long recordsSinceCheckpoint;
+
+	/**
+	 * Creates a persistence system. Nothing happens until open() or
+	 * attach() is called.
+	 * @param controller Controller of the GraphSystem.
+	 * @param graphSystem GraphSystem used to rebuild the Graph.
+	 * @param directory Directory holding the checkpoint and the log.
+	 * @param policy When the log is forced to disk.
+	 * @param syncIntervalMillis Fsync period for the PERIODIC policy.
+	 * @param checkpointInterval Number of log records after which a
+	 *                           checkpoint is taken (0 to only checkpoint
+	 *                           explicitly).
+	 */
+	public GraphPersistenceSystem(Controller controller, GraphSystem graphSystem, Path directory, SyncPolicy policy, long syncIntervalMillis, long checkpointInterval) {
+		super(controller);
+		this.graphSystem = graphSystem;
+		this.directory = directory;
+		this.policy = policy;
+		this.syncIntervalMillis = syncIntervalMillis;
+		this.checkpointInterval = checkpointInterval;
+	}
+
+	/**
+	 * Recovers the Graph persisted in the directory (an empty Graph if there
+	 * is none) and starts persisting it.
+	 * @return the recovered Graph.
+	 * @throws GraphException if a Graph is already persisted by this system.
+	 * @throws UncheckedIOException if the files cannot be read or written.
+	 */
+	public synchronized Graph open() {
+		checkNotStarted();
+		try {
+			Files.createDirectories(directory);
+			GraphState state = GraphState.read(directory.resolve(CHECKPOINT_FILE));
+			long replayed = RedoLog.read(directory.resolve(LOG_FILE), state::apply);
+
+			graph = graphSystem.createGraph();
+			rebuild(state);
+			nextId = state.nextId;
+			log = new RedoLog(directory.resolve(LOG_FILE), policy, syncIntervalMillis);
+			// Fold the replayed tail into a new checkpoint.
+			checkpoint();
+			logger.info(graph + " recovered from " + directory + " (" + nodeIds.size() + " Nodes, " + edgeIds.size() + " Edges, " + replayed + " log records replayed).");
+			return graph;
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Starts persisting an existing Graph, replacing what the directory
+	 * holds.
+	 * @param graph Graph to persist.
+	 * @throws GraphException if a Graph is already persisted by this system.
+	 * @throws UncheckedIOException if the files cannot be written.
+	 */
+	public synchronized void attach(Graph graph) {
+		checkNotStarted();
+		try {
+			Files.createDirectories(directory);
+			this.graph = graph;
+			for(Node node : graph.getNodes())
+				nodeIds.put(node, nextId++);
+			for(Edge edge : graph.getEdges())
+				edgeIds.put(edge, nextId++);
+			log = new RedoLog(directory.resolve(LOG_FILE), policy, syncIntervalMillis);
+			checkpoint();
+			logger.info(graph + " persisted to " + directory + ".");
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void checkNotStarted() {
+		if(graph != null)
+			throw new GraphException(graph + " is already persisted by this system");
+	}
+
+	/**
+	 * Creates the Nodes and Edges of a persisted state in the Graph.
+	 * @param state Persisted state.
+	 */
+	private void rebuild(GraphState state) {
+		String[] nodeNames = state.nodes.values().toArray(new String[0]);
+		Node[] sources = new Node[state.edges.size()];
+		Node[] destinations = new Node[state.edges.size()];
+		String[] edgeNames = new String[state.edges.size()];
+
+		try(MapperSpace ms = controller.startMapperSpace()) {
+			Node[] nodes = graphSystem.createNodes(graph, nodeNames);
+			Map<Long, Node> nodesById = new HashMap<>();
+			int i = 0;
+			for(Long id : state.nodes.keySet()) {
+				nodeIds.put(nodes[i], id);
+				nodesById.put(id, nodes[i++]);
+			}
+
+			i = 0;
+			for(GraphState.EdgeRecord edge : state.edges.values()) {
+				sources[i] = nodesById.get(edge.source);
+				destinations[i] = nodesById.get(edge.destination);
+				edgeNames[i++] = edge.name;
+			}
+			Edge[] edges = graphSystem.createEdges(sources, destinations, edgeNames);
+			i = 0;
+			for(Long id : state.edges.keySet())
+				edgeIds.put(edges[i++], id);
+		}
+	}
+
+	/**
+	 * Writes a checkpoint of the persisted Graph and resets the log.
+	 * @throws UncheckedIOException if the files cannot be written.
+	 */
+	public synchronized void checkpoint() {
+		GraphState state = new GraphState();
+		state.nextId = nextId;
+		for(Map.Entry<Node, Long> node : nodeIds.entrySet())
+			state.nodes.put(node.getValue(), node.getKey().getName());
+		for(Map.Entry<Edge, Long> edge : edgeIds.entrySet()) {
+			Long source = nodeIds.get(edge.getKey().getSource());
+			Long destination = nodeIds.get(edge.getKey().getDestination());
+			// Edges of a deleted Node whose own deletion event is still pending.
+			if(source != null && destination != null)
+				state.edges.put(edge.getValue(), new GraphState.EdgeRecord(source, destination, edge.getKey().getName()));
+		}
+		try {
+			// Returns once the checkpoint and its rename are on disk.
+			state.write(directory.resolve(CHECKPOINT_FILE));
+			// A crash before this reset only leads to a redundant, idempotent replay.
+			log.reset();
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		recordsSinceCheckpoint = 0;
+	}
+
+	/**
+	 * Forces the logged records to disk, whatever the SyncPolicy.
+	 * @throws UncheckedIOException if the log cannot be written.
+	 */
+	public synchronized void sync() {
+		try {
+			if(log != null)
+				log.sync();
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Gets the persisted Graph.
+	 * @return the Graph, null before open() or attach().
+	 */
+	public synchronized Graph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Forces the log to disk and stops persisting.
+	 * @throws UncheckedIOException if the log cannot be written.
+	 */
+	@Override
+	public synchronized void close() {
+		try {
+			if(log != null)
+				log.close();
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		log = null;
+	}
+
+	@ComponentStateIs(State = ComponentStatus.New)
+	public synchronized void nodeCreated(Node node) {
+		if(log != null && node.getGraph() == graph)
+			nodeId(node);
+	}
+
+	@ComponentStateIs(State = ComponentStatus.Destroyed)
+	public synchronized void nodeDeleted(Node node) {
+		if(log == null || node.getGraph() != graph)
+			return;
+		Long id = nodeIds.remove(node);
+		if(id != null)
+			append(GraphState.NODE_DELETED, id, null);
+	}
+
+	@ComponentStateIs(State = ComponentStatus.New)
+	public synchronized void edgeCreated(Edge edge) {
+		if(log == null || edge.getSource().getGraph() != graph || edgeIds.containsKey(edge))
+			return;
+		// Endpoints are logged first if their own event is still pending.
+		long source = nodeId(edge.getSource());
+		long destination = nodeId(edge.getDestination());
+		long id = nextId++;
+		edgeIds.put(edge, id);
+		append(GraphState.EDGE_CREATED, id, out -> {
+			out.writeLong(source);
+			out.writeLong(destination);
+			GraphState.writeString(out, edge.getName());
+		});
+	}
+
+	@ComponentStateIs(State = ComponentStatus.Destroyed)
+	public synchronized void edgeDeleted(Edge edge) {
+		if(log == null || edge.getSource().getGraph() != graph)
+			return;
+		Long id = edgeIds.remove(edge);
+		if(id != null)
+			append(GraphState.EDGE_DELETED, id, null);
+	}
+
+	/**
+	 * Gets the identifier of a Node, logging its creation if it is not
+	 * known yet.
+	 * @param node Node.
+	 * @return the identifier.
+	 */
+	private long nodeId(Node node) {
+		Long id = nodeIds.get(node);
+		if(id != null)
+			return id;
+		long newId = nextId++;
+		nodeIds.put(node, newId);
+		append(GraphState.NODE_CREATED, newId, out -> GraphState.writeString(out, node.getName()));
+		return newId;
+	}
+
+	/**
+	 * Writer of the payload following the identifier.
+	 */
+	private interface PayloadWriter {
+		void write(DataOutputStream out) throws IOException;
+	}
+
+	/**
+	 * Appends a record to the log and takes a checkpoint if enough records
+	 * were logged.
+	 */
+	private void append(byte type, long id, PayloadWriter payload) {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeLong(id);
+			if(payload != null)
+				payload.write(out);
+			log.append(type, bytes.toByteArray());
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		if(checkpointInterval > 0 && ++recordsSinceCheckpoint >= checkpointInterval)
+			checkpoint();
+	}
+}
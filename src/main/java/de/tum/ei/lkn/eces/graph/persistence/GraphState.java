@@ -0,0 +1,272 @@
+package de.tum.ei.lkn.eces.graph.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Persistent form of a Graph: Nodes and Edges by persistent identifier, in
+ * creation order. Used to read and write checkpoints and to replay the
+ * redo log before the Graph is rebuilt.
+ *
+ * Strings are stored as their length in UTF-8 bytes followed by these bytes,
+ * so that names of any length can be persisted.
+ *
+ * @author Amaury Van Bemten
+ */
+final class GraphState {
+	/**
+	 * First bytes of a checkpoint file.
+	 */
+	private static final int MAGIC = 0x45474350;
+
+	/**
+	 * Version of the checkpoint format.
+	 */
+	private static final int FORMAT_VERSION = 2;
+
+	static final byte NODE_CREATED = 1;
+	static final byte NODE_DELETED = 2;
+	static final byte EDGE_CREATED = 3;
+	static final byte EDGE_DELETED = 4;
+
+	/**
+	 * Persistent Edge: endpoints and name.
+	 */
+	static final class EdgeRecord {
+		final long source;
+		final long destination;
+		final String name;
+
+		EdgeRecord(long source, long destination, String name) {
+			this.source = source;
+			this.destination = destination;
+			this.name = name;
+		}
+	}
+
+	/**
+	 * Node names by identifier.
+	 */
+	final Map<Long, String> nodes = new LinkedHashMap<>();
+
+	/**
+	 * Edges by identifier.
+	 */
+	final Map<Long, EdgeRecord> edges = new LinkedHashMap<>();
+
+	/**
+	 * Next free identifier.
+	 */
+	long nextId;
+
+	/**
+	 * Identifiers of the Edges of each Node, so that replaying a Node
+	 * deletion does not scan all the Edges. Built on the first applied
+	 * record, and then kept up to date by apply() only.
+	 */
+	private Map<Long, Set<Long>> incidentEdges;
+
+	/**
+	 * Applies a log record. Replaying is idempotent with respect to records
+	 * already reflected in the state (identifiers are never reused), so that
+	 * a log that was not reset after a checkpoint can be replayed on it. A
+	 * Node deletion costs the degree of the Node.
+	 * @param type Record type.
+	 * @param payload Record payload.
+	 * @throws IOException if the payload cannot be decoded.
+	 */
+	void apply(byte type, DataInputStream payload) throws IOException {
+		if(incidentEdges == null)
+			indexEdges();
+		long id = payload.readLong();
+		nextId = Math.max(nextId, id + 1);
+		switch(type) {
+			case NODE_CREATED:
+				nodes.putIfAbsent(id, readString(payload));
+				break;
+			case NODE_DELETED:
+				if(nodes.remove(id) != null) {
+					Set<Long> incident = incidentEdges.remove(id);
+					if(incident != null)
+						for(Long edgeId : incident)
+							removeEdge(edgeId);
+				}
+				break;
+			case EDGE_CREATED:
+				long source = payload.readLong();
+				long destination = payload.readLong();
+				String name = readString(payload);
+				if(nodes.containsKey(source) && nodes.containsKey(destination) && !edges.containsKey(id)) {
+					edges.put(id, new EdgeRecord(source, destination, name));
+					index(id, source);
+					index(id, destination);
+				}
+				break;
+			case EDGE_DELETED:
+				removeEdge(id);
+				break;
+			default:
+				throw new IOException("Unknown record type " + type);
+		}
+	}
+
+	/**
+	 * Builds the index of the Edges of each Node.
+	 */
+	private void indexEdges() {
+		incidentEdges = new HashMap<>();
+		for(Map.Entry<Long, EdgeRecord> edge : edges.entrySet()) {
+			index(edge.getKey(), edge.getValue().source);
+			index(edge.getKey(), edge.getValue().destination);
+		}
+	}
+
+	private void index(long edgeId, long nodeId) {
+		incidentEdges.computeIfAbsent(nodeId, n -> new HashSet<>()).add(edgeId);
+	}
+
+	/**
+	 * Removes an Edge and its entries in the index.
+	 * @param id Identifier of the Edge.
+	 */
+	private void removeEdge(long id) {
+		EdgeRecord edge = edges.remove(id);
+		if(edge == null)
+			return;
+		for(long nodeId : new long[]{edge.source, edge.destination}) {
+			Set<Long> incident = incidentEdges.get(nodeId);
+			if(incident != null)
+				incident.remove(id);
+		}
+	}
+
+	/**
+	 * Writes a string as its length in UTF-8 bytes followed by these bytes.
+	 * Unlike DataOutputStream.writeUTF(), strings longer than 64 KiB once
+	 * encoded are supported.
+	 * @param out Stream.
+	 * @param string String.
+	 * @throws IOException if writing fails.
+	 */
+	static void writeString(DataOutputStream out, String string) throws IOException {
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Reads a string written by writeString().
+	 * @param in Stream.
+	 * @return the string.
+	 * @throws IOException if reading fails or the length is invalid.
+	 */
+	static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if(length < 0)
+			throw new IOException("Invalid string length " + length);
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Writes the state to a checkpoint file, atomically: the state is
+	 * written and fsynced to a temporary file that then replaces the
+	 * checkpoint, and the directory is fsynced so that the replacement is
+	 * durable when the method returns.
+	 * @param file Checkpoint file.
+	 * @throws IOException if writing fails.
+	 */
+	void write(Path file) throws IOException {
+		Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+		try(FileOutputStream fileOut = new FileOutputStream(temporary.toFile())) {
+			CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(fileOut), new CRC32());
+			DataOutputStream out = new DataOutputStream(checked);
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeLong(nextId);
+			out.writeInt(nodes.size());
+			for(Map.Entry<Long, String> node : nodes.entrySet()) {
+				out.writeLong(node.getKey());
+				writeString(out, node.getValue());
+			}
+			out.writeInt(edges.size());
+			for(Map.Entry<Long, EdgeRecord> edge : edges.entrySet()) {
+				out.writeLong(edge.getKey());
+				out.writeLong(edge.getValue().source);
+				out.writeLong(edge.getValue().destination);
+				writeString(out, edge.getValue().name);
+			}
+			out.writeLong(checked.getChecksum().getValue());
+			out.flush();
+			fileOut.getFD().sync();
+		}
+		Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		syncDirectory(file.toAbsolutePath().getParent());
+	}
+
+	/**
+	 * Forces a directory entry change (the rename of a checkpoint) to disk,
+	 * so that the log is never truncated while the rename could still be
+	 * lost. Directories cannot be opened on Windows, where renames are
+	 * durable once the call returns.
+	 * @param directory Directory to sync.
+	 * @throws IOException if the directory cannot be synced.
+	 */
+	static void syncDirectory(Path directory) throws IOException {
+		if(File.separatorChar == '\\')
+			return;
+		try(FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			channel.force(true);
+		}
+	}
+
+	/**
+	 * Reads a checkpoint file.
+	 * @param file Checkpoint file.
+	 * @return the state, empty if there is no checkpoint.
+	 * @throws IOException if the checkpoint is unreadable or corrupted.
+	 */
+	static GraphState read(Path file) throws IOException {
+		GraphState state = new GraphState();
+		if(!Files.exists(file))
+			return state;
+		try(InputStream fileIn = new BufferedInputStream(Files.newInputStream(file))) {
+			CheckedInputStream checked = new CheckedInputStream(fileIn, new CRC32());
+			DataInputStream in = new DataInputStream(checked);
+			if(in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION)
+				throw new IOException(file + " is not a Graph checkpoint");
+			state.nextId = in.readLong();
+			int nodeCount = in.readInt();
+			for(int i = 0; i < nodeCount; i++)
+				state.nodes.put(in.readLong(), readString(in));
+			int edgeCount = in.readInt();
+			for(int i = 0; i < edgeCount; i++)
+				state.edges.put(in.readLong(), new EdgeRecord(in.readLong(), in.readLong(), readString(in)));
+			long checksum = checked.getChecksum().getValue();
+			if(new DataInputStream(fileIn).readLong() != checksum)
+				throw new IOException(file + " is corrupted");
+		}
+		return state;
+	}
+}
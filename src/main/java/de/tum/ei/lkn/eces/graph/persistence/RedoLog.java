@@ -0,0 +1,207 @@
+package de.tum.ei.lkn.eces.graph.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only redo log of binary records.
+ *
+ * Each record is stored as its length (int), the CRC32 of its content (int)
+ * and its content (type byte followed by the payload). Records are
+ * buffered in memory and written (and possibly fsynced) according to a
+ * SyncPolicy. When reading, a truncated or corrupted record marks the end
+ * of the log: it is the torn tail of an interrupted write.
+ *
+ * @author Amaury Van Bemten
+ */
+final class RedoLog implements AutoCloseable {
+	/**
+	 * Size above which buffered records are written to the file.
+	 */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Handler of the records read from a log.
+	 */
+	interface RecordHandler {
+		void handle(byte type, DataInputStream payload) throws IOException;
+	}
+
+	/**
+	 * Log file.
+	 */
+	private final Path file;
+
+	/**
+	 * When records are forced to disk.
+	 */
+	private final SyncPolicy policy;
+
+	/**
+	 * Channel appending to the file.
+	 */
+	private FileChannel channel;
+
+	/**
+	 * Records not yet written.
+	 */
+	private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(BUFFER_SIZE);
+
+	/**
+	 * Whether records were written since the last fsync.
+	 */
+	private boolean dirty;
+
+	/**
+	 * Periodic flusher for the PERIODIC policy.
+	 */
+	private final ScheduledExecutorService flusher;
+
+	RedoLog(Path file, SyncPolicy policy, long syncIntervalMillis) throws IOException {
+		this.file = file;
+		this.policy = policy;
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		if(policy == SyncPolicy.PERIODIC) {
+			flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "graph-redo-flusher");
+				thread.setDaemon(true);
+				return thread;
+			});
+			flusher.scheduleWithFixedDelay(() -> {
+				try {
+					sync();
+				} catch(IOException e) {
+					// Retried at the next period, and reported by the next sync() call.
+				}
+			}, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+		}
+		else {
+			flusher = null;
+		}
+	}
+
+	/**
+	 * Appends a record.
+	 * @param type Record type.
+	 * @param payload Record payload.
+	 * @throws IOException if writing fails.
+	 */
+	synchronized void append(byte type, byte[] payload) throws IOException {
+		CRC32 crc = new CRC32();
+		crc.update(type);
+		crc.update(payload, 0, payload.length);
+		ByteBuffer header = ByteBuffer.allocate(9);
+		header.putInt(payload.length + 1);
+		header.putInt((int) crc.getValue());
+		header.put(type);
+		buffer.write(header.array(), 0, 9);
+		buffer.write(payload, 0, payload.length);
+
+		if(policy == SyncPolicy.ALWAYS)
+			sync();
+		else if(buffer.size() >= BUFFER_SIZE)
+			write();
+	}
+
+	/**
+	 * Writes the buffered records to the file.
+	 */
+	private void write() throws IOException {
+		if(buffer.size() == 0)
+			return;
+		ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+		while(bytes.hasRemaining())
+			channel.write(bytes);
+		buffer.reset();
+		dirty = true;
+	}
+
+	/**
+	 * Writes the buffered records and forces them to disk.
+	 * @throws IOException if writing fails.
+	 */
+	synchronized void sync() throws IOException {
+		write();
+		if(dirty) {
+			channel.force(false);
+			dirty = false;
+		}
+	}
+
+	/**
+	 * Drops all the records, once they are covered by a checkpoint.
+	 * @throws IOException if the file cannot be truncated.
+	 */
+	synchronized void reset() throws IOException {
+		buffer.reset();
+		channel.truncate(0);
+		channel.force(true);
+		dirty = false;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if(flusher != null)
+			flusher.shutdownNow();
+		if(channel.isOpen()) {
+			sync();
+			channel.close();
+		}
+	}
+
+	/**
+	 * Reads all the valid records of a log file, stopping at the first
+	 * truncated or corrupted one.
+	 * @param file Log file.
+	 * @param handler Handler of the records.
+	 * @return number of records read.
+	 * @throws IOException if the file cannot be read.
+	 */
+	static long read(Path file, RecordHandler handler) throws IOException {
+		if(!Files.exists(file))
+			return 0;
+		long count = 0;
+		long remaining = Files.size(file);
+		try(InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+			DataInputStream data = new DataInputStream(in);
+			while(true) {
+				int length;
+				int checksum;
+				byte[] content;
+				try {
+					length = data.readInt();
+					checksum = data.readInt();
+					remaining -= 8;
+					if(length <= 0 || length > remaining)
+						break;
+					remaining -= length;
+					content = new byte[length];
+					data.readFully(content);
+				} catch(EOFException e) {
+					break;
+				}
+				CRC32 crc = new CRC32();
+				crc.update(content, 0, content.length);
+				if((int) crc.getValue() != checksum)
+					break;
+				handler.handle(content[0], new DataInputStream(new ByteArrayInputStream(content, 1, content.length - 1)));
+				count++;
+			}
+		}
+		return count;
+	}
+}
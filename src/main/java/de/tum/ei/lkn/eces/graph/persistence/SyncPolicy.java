@@ -0,0 +1,29 @@
+package de.tum.ei.lkn.eces.graph.persistence;
+
+/**
+ * When the redo log of a GraphPersistenceSystem is forced to disk.
+ *
+ * @author Amaury Van Bemten
+ */
+public enum SyncPolicy {
+	/**
+	 * Every record is written and fsynced before the event handler returns.
+	 * Safest and slowest.
+	 */
+	ALWAYS,
+
+	/**
+	 * Records are buffered and a background thread writes and fsyncs them
+	 * periodically, so that many records share one fsync (group commit).
+	 * At most one period of records can be lost on a crash.
+	 */
+	PERIODIC,
+
+	/**
+	 * Records are buffered in memory (64 KiB) and written when the buffer is
+	 * full; the log is only fsynced on checkpoints and on close. Up to one
+	 * buffer of records can be lost on a process crash, and any record not
+	 * fsynced yet on a machine crash.
+	 */
+	NEVER
+}
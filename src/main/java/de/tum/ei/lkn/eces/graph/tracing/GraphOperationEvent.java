@@ -0,0 +1,80 @@
+package de.tum.ei.lkn.eces.graph.tracing;
+
+import de.tum.ei.lkn.eces.graph.Graph;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder event covering one GraphSystem operation, from its
+ * start until its MapperSpace is closed.
+ *
+ * Created through GraphTracing, so that the Graph classes do not depend on
+ * JFR. The event is meant to stay enabled in production: while JFR does not
+ * record it, the tracer returns the shared no-op trace instead, so that
+ * nothing is allocated, and the fields are only filled when the event is
+ * actually committed. By
+ * default, only operations lasting at least DEFAULT_THRESHOLD are recorded;
+ * the threshold can be lowered in the recording settings.
+ *
+ * @author Amaury Van Bemten
+ */
+@Name(GraphOperationEvent.NAME)
+@Label("Graph Operation")
+@Category({"ECES", "Graph"})
+@Description("GraphSystem operation, including lock acquisition, Component updates and event dispatch")
+@StackTrace(false)
+@Threshold(GraphOperationEvent.DEFAULT_THRESHOLD)
+public final class GraphOperationEvent extends jdk.jfr.Event implements OperationTrace {
+	/**
+	 * Name of the event type in recordings.
+	 */
+	public static final String NAME = "de.tum.ei.lkn.eces.graph.GraphOperation";
+
+	/**
+	 * Default minimum duration of the recorded operations and phases.
+	 */
+	public static final String DEFAULT_THRESHOLD = "1 ms";
+
+	@Label("Graph Id")
+	long graphId;
+
+	@Label("Operation")
+	String operation;
+
+	@Label("Affected Components")
+	@Description("Number of Nodes and Edges created or deleted by the operation")
+	int affected;
+
+	@Label("Node Count")
+	@Description("Number of Nodes of the Graph at the end of the operation")
+	int nodeCount;
+
+	@Label("Edge Count")
+	@Description("Number of Edges of the Graph at the end of the operation")
+	int edgeCount;
+
+	@Label("Failed")
+	@Description("Whether the operation threw an exception")
+	boolean failed;
+
+	GraphOperationEvent(String operation) {
+		this.operation = operation;
+	}
+
+	@Override
+	public void finish(Graph graph, int affected, boolean failed) {
+		end();
+		if(shouldCommit()) {
+			this.graphId = graph.getId();
+			this.affected = affected;
+			this.failed = failed;
+			this.nodeCount = graph.getNodes().size();
+			this.edgeCount = graph.getEdges().size();
+			commit();
+		}
+	}
+}
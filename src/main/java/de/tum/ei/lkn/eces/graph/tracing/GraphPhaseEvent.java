@@ -0,0 +1,46 @@
+package de.tum.ei.lkn.eces.graph.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder event covering one phase (PhaseTrace.LOCK, UPDATE or
+ * COMMIT) of a GraphSystem operation, to tell where a stalled operation
+ * spends its time.
+ *
+ * @author Amaury Van Bemten
+ */
+@Name(GraphPhaseEvent.NAME)
+@Label("Graph Operation Phase")
+@Category({"ECES", "Graph"})
+@Description("Phase (lock, update or commit) of a GraphSystem operation")
+@StackTrace(false)
+@Threshold(GraphOperationEvent.DEFAULT_THRESHOLD)
+public final class GraphPhaseEvent extends jdk.jfr.Event implements PhaseTrace {
+	/**
+	 * Name of the event type in recordings.
+	 */
+	public static final String NAME = "de.tum.ei.lkn.eces.graph.GraphPhase";
+
+	@Label("Operation")
+	String operation;
+
+	@Label("Phase")
+	String phase;
+
+	GraphPhaseEvent(String operation, String phase) {
+		this.operation = operation;
+		this.phase = phase;
+	}
+
+	@Override
+	public void finish() {
+		end();
+		if(shouldCommit())
+			commit();
+	}
+}
@@ -0,0 +1,23 @@
+package de.tum.ei.lkn.eces.graph.tracing;
+
+/**
+ * Starts the traces of GraphSystem operations.
+ *
+ * @author Amaury Van Bemten
+ */
+interface GraphTracer {
+	/**
+	 * Starts timing an operation.
+	 * @param operation Operation name.
+	 * @return the started trace.
+	 */
+	OperationTrace beginOperation(String operation);
+
+	/**
+	 * Starts timing a phase of an operation.
+	 * @param operation Operation name.
+	 * @param phase PhaseTrace.LOCK, UPDATE or COMMIT.
+	 * @return the started trace.
+	 */
+	PhaseTrace beginPhase(String operation, String phase);
+}
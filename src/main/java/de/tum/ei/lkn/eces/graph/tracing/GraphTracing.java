@@ -0,0 +1,89 @@
+package de.tum.ei.lkn.eces.graph.tracing;
+
+import de.tum.ei.lkn.eces.graph.Graph;
+
+/**
+ * Entry point of the tracing of GraphSystem operations.
+ *
+ * The traces are Java Flight Recorder events (GraphOperationEvent and
+ * GraphPhaseEvent) when the jdk.jfr module is available (JDK 11+, 8u262+).
+ * Availability is probed once: on older runtimes, the traces are no-ops and
+ * the JFR classes are never loaded, so that the Graph classes do not depend
+ * on them.
+ *
+ * @author Amaury Van Bemten
+ */
+public final class GraphTracing {
+	/**
+	 * No-op tracer and traces, used without JFR and while the JFR events are
+	 * disabled.
+	 */
+	static final class NoOp implements GraphTracer, OperationTrace, PhaseTrace {
+		@Override
+		public OperationTrace beginOperation(String operation) {
+			return this;
+		}
+
+		@Override
+		public PhaseTrace beginPhase(String operation, String phase) {
+			return this;
+		}
+
+		@Override
+		public void finish(Graph graph, int affected, boolean failed) {
+		}
+
+		@Override
+		public void finish() {
+		}
+	}
+
+	/**
+	 * Shared no-op tracer and trace.
+	 */
+	static final NoOp NO_OP = new NoOp();
+
+	/**
+	 * Tracer chosen when the class is initialized.
+	 */
+	private static final GraphTracer TRACER = load();
+
+	private GraphTracing() {
+	}
+
+	private static GraphTracer load() {
+		try {
+			Class.forName("jdk.jfr.Event");
+			return (GraphTracer) Class.forName(GraphTracing.class.getPackage().getName() + ".JfrGraphTracer").getDeclaredConstructor().newInstance();
+		} catch(ReflectiveOperationException | LinkageError e) {
+			return NO_OP;
+		}
+	}
+
+	/**
+	 * Tells whether the traces are recorded as JFR events.
+	 * @return false if JFR is not available on this runtime.
+	 */
+	public static boolean isJfrAvailable() {
+		return !(TRACER instanceof NoOp);
+	}
+
+	/**
+	 * Starts timing an operation.
+	 * @param operation Operation name.
+	 * @return the started trace.
+	 */
+	public static OperationTrace beginOperation(String operation) {
+		return TRACER.beginOperation(operation);
+	}
+
+	/**
+	 * Starts timing a phase of an operation.
+	 * @param operation Operation name.
+	 * @param phase PhaseTrace.LOCK, UPDATE or COMMIT.
+	 * @return the started trace.
+	 */
+	public static PhaseTrace beginPhase(String operation, String phase) {
+		return TRACER.beginPhase(operation, phase);
+	}
+}
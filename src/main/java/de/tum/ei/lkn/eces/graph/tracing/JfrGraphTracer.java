@@ -0,0 +1,37 @@
+package de.tum.ei.lkn.eces.graph.tracing;
+
+/**
+ * Tracer emitting Java Flight Recorder events. Only loaded, by reflection,
+ * if the jdk.jfr module is available.
+ *
+ * Whether an event type is enabled is checked once per trace, on a probe
+ * instance: while it is disabled, the shared no-op trace is returned and no
+ * event is allocated.
+ *
+ * @author Amaury Van Bemten
+ */
+final class JfrGraphTracer implements GraphTracer {
+	/**
+	 * Instances only used to ask JFR whether their event type is enabled.
+	 */
+	private static final GraphOperationEvent OPERATION_PROBE = new GraphOperationEvent(null);
+	private static final GraphPhaseEvent PHASE_PROBE = new GraphPhaseEvent(null, null);
+
+	@Override
+	public OperationTrace beginOperation(String operation) {
+		if(!OPERATION_PROBE.isEnabled())
+			return GraphTracing.NO_OP;
+		GraphOperationEvent event = new GraphOperationEvent(operation);
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public PhaseTrace beginPhase(String operation, String phase) {
+		if(!PHASE_PROBE.isEnabled())
+			return GraphTracing.NO_OP;
+		GraphPhaseEvent event = new GraphPhaseEvent(operation, phase);
+		event.begin();
+		return event;
+	}
+}
@@ -0,0 +1,20 @@
+package de.tum.ei.lkn.eces.graph.tracing;
+
+import de.tum.ei.lkn.eces.graph.Graph;
+
+/**
+ * Trace of a GraphSystem operation, started by
+ * GraphTracing.beginOperation().
+ *
+ * @author Amaury Van Bemten
+ */
+public interface OperationTrace {
+	/**
+	 * Ends the operation and records it if the tracer wants it. Called in a
+	 * finally block, so that failed operations are recorded too.
+	 * @param graph Graph of the operation.
+	 * @param affected Number of Nodes and Edges created or deleted.
+	 * @param failed Whether the operation threw.
+	 */
+	void finish(Graph graph, int affected, boolean failed);
+}
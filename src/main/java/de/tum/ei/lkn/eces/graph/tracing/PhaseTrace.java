@@ -0,0 +1,31 @@
+package de.tum.ei.lkn.eces.graph.tracing;
+
+/**
+ * Trace of one phase of a GraphSystem operation, started by
+ * GraphTracing.beginPhase().
+ *
+ * @author Amaury Van Bemten
+ */
+public interface PhaseTrace {
+	/**
+	 * Acquisition of Component read locks.
+	 */
+	String LOCK = "LOCK";
+
+	/**
+	 * Component attachments, detachments and updates, which wait for the
+	 * Component write locks.
+	 */
+	String UPDATE = "UPDATE";
+
+	/**
+	 * Closing of the MapperSpace, which applies the updates and dispatches
+	 * the events to the listening systems.
+	 */
+	String COMMIT = "COMMIT";
+
+	/**
+	 * Ends the phase and records it if the tracer wants it.
+	 */
+	void finish();
+}
@@ -0,0 +1,370 @@
+package de.tum.ei.lkn.eces.graph.view;
+
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable compressed sparse row (CSR) snapshot of a Graph.
+ *
+ * Nodes and Edges are given dense indices (0..n-1 and 0..m-1) so that
+ * algorithms can work on primitive arrays instead of Components. Edges are
+ * numbered by source Node: the outgoing Edges of Node v are exactly the Edge
+ * indices outBegin(v) (inclusive) to outEnd(v) (exclusive). The incoming
+ * Edges of v are inEdge(k) for k from inBegin(v) to inEnd(v).
+ *
+ * The Node numbering can be chosen with a NodeOrdering to improve the
+ * memory locality of traversals. The permutation with respect to the
+ * iteration order of the Graph is kept so that results can be mapped back.
+ *
+ * The view is not updated when the Graph changes: it has to be rebuilt.
+ * It can be built while the Graph changes: the adjacency of each Node is
+ * copied at once, so that the view is always well formed, but it may then
+ * mix states of different Nodes.
+ *
+ * @author Amaury Van Bemten
+ */
+public final class CompactGraph {
+	/**
+	 * Graph from which the view was built.
+	 */
+	private final Graph graph;
+
+	/**
+	 * Node Components by dense index.
+	 */
+	private final Node[] nodes;
+
+	/**
+	 * Edge Components by dense index.
+	 */
+	private final Edge[] edges;
+
+	/**
+	 * Dense index of each Node.
+	 */
+	private final Map<Node, Integer> nodeIndices;
+
+	/**
+	 * Dense index of each Edge.
+	 */
+	private final Map<Edge, Integer> edgeIndices;
+
+	/**
+	 * Outgoing Edges of Node v are the Edge indices outOffsets[v] to
+	 * outOffsets[v + 1] - 1.
+	 */
+	private final int[] outOffsets;
+
+	/**
+	 * Incoming Edges of Node v are inEdges[inOffsets[v]] to
+	 * inEdges[inOffsets[v + 1] - 1].
+	 */
+	private final int[] inOffsets;
+
+	/**
+	 * Edge indices grouped by destination Node.
+	 */
+	private final int[] inEdges;
+
+	/**
+	 * Source Node index of each Edge.
+	 */
+	private final int[] sources;
+
+	/**
+	 * Destination Node index of each Edge.
+	 */
+	private final int[] targets;
+
+	/**
+	 * Ordering used to number the Nodes.
+	 */
+	private final NodeOrdering ordering;
+
+	/**
+	 * Index, in the iteration order of the Graph, of the Node with a given
+	 * index. Null for the identity.
+	 */
+	private final int[] permutation;
+
+	/**
+	 * Creates a view from already ordered Nodes.
+	 * @param graph Graph the Nodes belong to.
+	 * @param nodes Nodes of the Graph, in the order defining their index.
+	 * @param ordering Ordering that produced the Node order.
+	 * @param permutation Original index of every Node (null for identity).
+	 */
+	private CompactGraph(Graph graph, Node[] nodes, NodeOrdering ordering, int[] permutation) {
+		this.graph = graph;
+		this.nodes = nodes;
+		this.ordering = ordering;
+		this.permutation = permutation;
+		int n = nodes.length;
+
+		nodeIndices = new HashMap<>(n * 2);
+		for(int v = 0; v < n; v++)
+			nodeIndices.put(nodes[v], v);
+
+		// Each adjacency is read once, so that offsets and Edges agree.
+		Edge[][] adjacency = new Edge[n][];
+		outOffsets = new int[n + 1];
+		for(int v = 0; v < n; v++) {
+			adjacency[v] = nodes[v].copyOutgoingConnections();
+			outOffsets[v + 1] = outOffsets[v] + adjacency[v].length;
+		}
+		int m = outOffsets[n];
+
+		edges = new Edge[m];
+		edgeIndices = new HashMap<>(m * 2);
+		sources = new int[m];
+		targets = new int[m];
+		inOffsets = new int[n + 1];
+		for(int v = 0; v < n; v++) {
+			Edge[] outgoing = adjacency[v];
+			for(int i = 0; i < outgoing.length; i++) {
+				int e = outOffsets[v] + i;
+				Edge edge = outgoing[i];
+				Integer target = nodeIndices.get(edge.getDestination());
+				if(target == null)
+					throw new GraphException(edge + " points to a Node outside of " + graph);
+				edges[e] = edge;
+				edgeIndices.put(edge, e);
+				sources[e] = v;
+				targets[e] = target;
+				inOffsets[target + 1]++;
+			}
+		}
+
+		for(int v = 0; v < n; v++)
+			inOffsets[v + 1] += inOffsets[v];
+		inEdges = new int[m];
+		int[] fill = new int[n];
+		for(int e = 0; e < m; e++)
+			inEdges[inOffsets[targets[e]] + fill[targets[e]]++] = e;
+	}
+
+	/**
+	 * Builds a compact view of a Graph. Node indices follow the iteration
+	 * order of the Graph.
+	 * @param graph Graph to snapshot.
+	 * @return the compact view.
+	 */
+	public static CompactGraph of(Graph graph) {
+		while(true) {
+			long version = graph.getVersion();
+			try {
+				return new CompactGraph(graph, graph.getNodes().toArray(new Node[0]), NodeOrdering.INSERTION, null);
+			} catch(GraphException e) {
+				// An Edge to a Node created after the Nodes were listed: retry.
+				if(graph.getVersion() == version)
+					throw e;
+			}
+		}
+	}
+
+	/**
+	 * Builds a compact view of a Graph with a given Node numbering.
+	 * @param graph Graph to snapshot.
+	 * @param ordering Node numbering.
+	 * @return the compact view.
+	 */
+	public static CompactGraph of(Graph graph, NodeOrdering ordering) {
+		CompactGraph view = of(graph);
+		return ordering == NodeOrdering.INSERTION ? view : view.reorder(ordering);
+	}
+
+	/**
+	 * Builds a renumbered copy of the view. The permutation of the copy is
+	 * still expressed with respect to the iteration order of the Graph.
+	 * @param ordering Node numbering.
+	 * @return the reordered view.
+	 */
+	public CompactGraph reorder(NodeOrdering ordering) {
+		int[] order = ordering.order(this);
+		Node[] reordered = new Node[order.length];
+		int[] originalIndices = new int[order.length];
+		for(int v = 0; v < order.length; v++) {
+			reordered[v] = nodes[order[v]];
+			originalIndices[v] = getOriginalIndex(order[v]);
+		}
+		return new CompactGraph(graph, reordered, ordering, originalIndices);
+	}
+
+	/**
+	 * Gets the ordering used to number the Nodes.
+	 * @return the ordering.
+	 */
+	public NodeOrdering getOrdering() {
+		return ordering;
+	}
+
+	/**
+	 * Gets the index that a Node would have in the iteration order of the
+	 * Graph (i.e., in a view built with NodeOrdering.INSERTION).
+	 * @param v Node index in this view.
+	 * @return original index.
+	 */
+	public int getOriginalIndex(int v) {
+		return permutation == null ? v : permutation[v];
+	}
+
+	/**
+	 * Gets the whole permutation: entry v is the original index of the Node
+	 * with index v in this view.
+	 * @return a copy of the permutation.
+	 */
+	public int[] getPermutation() {
+		int[] result = new int[nodes.length];
+		for(int v = 0; v < result.length; v++)
+			result[v] = getOriginalIndex(v);
+		return result;
+	}
+
+	/**
+	 * Gets the Graph from which the view was built.
+	 * @return the Graph.
+	 */
+	public Graph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Gets the number of Nodes.
+	 * @return number of Nodes.
+	 */
+	public int nodeCount() {
+		return nodes.length;
+	}
+
+	/**
+	 * Gets the number of Edges.
+	 * @return number of Edges.
+	 */
+	public int edgeCount() {
+		return edges.length;
+	}
+
+	/**
+	 * Gets the Node with a given index.
+	 * @param v Node index.
+	 * @return the Node.
+	 */
+	public Node getNode(int v) {
+		return nodes[v];
+	}
+
+	/**
+	 * Gets the Edge with a given index.
+	 * @param e Edge index.
+	 * @return the Edge.
+	 */
+	public Edge getEdge(int e) {
+		return edges[e];
+	}
+
+	/**
+	 * Gets the index of a Node.
+	 * @param node Node.
+	 * @return its index, or -1 if the Node is not part of the view.
+	 */
+	public int indexOf(Node node) {
+		Integer index = nodeIndices.get(node);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Gets the index of an Edge.
+	 * @param edge Edge.
+	 * @return its index, or -1 if the Edge is not part of the view.
+	 */
+	public int indexOf(Edge edge) {
+		Integer index = edgeIndices.get(edge);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Gets the source Node index of an Edge.
+	 * @param e Edge index.
+	 * @return source Node index.
+	 */
+	public int source(int e) {
+		return sources[e];
+	}
+
+	/**
+	 * Gets the destination Node index of an Edge.
+	 * @param e Edge index.
+	 * @return destination Node index.
+	 */
+	public int target(int e) {
+		return targets[e];
+	}
+
+	/**
+	 * Gets the first outgoing Edge index of a Node.
+	 * @param v Node index.
+	 * @return first outgoing Edge index.
+	 */
+	public int outBegin(int v) {
+		return outOffsets[v];
+	}
+
+	/**
+	 * Gets the index following the last outgoing Edge of a Node.
+	 * @param v Node index.
+	 * @return end of the outgoing Edge range (exclusive).
+	 */
+	public int outEnd(int v) {
+		return outOffsets[v + 1];
+	}
+
+	/**
+	 * Gets the out-degree of a Node.
+	 * @param v Node index.
+	 * @return number of outgoing Edges.
+	 */
+	public int outDegree(int v) {
+		return outOffsets[v + 1] - outOffsets[v];
+	}
+
+	/**
+	 * Gets the start of the incoming Edge range of a Node.
+	 * @param v Node index.
+	 * @return first position to pass to inEdge().
+	 */
+	public int inBegin(int v) {
+		return inOffsets[v];
+	}
+
+	/**
+	 * Gets the end of the incoming Edge range of a Node.
+	 * @param v Node index.
+	 * @return end of the incoming range (exclusive).
+	 */
+	public int inEnd(int v) {
+		return inOffsets[v + 1];
+	}
+
+	/**
+	 * Gets the in-degree of a Node.
+	 * @param v Node index.
+	 * @return number of incoming Edges.
+	 */
+	public int inDegree(int v) {
+		return inOffsets[v + 1] - inOffsets[v];
+	}
+
+	/**
+	 * Gets an incoming Edge index.
+	 * @param k position between inBegin(v) and inEnd(v).
+	 * @return Edge index.
+	 */
+	public int inEdge(int k) {
+		return inEdges[k];
+	}
+}
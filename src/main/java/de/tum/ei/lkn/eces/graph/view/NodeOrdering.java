@@ -0,0 +1,294 @@
+package de.tum.ei.lkn.eces.graph.view;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Node numbering strategies for CompactGraphs.
+ *
+ * Traversal-heavy algorithms on a CompactGraph touch the arrays of
+ * neighbouring Nodes one after the other. Numbering neighbours close to
+ * each other keeps these accesses in the same cache lines. Edge directions
+ * are ignored by all the orderings.
+ *
+ * @author Amaury Van Bemten
+ */
+public enum NodeOrdering {
+	/**
+	 * Keeps the iteration order of the Graph (or of the view being
+	 * reordered).
+	 */
+	INSERTION,
+	/**
+	 * Breadth-first order, restarting from the first unvisited Node for
+	 * each connected component.
+	 */
+	BREADTH_FIRST,
+	/**
+	 * Reverse Cuthill-McKee: breadth-first from a minimum degree Node,
+	 * visiting neighbours by increasing degree, then reversed. Minimizes
+	 * the bandwidth of the adjacency matrix.
+	 */
+	REVERSE_CUTHILL_MCKEE,
+	/**
+	 * Decreasing degree, so that hubs share the first cache lines.
+	 */
+	DEGREE,
+	/**
+	 * Simplified Rabbit order: Nodes are merged, by increasing degree, into
+	 * the neighbouring community with the best positive modularity gain, and
+	 * numbered by a depth-first traversal of the resulting merge tree, so
+	 * that communities get contiguous ranges.
+	 */
+	RABBIT;
+
+	/**
+	 * Computes the order of the Nodes of a compact Graph.
+	 * @param graph Compact Graph.
+	 * @return Node indices of the Graph, in the new order (i.e., the
+	 *         Node with new index i is order[i]).
+	 */
+	public int[] order(CompactGraph graph) {
+		switch(this) {
+			case BREADTH_FIRST:
+				return breadthFirst(graph);
+			case REVERSE_CUTHILL_MCKEE:
+				return reverseCuthillMcKee(graph);
+			case DEGREE:
+				return byDecreasingDegree(graph);
+			case RABBIT:
+				return rabbit(graph);
+			default:
+				int[] identity = new int[graph.nodeCount()];
+				for(int v = 0; v < identity.length; v++)
+					identity[v] = v;
+				return identity;
+		}
+	}
+
+	private static int degree(CompactGraph graph, int v) {
+		return graph.outDegree(v) + graph.inDegree(v);
+	}
+
+	private static int[] breadthFirst(CompactGraph graph) {
+		int n = graph.nodeCount();
+		int[] order = new int[n];
+		boolean[] visited = new boolean[n];
+		int tail = 0;
+		for(int root = 0; root < n; root++) {
+			if(visited[root])
+				continue;
+			visited[root] = true;
+			order[tail++] = root;
+			for(int head = tail - 1; head < tail; head++) {
+				int v = order[head];
+				for(int e = graph.outBegin(v); e < graph.outEnd(v); e++) {
+					int w = graph.target(e);
+					if(!visited[w]) {
+						visited[w] = true;
+						order[tail++] = w;
+					}
+				}
+				for(int i = graph.inBegin(v); i < graph.inEnd(v); i++) {
+					int w = graph.source(graph.inEdge(i));
+					if(!visited[w]) {
+						visited[w] = true;
+						order[tail++] = w;
+					}
+				}
+			}
+		}
+		return order;
+	}
+
+	private static int[] reverseCuthillMcKee(CompactGraph graph) {
+		int n = graph.nodeCount();
+		int[] byDegree = byIncreasingDegree(graph);
+		int[] order = new int[n];
+		boolean[] visited = new boolean[n];
+		int[] neighbours = new int[16];
+		int tail = 0;
+
+		for(int root : byDegree) {
+			if(visited[root])
+				continue;
+			visited[root] = true;
+			order[tail++] = root;
+			for(int head = tail - 1; head < tail; head++) {
+				int v = order[head];
+				int count = 0;
+				int needed = degree(graph, v);
+				if(needed > neighbours.length)
+					neighbours = new int[Math.max(needed, 2 * neighbours.length)];
+				for(int e = graph.outBegin(v); e < graph.outEnd(v); e++) {
+					int w = graph.target(e);
+					if(!visited[w]) {
+						visited[w] = true;
+						neighbours[count++] = w;
+					}
+				}
+				for(int i = graph.inBegin(v); i < graph.inEnd(v); i++) {
+					int w = graph.source(graph.inEdge(i));
+					if(!visited[w]) {
+						visited[w] = true;
+						neighbours[count++] = w;
+					}
+				}
+				// Insertion sort by degree: neighbourhoods are small.
+				for(int i = 1; i < count; i++) {
+					int w = neighbours[i];
+					int d = degree(graph, w);
+					int j = i - 1;
+					while(j >= 0 && degree(graph, neighbours[j]) > d) {
+						neighbours[j + 1] = neighbours[j];
+						j--;
+					}
+					neighbours[j + 1] = w;
+				}
+				System.arraycopy(neighbours, 0, order, tail, count);
+				tail += count;
+			}
+		}
+
+		for(int i = 0, j = n - 1; i < j; i++, j--) {
+			int tmp = order[i];
+			order[i] = order[j];
+			order[j] = tmp;
+		}
+		return order;
+	}
+
+	/**
+	 * Counting sort of the Nodes by increasing degree (stable).
+	 */
+	private static int[] byIncreasingDegree(CompactGraph graph) {
+		int n = graph.nodeCount();
+		int maxDegree = 0;
+		for(int v = 0; v < n; v++)
+			maxDegree = Math.max(maxDegree, degree(graph, v));
+		int[] start = new int[maxDegree + 2];
+		for(int v = 0; v < n; v++)
+			start[degree(graph, v) + 1]++;
+		for(int d = 0; d <= maxDegree; d++)
+			start[d + 1] += start[d];
+		int[] order = new int[n];
+		for(int v = 0; v < n; v++)
+			order[start[degree(graph, v)]++] = v;
+		return order;
+	}
+
+	private static int[] byDecreasingDegree(CompactGraph graph) {
+		int[] increasing = byIncreasingDegree(graph);
+		int n = increasing.length;
+		int[] order = new int[n];
+		// Reverse, keeping the original relative order among equal degrees.
+		int i = n;
+		int out = 0;
+		while(i > 0) {
+			int d = degree(graph, increasing[i - 1]);
+			int j = i;
+			while(j > 0 && degree(graph, increasing[j - 1]) == d)
+				j--;
+			for(int k = j; k < i; k++)
+				order[out++] = increasing[k];
+			i = j;
+		}
+		return order;
+	}
+
+	private static int[] rabbit(CompactGraph graph) {
+		int n = graph.nodeCount();
+		double totalDegree = 0;
+		double[] communityDegree = new double[n];
+		List<Map<Integer, Double>> weights = new ArrayList<>(n);
+		for(int v = 0; v < n; v++) {
+			Map<Integer, Double> adjacent = new HashMap<>();
+			for(int e = graph.outBegin(v); e < graph.outEnd(v); e++)
+				if(graph.target(e) != v)
+					adjacent.merge(graph.target(e), 1.0, Double::sum);
+			for(int i = graph.inBegin(v); i < graph.inEnd(v); i++)
+				if(graph.source(graph.inEdge(i)) != v)
+					adjacent.merge(graph.source(graph.inEdge(i)), 1.0, Double::sum);
+			weights.add(adjacent);
+			communityDegree[v] = degree(graph, v);
+			totalDegree += communityDegree[v];
+		}
+
+		int[] mergedInto = new int[n];
+		for(int v = 0; v < n; v++)
+			mergedInto[v] = v;
+		List<List<Integer>> children = new ArrayList<>(n);
+		for(int v = 0; v < n; v++)
+			children.add(null);
+
+		for(int u : byIncreasingDegree(graph)) {
+			// u is still a community root: only the processed Node is ever merged.
+			Map<Integer, Double> adjacent = new HashMap<>();
+			for(Map.Entry<Integer, Double> entry : weights.get(u).entrySet()) {
+				int community = find(mergedInto, entry.getKey());
+				if(community != u)
+					adjacent.merge(community, entry.getValue(), Double::sum);
+			}
+
+			int best = -1;
+			double bestGain = 0;
+			for(Map.Entry<Integer, Double> entry : adjacent.entrySet()) {
+				int v = entry.getKey();
+				double gain = entry.getValue() / totalDegree - communityDegree[u] * communityDegree[v] / (totalDegree * totalDegree);
+				if(gain > bestGain || (gain == bestGain && gain > 0 && v < best)) {
+					bestGain = gain;
+					best = v;
+				}
+			}
+
+			if(best < 0) {
+				weights.set(u, adjacent);
+				continue;
+			}
+			mergedInto[u] = best;
+			communityDegree[best] += communityDegree[u];
+			if(children.get(best) == null)
+				children.set(best, new ArrayList<>(2));
+			children.get(best).add(u);
+			Map<Integer, Double> target = weights.get(best);
+			for(Map.Entry<Integer, Double> entry : adjacent.entrySet())
+				if(entry.getKey() != best)
+					target.merge(entry.getKey(), entry.getValue(), Double::sum);
+			weights.set(u, null);
+		}
+
+		// Depth-first traversal of the merge tree from each top-level community.
+		int[] order = new int[n];
+		int tail = 0;
+		int[] stack = new int[n];
+		for(int root = 0; root < n; root++) {
+			if(mergedInto[root] != root)
+				continue;
+			int top = 0;
+			stack[top++] = root;
+			while(top > 0) {
+				int v = stack[--top];
+				order[tail++] = v;
+				List<Integer> merged = children.get(v);
+				if(merged != null)
+					for(int i = merged.size() - 1; i >= 0; i--)
+						stack[top++] = merged.get(i);
+			}
+		}
+		return order;
+	}
+
+	private static int find(int[] mergedInto, int v) {
+		int root = v;
+		while(mergedInto[root] != root)
+			root = mergedInto[root];
+		while(mergedInto[v] != root) {
+			int next = mergedInto[v];
+			mergedInto[v] = root;
+			v = next;
+		}
+		return root;
+	}
+}
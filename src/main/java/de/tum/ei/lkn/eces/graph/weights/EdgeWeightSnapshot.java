@@ -0,0 +1,99 @@
+package de.tum.ei.lkn.eces.graph.weights;
+
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+import de.tum.ei.lkn.eces.graph.view.CompactGraph;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Immutable copy of the EdgeWeights of a Graph taken at a single point in
+ * time. It can directly be used as cost function by the algorithms.
+ *
+ * @author Amaury Van Bemten
+ */
+public final class EdgeWeightSnapshot implements ToDoubleFunction<Edge> {
+	/**
+	 * Weighted Graph.
+	 */
+	private final Graph graph;
+
+	/**
+	 * Weights by slot.
+	 */
+	private final double[] weights;
+
+	/**
+	 * Slot of each Edge.
+	 */
+	private final Map<Edge, Integer> slots;
+
+	EdgeWeightSnapshot(Graph graph, double[] weights, Edge[] edges) {
+		this.graph = graph;
+		this.weights = weights;
+		this.slots = new IdentityHashMap<>(edges.length);
+		for(int slot = 0; slot < edges.length; slot++)
+			if(edges[slot] != null)
+				slots.put(edges[slot], slot);
+	}
+
+	/**
+	 * Gets the weighted Graph.
+	 * @return the Graph.
+	 */
+	public Graph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Gets the number of Edges in the snapshot.
+	 * @return the number of Edges.
+	 */
+	public int size() {
+		return slots.size();
+	}
+
+	/**
+	 * Tells whether an Edge had a weight when the snapshot was taken.
+	 * @param edge Edge.
+	 * @return true if the Edge is in the snapshot.
+	 */
+	public boolean contains(Edge edge) {
+		return slots.containsKey(edge);
+	}
+
+	/**
+	 * Gets the weight of an Edge.
+	 * @param edge Edge.
+	 * @return the weight.
+	 * @throws GraphException if the Edge is not in the snapshot.
+	 */
+	public double get(Edge edge) {
+		Integer slot = slots.get(edge);
+		if(slot == null)
+			throw new GraphException(edge + " is not in the weight snapshot of " + graph);
+		return weights[slot];
+	}
+
+	@Override
+	public double applyAsDouble(Edge edge) {
+		return get(edge);
+	}
+
+	/**
+	 * Gets the weights by Edge index of a compact view of the Graph.
+	 * @param compact Compact Graph.
+	 * @return the weights (NaN for Edges not in the snapshot).
+	 */
+	public double[] toArray(CompactGraph compact) {
+		double[] result = new double[compact.edgeCount()];
+		for(int e = 0; e < result.length; e++) {
+			Integer slot = slots.get(compact.getEdge(e));
+			result[e] = slot == null ? Double.NaN : weights[slot];
+		}
+		return result;
+	}
+}
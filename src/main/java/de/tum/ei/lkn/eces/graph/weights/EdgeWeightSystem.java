@@ -0,0 +1,96 @@
+package de.tum.ei.lkn.eces.graph.weights;
+
+import de.tum.ei.lkn.eces.core.ComponentStatus;
+import de.tum.ei.lkn.eces.core.Controller;
+import de.tum.ei.lkn.eces.core.RootSystem;
+import de.tum.ei.lkn.eces.core.annotations.ComponentStateIs;
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * System maintaining per-Graph EdgeWeights.
+ *
+ * Weights registered with track() listen to the Edge events of the
+ * GraphSystem: created Edges get a slot with the default weight and the
+ * slots of deleted Edges are recycled. Edges that the weights see before
+ * their creation event (e.g., while the Graph starts being tracked) get
+ * their slot on first access.
+ *
+ * @author Amaury Van Bemten
+ */
+public class EdgeWeightSystem extends RootSystem {
+	/**
+	 * Weights of each tracked Graph.
+	 */
+	private final Map<Graph, EdgeWeights> weights = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new EdgeWeightSystem.
+	 * @param controller Controller responsible for the system.
+	 */
+	public EdgeWeightSystem(Controller controller) {
+		super(controller);
+	}
+
+	/**
+	 * Starts maintaining weights for the Edges of a Graph. The Edges already
+	 * in the Graph get the default weight.
+	 * @param graph Graph.
+	 * @param defaultWeight Weight of new Edges.
+	 * @return the weights of the Graph (the existing ones if the Graph is
+	 *         already tracked).
+	 */
+	public EdgeWeights track(Graph graph, double defaultWeight) {
+		EdgeWeights graphWeights = new EdgeWeights(graph, defaultWeight);
+		EdgeWeights existing = weights.putIfAbsent(graph, graphWeights);
+		if(existing != null)
+			return existing;
+
+		// Registered before the scan, so that the Edges created meanwhile get
+		// a slot from the listener (allocation is idempotent) and the ones
+		// deleted meanwhile are skipped.
+		for(Edge edge : graph.getEdges())
+			graphWeights.allocate(edge);
+		logger.info("Edge weights of " + graph + " tracked.");
+		return graphWeights;
+	}
+
+	/**
+	 * Gets the weights of a Graph.
+	 * @param graph Graph.
+	 * @return the weights, null if the Graph is not tracked.
+	 */
+	public EdgeWeights getWeights(Graph graph) {
+		return weights.get(graph);
+	}
+
+	/**
+	 * Stops maintaining the weights of a Graph.
+	 * @param graph Graph.
+	 */
+	public void untrack(Graph graph) {
+		weights.remove(graph);
+	}
+
+	@ComponentStateIs(State = ComponentStatus.New)
+	public void edgeCreated(Edge edge) {
+		EdgeWeights graphWeights = weights.get(edge.getSource().getGraph());
+		if(graphWeights != null)
+			graphWeights.allocate(edge);
+	}
+
+	@ComponentStateIs(State = ComponentStatus.Destroyed)
+	public void edgeDeleted(Edge edge) {
+		EdgeWeights graphWeights = weights.get(edge.getSource().getGraph());
+		if(graphWeights != null)
+			graphWeights.release(edge);
+	}
+
+	@ComponentStateIs(State = ComponentStatus.Destroyed)
+	public void graphDeleted(Graph graph) {
+		untrack(graph);
+	}
+}
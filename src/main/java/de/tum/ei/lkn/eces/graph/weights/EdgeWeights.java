@@ -0,0 +1,344 @@
+package de.tum.ei.lkn.eces.graph.weights;
+
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mutable weight of every Edge of a Graph, updated without going through
+ * Component updates.
+ *
+ * Each Edge gets a dense slot in an array of atomically updated doubles
+ * (stored as their long bits, Java 8 having no VarHandle). The array is
+ * published through a volatile reference: reads and writes are lock-free,
+ * writes being plain compare-and-set operations on their slot. The array
+ * is only replaced, under the monitor of the instance, to grow it or to
+ * recycle slots: every slot of the old array is then frozen, so that
+ * writes racing with the copy retry on the new array.
+ *
+ * The slot of a deleted Edge is only reused in the next array: a write that
+ * resolved the slot before the deletion can only land in the old array, and
+ * never in the weight of the Edge getting the slot. Slots of deleted Edges
+ * are released by the EdgeWeightSystem.
+ *
+ * @author Amaury Van Bemten
+ */
+public final class EdgeWeights {
+	/**
+	 * Marks the slots of a replaced array. A NaN that
+	 * Double.doubleToLongBits() never returns, so no weight has these bits.
+	 */
+	private static final long FROZEN = 0x7ff0deadbeef0001L;
+
+	/**
+	 * Graph whose Edges are weighted.
+	 */
+	private final Graph graph;
+
+	/**
+	 * Weight given to new Edges.
+	 */
+	private final double defaultWeight;
+
+	/**
+	 * Weights by slot, as double bits.
+	 */
+	private volatile AtomicLongArray weights;
+
+	/**
+	 * Edge in each slot, null for free slots. Only changed under the
+	 * monitor.
+	 */
+	private Edge[] edges;
+
+	/**
+	 * Slot of each Edge.
+	 */
+	private final ConcurrentHashMap<Edge, Integer> slots = new ConcurrentHashMap<>();
+
+	/**
+	 * Slots reusable in the current array, used as a stack. Only changed
+	 * under the monitor.
+	 */
+	private int[] freeSlots = new int[0];
+
+	/**
+	 * Number of free slots.
+	 */
+	private int freeCount;
+
+	/**
+	 * Slots released since the array was last replaced, reusable in the
+	 * next one. Only changed under the monitor.
+	 */
+	private int[] releasedSlots = new int[0];
+
+	/**
+	 * Number of released slots.
+	 */
+	private int releasedCount;
+
+	/**
+	 * Number of slots ever used in the current array (free and released
+	 * ones included).
+	 */
+	private int slotCount;
+
+	/**
+	 * Number of weight writes started and finished, compared by snapshots
+	 * to detect writes overlapping the copy. Striped, so that concurrent
+	 * writers do not contend on one counter.
+	 */
+	private final LongAdder startedWrites = new LongAdder();
+	private final LongAdder finishedWrites = new LongAdder();
+
+	EdgeWeights(Graph graph, double defaultWeight) {
+		this.graph = graph;
+		this.defaultWeight = defaultWeight;
+		int capacity = Math.max(16, graph.getEdges().size());
+		this.weights = new AtomicLongArray(capacity);
+		this.edges = new Edge[capacity];
+	}
+
+	/**
+	 * Gets the weighted Graph.
+	 * @return the Graph.
+	 */
+	public Graph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Gets the weight given to new Edges.
+	 * @return the default weight.
+	 */
+	public double getDefaultWeight() {
+		return defaultWeight;
+	}
+
+	/**
+	 * Gets the number of weighted Edges.
+	 * @return the number of Edges.
+	 */
+	public int size() {
+		return slots.size();
+	}
+
+	/**
+	 * Gets the slot of an Edge. Hot paths can resolve the slot once and then
+	 * use the slot-based accessors, as long as the Edge is not deleted (its
+	 * slot is then recycled for another Edge). An Edge of the Graph that has
+	 * no slot yet, because it was created while the Graph started being
+	 * tracked, gets one.
+	 * @param edge Edge.
+	 * @return the slot.
+	 * @throws GraphException if the Edge is not in the Graph.
+	 */
+	public int slotOf(Edge edge) {
+		Integer slot = slots.get(edge);
+		if(slot == null) {
+			allocate(edge);
+			slot = slots.get(edge);
+			if(slot == null)
+				throw new GraphException(edge + " has no weight in " + graph);
+		}
+		return slot;
+	}
+
+	/**
+	 * Gets the slot of an Edge without allocating one.
+	 * @param edge Edge.
+	 * @return the slot.
+	 * @throws GraphException if the Edge has no slot.
+	 */
+	private int existingSlotOf(Edge edge) {
+		Integer slot = slots.get(edge);
+		if(slot == null)
+			throw new GraphException(edge + " has no weight in " + graph);
+		return slot;
+	}
+
+	/**
+	 * Tells whether an Edge has a weight here.
+	 * @param edge Edge.
+	 * @return true if the Edge has a slot.
+	 */
+	public boolean contains(Edge edge) {
+		return slots.containsKey(edge);
+	}
+
+	/**
+	 * Gets the weight of an Edge.
+	 * @param edge Edge.
+	 * @return the weight.
+	 */
+	public double get(Edge edge) {
+		return get(slotOf(edge));
+	}
+
+	/**
+	 * Gets the weight in a slot.
+	 * @param slot Slot.
+	 * @return the weight.
+	 */
+	public double get(int slot) {
+		while(true) {
+			long bits = weights.get(slot);
+			if(bits != FROZEN)
+				return Double.longBitsToDouble(bits);
+		}
+	}
+
+	/**
+	 * Sets the weight of an Edge.
+	 * @param edge Edge.
+	 * @param weight New weight.
+	 */
+	public void set(Edge edge, double weight) {
+		update(edge, -1, weight, false);
+	}
+
+	/**
+	 * Sets the weight in a slot.
+	 * @param slot Slot.
+	 * @param weight New weight.
+	 */
+	public void set(int slot, double weight) {
+		update(null, slot, weight, false);
+	}
+
+	/**
+	 * Atomically adds to the weight of an Edge.
+	 * @param edge Edge.
+	 * @param delta Value to add.
+	 * @return the new weight.
+	 */
+	public double add(Edge edge, double delta) {
+		return update(edge, -1, delta, true);
+	}
+
+	/**
+	 * Atomically adds to the weight in a slot.
+	 * @param slot Slot.
+	 * @param delta Value to add.
+	 * @return the new weight.
+	 */
+	public double add(int slot, double delta) {
+		return update(null, slot, delta, true);
+	}
+
+	/**
+	 * Compare-and-set loop writing a slot of the current array. The array is
+	 * read before the slot of the Edge is resolved, so that the slot cannot
+	 * have been given to another Edge in that array.
+	 * @param edge Edge whose slot is written, null to use the given slot.
+	 * @param slot Slot, if no Edge is given.
+	 * @param value New weight, or value to add.
+	 * @param add Whether the value is added.
+	 * @return the new weight.
+	 */
+	private double update(Edge edge, int slot, double value, boolean add) {
+		// A missing slot is allocated before the write is counted: snapshots
+		// wait for counted writes while holding the monitor.
+		if(edge != null)
+			slotOf(edge);
+		startedWrites.increment();
+		try {
+			while(true) {
+				AtomicLongArray current = weights;
+				int target = edge == null ? slot : existingSlotOf(edge);
+				long bits = current.get(target);
+				if(bits == FROZEN)
+					continue;
+				double updated = add ? Double.longBitsToDouble(bits) + value : value;
+				if(current.compareAndSet(target, bits, Double.doubleToLongBits(updated)))
+					return updated;
+			}
+		} finally {
+			finishedWrites.increment();
+		}
+	}
+
+	/**
+	 * Copies all the weights at a single point in time: no write is
+	 * half-visible in the snapshot. Writers are not blocked: the copy is
+	 * made again as long as writes overlap it.
+	 * @return the snapshot.
+	 */
+	public synchronized EdgeWeightSnapshot snapshot() {
+		// The array and the slots do not change while the monitor is held.
+		AtomicLongArray current = weights;
+		double[] values = new double[slotCount];
+		while(true) {
+			long finished = finishedWrites.sum();
+			for(int slot = 0; slot < slotCount; slot++)
+				values[slot] = Double.longBitsToDouble(current.get(slot));
+			if(startedWrites.sum() == finished)
+				return new EdgeWeightSnapshot(graph, values, Arrays.copyOf(edges, slotCount));
+			Thread.yield();
+		}
+	}
+
+	/**
+	 * Gives a slot, with the default weight, to an Edge of the Graph.
+	 * Nothing is done if the Edge already has a slot or is not in the
+	 * Graph (anymore).
+	 * @param edge Edge.
+	 */
+	synchronized void allocate(Edge edge) {
+		if(slots.containsKey(edge) || !graph.getEdges().contains(edge))
+			return;
+		if(freeCount == 0 && slotCount == edges.length)
+			replace();
+		int slot = freeCount > 0 ? freeSlots[--freeCount] : slotCount++;
+		weights.set(slot, Double.doubleToLongBits(defaultWeight));
+		edges[slot] = edge;
+		slots.put(edge, slot);
+	}
+
+	/**
+	 * Replaces the full array by a copy, twice as large unless half of it
+	 * can be reused. The slots released so far become free in the copy.
+	 */
+	private void replace() {
+		int capacity = releasedCount >= edges.length / 2 ? edges.length : edges.length * 2;
+		AtomicLongArray old = weights;
+		AtomicLongArray renewed = new AtomicLongArray(capacity);
+		for(int slot = 0; slot < slotCount; slot++)
+			renewed.set(slot, old.getAndSet(slot, FROZEN));
+		weights = renewed;
+		edges = Arrays.copyOf(edges, capacity);
+
+		freeSlots = releasedSlots;
+		freeCount = releasedCount;
+		releasedSlots = new int[0];
+		releasedCount = 0;
+	}
+
+	/**
+	 * Frees the slot of an Edge for reuse in the next array.
+	 * @param edge Edge.
+	 */
+	synchronized void release(Edge edge) {
+		Integer slot = slots.remove(edge);
+		if(slot == null)
+			return;
+		edges[slot] = null;
+		if(releasedCount == releasedSlots.length)
+			releasedSlots = Arrays.copyOf(releasedSlots, Math.max(16, releasedCount * 2));
+		releasedSlots[releasedCount++] = slot;
+	}
+
+	/**
+	 * Gets the number of slots used in the current array, for the tests.
+	 * @return the number of slots ever used in the current array.
+	 */
+	synchronized int slotCount() {
+		return slotCount;
+	}
+}
@@ -0,0 +1,248 @@
+package de.tum.ei.lkn.eces.graph;
+
+import de.tum.ei.lkn.eces.core.Controller;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+import de.tum.ei.lkn.eces.graph.mappers.GraphMapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for de.tum.ei.lkn.eces.graph.AsyncGraphSystem.java.
+ *
+ * @author Amaury Van Bemten
+ */
+public class AsyncGraphSystemTest {
+	private Controller controller;
+	private GraphSystem graphSystem;
+	private AsyncGraphSystem asyncGraphSystem;
+
+	@Before
+	public void setup() {
+		controller = new Controller();
+		graphSystem = new GraphSystem(controller);
+		asyncGraphSystem = new AsyncGraphSystem(controller, graphSystem);
+	}
+
+	@After
+	public void tearDown() {
+		asyncGraphSystem.close();
+	}
+
+	@Test(timeout = 20000)
+	public final void testConcurrentSubmissions() throws Exception {
+		Graph graph = graphSystem.createGraph();
+		Node hub = asyncGraphSystem.createNodeAsync(graph, "hub").get();
+
+		int writers = 8;
+		int edgesPerWriter = 500;
+		List<CompletableFuture<Edge>> futures = Collections.synchronizedList(new ArrayList<>());
+		List<Thread> threads = new ArrayList<>();
+		for(int w = 0; w < writers; w++) {
+			Node node = asyncGraphSystem.createNodeAsync(graph).get();
+			threads.add(new Thread(() -> {
+				for(int i = 0; i < edgesPerWriter; i++)
+					futures.add(asyncGraphSystem.createEdgeAsync(node, hub));
+			}));
+		}
+
+		// The writer is held until all the Edges are queued, so that they have to be batched.
+		long batchesBefore = asyncGraphSystem.getBatchCount();
+		CountDownLatch queued = new CountDownLatch(1);
+		CompletableFuture<Void> blocker = asyncGraphSystem.submit(system -> {
+			try {
+				queued.await();
+			} catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return null;
+		});
+		for(Thread thread : threads)
+			thread.start();
+		for(Thread thread : threads)
+			thread.join();
+		queued.countDown();
+		blocker.get();
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+
+		assertEquals(writers * edgesPerWriter, graph.getEdges().size());
+		assertEquals(writers * edgesPerWriter, hub.getInDegree());
+		for(CompletableFuture<Edge> future : futures)
+			assertSame(hub, future.get().getDestination());
+		assertEquals(2 + writers + writers * edgesPerWriter, asyncGraphSystem.getOperationCount());
+		int maxBatches = 1 + (writers * edgesPerWriter + AsyncGraphSystem.DEFAULT_MAX_BATCH_SIZE - 1) / AsyncGraphSystem.DEFAULT_MAX_BATCH_SIZE;
+		assertTrue("Queued operations should be batched", asyncGraphSystem.getBatchCount() - batchesBefore <= maxBatches);
+
+		// Deletions.
+		List<CompletableFuture<Void>> deletions = new ArrayList<>();
+		for(CompletableFuture<Edge> future : futures)
+			deletions.add(asyncGraphSystem.deleteEdgeAsync(future.get()));
+		CompletableFuture.allOf(deletions.toArray(new CompletableFuture[0])).get();
+		assertTrue(graph.getEdges().isEmpty());
+		assertEquals(0, hub.getInDegree());
+	}
+
+	@Test(timeout = 20000)
+	public final void testSubmissionsRacingWithClose() throws Exception {
+		Graph graph = graphSystem.createGraph();
+		List<CompletableFuture<Node>> futures = Collections.synchronizedList(new ArrayList<>());
+		List<Thread> threads = new ArrayList<>();
+		for(int t = 0; t < 4; t++) {
+			threads.add(new Thread(() -> {
+				for(int i = 0; i < 2000; i++)
+					futures.add(asyncGraphSystem.createNodeAsync(graph));
+			}));
+		}
+		for(Thread thread : threads)
+			thread.start();
+		asyncGraphSystem.close();
+		for(Thread thread : threads)
+			thread.join();
+
+		// Every future completes, either with its Node or with a failure.
+		int created = 0;
+		for(CompletableFuture<Node> future : futures) {
+			try {
+				future.get();
+				created++;
+			} catch(ExecutionException e) {
+				assertTrue(e.getCause() instanceof GraphException);
+			}
+		}
+		assertEquals(created, graph.getNodes().size());
+	}
+
+	@Test(timeout = 20000)
+	public final void testFailuresAreIndividual() throws Exception {
+		Graph a = graphSystem.createGraph();
+		Graph b = graphSystem.createGraph();
+		Node a1 = graphSystem.createNode(a);
+		Node a2 = graphSystem.createNode(a);
+		Node b1 = graphSystem.createNode(b);
+
+		CompletableFuture<Edge> good = asyncGraphSystem.createEdgeAsync(a1, a2, "good");
+		CompletableFuture<Edge> bad = asyncGraphSystem.createEdgeAsync(a1, b1);
+		CompletableFuture<Edge> other = asyncGraphSystem.createEdgeAsync(a2, a1);
+
+		assertEquals("good", good.get().getName());
+		assertNotNull(other.get());
+		try {
+			bad.get();
+			fail("An Edge between two Graphs should not be created");
+		} catch(ExecutionException e) {
+			assertTrue(e.getCause() instanceof GraphException);
+		}
+		assertEquals(2, a.getEdges().size());
+		assertEquals(1, a1.getOutDegree());
+	}
+
+	@Test(timeout = 20000)
+	public final void testClose() throws Exception {
+		Graph graph = graphSystem.createGraph();
+		CompletableFuture<Node> before = asyncGraphSystem.createNodeAsync(graph);
+		asyncGraphSystem.close();
+		assertNotNull(before.get());
+
+		CompletableFuture<Node> after = asyncGraphSystem.createNodeAsync(graph);
+		assertTrue(after.isCompletedExceptionally());
+		assertEquals(1, graph.getNodes().size());
+	}
+
+	@Test(timeout = 20000)
+	public final void testCallbacksOffWriterThread() throws Exception {
+		Graph graph = graphSystem.createGraph();
+
+		// The callback is chained before the Node is created, and waits for a later operation.
+		CountDownLatch chained = new CountDownLatch(1);
+		asyncGraphSystem.submit(system -> {
+			try {
+				chained.await();
+			} catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return null;
+		});
+		CompletableFuture<Node> first = asyncGraphSystem.createNodeAsync(graph, "first");
+		AtomicReference<Thread> callbackThread = new AtomicReference<>();
+		CompletableFuture<Node> second = first.thenApply(node -> {
+			callbackThread.set(Thread.currentThread());
+			return asyncGraphSystem.createNodeAsync(graph, "second").join();
+		});
+		chained.countDown();
+
+		assertEquals("second", second.get().getName());
+		assertNotEquals("async-graph-writer", callbackThread.get().getName());
+	}
+
+	@Test(timeout = 20000)
+	public final void testErrorsAreIndividual() throws Exception {
+		Graph graph = graphSystem.createGraph();
+		CompletableFuture<Node> before = asyncGraphSystem.createNodeAsync(graph);
+		CompletableFuture<Void> error = asyncGraphSystem.submit(system -> {
+			throw new AssertionError("failing operation");
+		});
+		CompletableFuture<Node> after = asyncGraphSystem.createNodeAsync(graph);
+
+		assertNotNull(before.get());
+		assertNotNull(after.get());
+		try {
+			error.get();
+			fail("The operation should fail");
+		} catch(ExecutionException e) {
+			assertTrue(e.getCause() instanceof AssertionError);
+		}
+		assertNotNull(asyncGraphSystem.createNodeAsync(graph).get());
+		assertEquals(3, graph.getNodes().size());
+	}
+
+	@Test(timeout = 20000)
+	public final void testWriterStoppedByError() throws Exception {
+		Graph graph = graphSystem.createGraph();
+		GraphMapper graphMapper = new GraphMapper(controller);
+
+		// The writer is held until the operations behind the failing commit are queued.
+		CountDownLatch queued = new CountDownLatch(1);
+		CompletableFuture<Void> failing = asyncGraphSystem.submit(system -> {
+			try {
+				queued.await();
+			} catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			graphMapper.updateComponent(graph, ()->{
+				throw new AssertionError("failing commit");
+			});
+			return null;
+		});
+		List<CompletableFuture<Node>> behind = new ArrayList<>();
+		for(int i = 0; i < 2 * AsyncGraphSystem.DEFAULT_MAX_BATCH_SIZE; i++)
+			behind.add(asyncGraphSystem.createNodeAsync(graph));
+		queued.countDown();
+
+		try {
+			failing.get();
+			fail("The commit should fail");
+		} catch(ExecutionException e) {
+			assertTrue(e.getCause() instanceof AssertionError);
+		}
+		// Every future completes, the ones of the next batches with a failure.
+		for(CompletableFuture<Node> future : behind) {
+			try {
+				future.get();
+				fail("The operation should fail with its batch or after the writer stopped");
+			} catch(ExecutionException e) {
+				assertTrue(e.getCause() instanceof AssertionError || e.getCause() instanceof GraphException);
+			}
+		}
+		assertTrue(asyncGraphSystem.createNodeAsync(graph).isCompletedExceptionally());
+	}
+}
@@ -0,0 +1,219 @@
+package de.tum.ei.lkn.eces.graph;
+
+import de.tum.ei.lkn.eces.core.Controller;
+import de.tum.ei.lkn.eces.graph.algorithms.TopologicalSort;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+import de.tum.ei.lkn.eces.graph.view.CompactGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the concurrent mode of de.tum.ei.lkn.eces.graph.Graph.java.
+ *
+ * @author Amaury Van Bemten
+ */
+public class ConcurrentGraphTest {
+	private GraphSystem graphSystem;
+
+	@Before
+	public void setup() {
+		graphSystem = new GraphSystem(new Controller());
+	}
+
+	@Test
+	public final void testModeSwitchKeepsOrder() {
+		Graph g = graphSystem.createGraph();
+		Node a = graphSystem.createNode(g);
+		Node b = graphSystem.createNode(g);
+		Edge ab = graphSystem.createEdge(a, b);
+
+		graphSystem.setConcurrent(g, true);
+		assertTrue(g.isConcurrent());
+		Node c = graphSystem.createNode(g);
+		Edge bc = graphSystem.createEdge(b, c);
+		List<Node> nodes = new ArrayList<>(g.getNodes());
+		assertEquals(3, nodes.size());
+		assertSame(a, nodes.get(0));
+		assertSame(c, nodes.get(2));
+
+		graphSystem.deleteEdge(ab);
+		graphSystem.setConcurrent(g, false);
+		assertFalse(g.isConcurrent());
+		assertEquals(1, g.getEdges().size());
+		assertSame(bc, g.getEdges().iterator().next());
+		assertEquals(0, a.getOutDegree());
+		assertEquals(1, b.getOutDegree());
+	}
+
+	@Test(timeout = 20000)
+	public final void testConcurrentEdgeCreation() throws Exception {
+		int threads = 4;
+		int nodesPerThread = 50;
+		int edgesPerThread = 2000;
+
+		Graph g = graphSystem.createGraph();
+		graphSystem.setConcurrent(g, true);
+		Node hub = graphSystem.createNode(g);
+		long version = g.getVersion();
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<Node[]>> futures = new ArrayList<>();
+		for(int t = 0; t < threads; t++) {
+			futures.add(executor.submit(() -> {
+				Node[] nodes = new Node[nodesPerThread];
+				for(int i = 0; i < nodes.length; i++)
+					nodes[i] = graphSystem.createNode(g);
+				for(int i = 0; i < edgesPerThread; i++)
+					graphSystem.createEdge(nodes[i % nodes.length], nodes[(i * 7 + 1) % nodes.length]);
+				// Adjacency of a shared Node must stay consistent too.
+				for(int i = 0; i < nodes.length; i++)
+					graphSystem.createEdge(nodes[i], hub);
+				return nodes;
+			}));
+		}
+		executor.shutdown();
+		// The version only moves forward while the Graph changes.
+		long lastVersion = version;
+		while(!executor.awaitTermination(1, TimeUnit.MILLISECONDS)) {
+			long current = g.getVersion();
+			assertTrue("The version went backwards", current >= lastVersion);
+			lastVersion = current;
+		}
+
+		int perThread = edgesPerThread + nodesPerThread;
+		assertEquals(1 + threads * nodesPerThread, g.getNodes().size());
+		assertEquals(threads * perThread, g.getEdges().size());
+		// Every Node and Edge creation bumps the version at least once.
+		assertTrue(g.getVersion() >= lastVersion);
+		assertTrue(g.getVersion() >= version + threads * (nodesPerThread + perThread));
+		assertEquals(threads * nodesPerThread, hub.getInDegree());
+
+		int outDegrees = 0;
+		for(Future<Node[]> future : futures)
+			for(Node node : future.get())
+				outDegrees += node.getOutDegree();
+		assertEquals(threads * perThread, outDegrees);
+
+		// Concurrent deletions of disjoint Nodes.
+		ExecutorService deleter = Executors.newFixedThreadPool(threads);
+		List<Future<?>> deletions = new ArrayList<>();
+		for(Future<Node[]> future : futures) {
+			Node[] nodes = future.get();
+			deletions.add(deleter.submit(() -> {
+				for(Node node : nodes)
+					graphSystem.deleteNode(node);
+			}));
+		}
+		deleter.shutdown();
+		assertTrue(deleter.awaitTermination(20, TimeUnit.SECONDS));
+		for(Future<?> deletion : deletions)
+			deletion.get();
+		assertEquals(1, g.getNodes().size());
+		assertTrue(g.getEdges().isEmpty());
+		assertEquals(0, hub.getInDegree());
+	}
+
+	@Test(timeout = 20000)
+	public final void testConcurrentAcyclicCreation() throws Exception {
+		int pairs = 2000;
+		Graph g = graphSystem.createGraph();
+		graphSystem.setAcyclic(g, true);
+		graphSystem.setConcurrent(g, true);
+		Node[] a = graphSystem.createNodes(g, new String[pairs]);
+		Node[] b = graphSystem.createNodes(g, new String[pairs]);
+
+		// One thread creates a->b, the other one b->a, for every pair.
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		List<Future<Integer>> futures = new ArrayList<>();
+		for(boolean forward : new boolean[]{true, false}) {
+			futures.add(executor.submit(() -> {
+				int created = 0;
+				for(int i = 0; i < pairs; i++) {
+					try {
+						if(forward)
+							graphSystem.createEdge(a[i], b[i]);
+						else
+							graphSystem.createEdge(b[i], a[i]);
+						created++;
+					} catch(GraphException e) {
+						// The other direction won.
+					}
+				}
+				return created;
+			}));
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(20, TimeUnit.SECONDS));
+
+		assertEquals(pairs, futures.get(0).get() + futures.get(1).get());
+		assertEquals(pairs, g.getEdges().size());
+		for(int i = 0; i < pairs; i++)
+			assertEquals(1, a[i].getOutDegree() + b[i].getOutDegree());
+		assertFalse(TopologicalSort.hasCycle(g));
+	}
+
+	@Test(timeout = 20000)
+	public final void testModeSwitchUnderLoad() throws Exception {
+		int threads = 4;
+		int nodesPerThread = 2000;
+		Graph g = graphSystem.createGraph();
+		graphSystem.setConcurrent(g, true);
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<?>> futures = new ArrayList<>();
+		for(int t = 0; t < threads; t++) {
+			futures.add(executor.submit(() -> {
+				for(int i = 0; i < nodesPerThread; i++)
+					graphSystem.createNode(g);
+			}));
+		}
+		// No Node may be lost while the sets are copied.
+		for(int i = 0; i < 50; i++)
+			graphSystem.setConcurrent(g, i % 2 == 1);
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(20, TimeUnit.SECONDS));
+		for(Future<?> future : futures)
+			future.get();
+
+		assertEquals(threads * nodesPerThread, g.getNodes().size());
+	}
+
+	@Test(timeout = 20000)
+	public final void testViewDuringChanges() throws Exception {
+		Graph g = graphSystem.createGraph();
+		graphSystem.setConcurrent(g, true);
+		Node[] nodes = graphSystem.createNodes(g, new String[]{"a", "b", "c", "d"});
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		Future<?> churn = executor.submit(() -> {
+			for(int i = 0; i < 20000; i++) {
+				Edge edge = graphSystem.createEdge(nodes[i % 4], nodes[(i + 1) % 4]);
+				if(i % 3 != 0)
+					graphSystem.deleteEdge(edge);
+			}
+		});
+
+		// Views built meanwhile are always well formed.
+		while(!churn.isDone()) {
+			CompactGraph view = CompactGraph.of(g);
+			for(int v = 0; v < view.nodeCount(); v++) {
+				for(int e = view.outBegin(v); e < view.outEnd(v); e++) {
+					assertSame(view.getNode(v), view.getEdge(e).getSource());
+					assertSame(view.getEdge(e).getDestination(), view.getNode(view.target(e)));
+				}
+			}
+		}
+		churn.get();
+		executor.shutdown();
+		assertEquals(g.getEdges().size(), CompactGraph.of(g).edgeCount());
+	}
+}
@@ -0,0 +1,183 @@
+package de.tum.ei.lkn.eces.graph;
+
+import de.tum.ei.lkn.eces.core.Controller;
+import de.tum.ei.lkn.eces.core.MapperSpace;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Scaling suite for the GraphSystem: builds Graphs from 10^3 to 10^6 Edges
+ * and checks that creating, iterating, exporting and deleting them takes
+ * time and memory roughly linear in their size.
+ *
+ * Excluded from the default build; run with "mvn test -Pscalability". The
+ * largest size can be changed with -Dscalability.maxEdges and the
+ * measurements are written to scalability-report.csv in the directory given
+ * by -Dscalability.reportDirectory (default: target).
+ *
+ * @author Amaury Van Bemten
+ */
+public class GraphSystemScalabilityTest {
+	/**
+	 * Average Node degree of the generated Graphs.
+	 */
+	private static final int DEGREE = 4;
+
+	/**
+	 * Smallest size used as reference (smaller sizes are dominated by JIT
+	 * warm-up and constant costs).
+	 */
+	private static final int REFERENCE_EDGES = 10_000;
+
+	/**
+	 * Tolerated growth of the per-Edge time between the reference and the
+	 * largest size. A quadratic operation grows by 100 for 100 times more
+	 * Edges.
+	 */
+	private static final double TIME_SLACK = 8;
+
+	/**
+	 * Tolerated growth of the per-Edge memory between the reference and the
+	 * largest size.
+	 */
+	private static final double MEMORY_SLACK = 2;
+
+	private static final String[] OPERATIONS = {"create", "iterate", "export", "delete"};
+
+	/**
+	 * Measurement of all operations for one size.
+	 */
+	private static final class Measurement {
+		private final int edges;
+		private final Map<String, Long> nanos = new LinkedHashMap<>();
+		private long retainedBytes;
+
+		private Measurement(int edges) {
+			this.edges = edges;
+		}
+
+		private double nanosPerEdge(String operation) {
+			return (double) nanos.get(operation) / edges;
+		}
+
+		private double bytesPerEdge() {
+			return (double) retainedBytes / edges;
+		}
+	}
+
+	@Test
+	public final void testLinearScaling() throws IOException {
+		int maxEdges = Integer.getInteger("scalability.maxEdges", 1_000_000);
+		List<Measurement> measurements = new ArrayList<>();
+		for(int edges = 1_000; edges <= maxEdges; edges *= 10)
+			measurements.add(measure(edges));
+		writeReport(measurements);
+
+		Measurement reference = null;
+		Measurement largest = measurements.get(measurements.size() - 1);
+		for(Measurement measurement : measurements)
+			if(measurement.edges == REFERENCE_EDGES)
+				reference = measurement;
+		if(reference == null || reference == largest)
+			return;
+
+		for(String operation : OPERATIONS)
+			assertTrue(operation + " does not scale linearly: " + reference.nanosPerEdge(operation) + " ns/Edge for " + reference.edges + " Edges, " + largest.nanosPerEdge(operation) + " ns/Edge for " + largest.edges + " Edges",
+					largest.nanosPerEdge(operation) <= TIME_SLACK * reference.nanosPerEdge(operation));
+		if(reference.retainedBytes > 0)
+			assertTrue("Memory does not scale linearly: " + reference.bytesPerEdge() + " B/Edge for " + reference.edges + " Edges, " + largest.bytesPerEdge() + " B/Edge for " + largest.edges + " Edges",
+					largest.bytesPerEdge() <= MEMORY_SLACK * reference.bytesPerEdge());
+	}
+
+	/**
+	 * Builds, iterates, exports and deletes a random Graph.
+	 * @param edgeCount Number of Edges.
+	 * @return the measurement.
+	 */
+	private Measurement measure(int edgeCount) {
+		Measurement measurement = new Measurement(edgeCount);
+		Controller controller = new Controller();
+		GraphSystem graphSystem = new GraphSystem(controller);
+		Random random = new Random(edgeCount);
+		int nodeCount = edgeCount / DEGREE;
+
+		long heapBefore = usedHeap();
+		long start = System.nanoTime();
+		Graph graph = graphSystem.createGraph();
+		try(MapperSpace ms = controller.startMapperSpace()) {
+			Node[] nodes = new Node[nodeCount];
+			for(int i = 0; i < nodeCount; i++)
+				nodes[i] = graphSystem.createNode(graph);
+			// A few hubs, as in real topologies.
+			for(int i = 0; i < edgeCount; i++) {
+				int source = random.nextInt(10) == 0 ? random.nextInt(Math.max(1, nodeCount / 1000)) : random.nextInt(nodeCount);
+				graphSystem.createEdge(nodes[source], nodes[random.nextInt(nodeCount)]);
+			}
+		}
+		measurement.nanos.put("create", System.nanoTime() - start);
+		// GC noise can make the difference negative for small Graphs.
+		measurement.retainedBytes = Math.max(0, usedHeap() - heapBefore);
+		assertEquals(edgeCount, graph.getEdges().size());
+
+		start = System.nanoTime();
+		long degrees = 0;
+		for(Node node : graph.getNodes())
+			for(Edge edge : node.getOutgoingConnections())
+				degrees += edge.getDestination().getInDegree();
+		measurement.nanos.put("iterate", System.nanoTime() - start);
+		assertTrue(degrees > 0);
+
+		start = System.nanoTime();
+		String gml = graph.toGML();
+		measurement.nanos.put("export", System.nanoTime() - start);
+		assertTrue(gml.length() > edgeCount);
+
+		start = System.nanoTime();
+		graphSystem.deleteGraph(graph);
+		measurement.nanos.put("delete", System.nanoTime() - start);
+		assertTrue(graph.getEdges().isEmpty());
+
+		return measurement;
+	}
+
+	/**
+	 * Gets the heap in use after garbage collection.
+	 * @return bytes used.
+	 */
+	private static long usedHeap() {
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		for(int i = 0; i < 3; i++)
+			System.gc();
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+
+	/**
+	 * Writes the measurements as CSV.
+	 * @param measurements Measurements.
+	 */
+	private static void writeReport(List<Measurement> measurements) throws IOException {
+		Path directory = Paths.get(System.getProperty("scalability.reportDirectory", "target"));
+		Files.createDirectories(directory);
+		try(PrintWriter out = new PrintWriter(Files.newBufferedWriter(directory.resolve("scalability-report.csv")))) {
+			out.println("edges,operation,milliseconds,nanosPerEdge,retainedBytesPerEdge");
+			for(Measurement measurement : measurements)
+				for(String operation : OPERATIONS)
+					out.printf("%d,%s,%.3f,%.1f,%.1f%n", measurement.edges, operation, measurement.nanos.get(operation) / 1e6,
+							measurement.nanosPerEdge(operation), measurement.bytesPerEdge());
+		}
+	}
+}
@@ -3,9 +3,14 @@ package de.tum.ei.lkn.eces.graph;
 import de.tum.ei.lkn.eces.core.Controller;
 import de.tum.ei.lkn.eces.core.MapperSpace;
 import de.tum.ei.lkn.eces.core.util.EventCountTestSystem;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+import de.tum.ei.lkn.eces.graph.mappers.GraphMapper;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Vector;
 
 import static org.junit.Assert.*;
@@ -277,6 +282,154 @@ public class GraphSystemTest {
 				|| g.toGML().trim().compareTo(case2) == 0);
 	}
 
+	@Test
+	public final void testInsertionOrder() {
+		Graph g = graphSystem.createGraph();
+		Node[] nodes = new Node[40];
+		for(int i = 0; i < nodes.length; i++)
+			nodes[i] = graphSystem.createNode(g, "n" + i);
+		Edge[] edges = new Edge[nodes.length - 1];
+		for(int i = 0; i < edges.length; i++)
+			edges[i] = graphSystem.createEdge(nodes[i], nodes[i + 1]);
+
+		// Enough deletions to trigger a compaction of the underlying store.
+		for(int i = 0; i < nodes.length; i += 3)
+			graphSystem.deleteNode(nodes[i]);
+		Node extra = graphSystem.createNode(g, "extra");
+
+		List<Node> expectedNodes = new ArrayList<>();
+		for(int i = 0; i < nodes.length; i++)
+			if(i % 3 != 0)
+				expectedNodes.add(nodes[i]);
+		expectedNodes.add(extra);
+		assertEquals(expectedNodes, new ArrayList<>(g.getNodes()));
+
+		List<Edge> expectedEdges = new ArrayList<>();
+		for(int i = 0; i < edges.length; i++)
+			if(i % 3 == 1)
+				expectedEdges.add(edges[i]);
+		assertEquals(expectedEdges, new ArrayList<>(g.getEdges()));
+
+		String gml = g.toGML();
+		assertEquals(gml, g.toGML());
+		assertTrue(gml.indexOf("id " + nodes[1].getId() + "\n") < gml.indexOf("id " + nodes[2].getId() + "\n"));
+		assertTrue(gml.indexOf("id " + nodes[2].getId() + "\n") < gml.indexOf("id " + extra.getId() + "\n"));
+	}
+
+	@Test
+	public final void testDiffAndPatch() {
+		Graph a = graphSystem.createGraph();
+		Node aA = graphSystem.createNode(a, "A");
+		Node aB = graphSystem.createNode(a, "B");
+		Node aC = graphSystem.createNode(a, "C");
+		Edge aAB = graphSystem.createEdge(aA, aB, "x");
+		graphSystem.createEdge(aB, aC);
+		graphSystem.createEdge(aB, aC);
+		graphSystem.createEdge(aC, aA);
+
+		Graph b = graphSystem.createGraph();
+		Node bA = graphSystem.createNode(b, "A");
+		Node bB = graphSystem.createNode(b, "B");
+		Node bD = graphSystem.createNode(b, "D");
+		graphSystem.createEdge(bA, bB, "x");
+		graphSystem.createEdge(bA, bB, "x");
+		graphSystem.createEdge(bB, bD);
+		graphSystem.createEdge(bD, bA);
+		eventTestSystem.doFullCheck(Graph.class,2,14,0);
+		eventTestSystem.doFullCheck(Node.class,6,16,0);
+		eventTestSystem.doFullCheck(Edge.class,8,0,0);
+
+		GraphPatch patch = graphSystem.diff(a, b);
+		assertEquals(Arrays.asList(aC), patch.getRemovedNodes());
+		assertEquals(Arrays.asList("D"), patch.getAddedNodes());
+		assertEquals(3, patch.getRemovedEdges().size());
+		assertFalse(patch.getRemovedEdges().contains(aAB));
+		assertEquals(3, patch.getAddedEdges().size());
+		assertTrue(graphSystem.diff(b, b).isEmpty());
+
+		graphSystem.applyPatch(patch);
+		eventTestSystem.doFullCheck(Graph.class,0,6,0);
+		eventTestSystem.doFullCheck(Node.class,1,12,1);
+		eventTestSystem.doFullCheck(Edge.class,3,0,3);
+		eventTestSystem.checkIfEmpty();
+
+		assertTrue(graphSystem.diff(a, b).isEmpty());
+		assertTrue(graphSystem.diff(b, a).isEmpty());
+		assertEquals(3, a.getNodes().size());
+		assertEquals(4, a.getEdges().size());
+		assertTrue(a.getEdges().contains(aAB));
+		assertEquals(2, aA.getOutDegree());
+
+		// A patch cannot be applied once the Graph changed.
+		GraphPatch stale = graphSystem.diff(a, b);
+		graphSystem.createNode(a, "E");
+		try {
+			graphSystem.applyPatch(stale);
+			fail("A stale patch should be rejected");
+		} catch(GraphException e) {
+		}
+
+		// Nodes must be identifiable by name.
+		graphSystem.createNode(b);
+		graphSystem.createNode(b);
+		try {
+			graphSystem.diff(a, b);
+			fail("Duplicate Node names should be rejected");
+		} catch(GraphException e) {
+		}
+	}
+
+	@Test
+	public final void testAcyclicPatch() {
+		Graph a = graphSystem.createGraph();
+		Node aA = graphSystem.createNode(a, "A");
+		Node aB = graphSystem.createNode(a, "B");
+		graphSystem.createEdge(aA, aB);
+		graphSystem.setAcyclic(a, true);
+
+		Graph b = graphSystem.createGraph();
+		Node bA = graphSystem.createNode(b, "A");
+		Node bB = graphSystem.createNode(b, "B");
+		graphSystem.createEdge(bB, bA);
+
+		// Reversing the Edge does not close a cycle once the old one is gone.
+		graphSystem.applyPatch(graphSystem.diff(a, b));
+		assertTrue(graphSystem.diff(a, b).isEmpty());
+		assertEquals(0, aA.getOutDegree());
+		assertEquals(1, aB.getOutDegree());
+		assertTrue(a.isAcyclic());
+
+		// Edges that are kept still count.
+		graphSystem.createEdge(bA, bB);
+		try {
+			graphSystem.applyPatch(graphSystem.diff(a, b));
+			fail("A patch closing a cycle should be rejected");
+		} catch(GraphException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public final void testDiffRejectsUnnamedNodes() {
+		Graph a = graphSystem.createGraph();
+		graphSystem.createNode(a, "A");
+		Graph b = graphSystem.createGraph();
+		graphSystem.createNode(b, "A");
+		graphSystem.createNode(b);
+		// A single unnamed Node can still be matched.
+		assertEquals(Arrays.asList(""), graphSystem.diff(a, b).getAddedNodes());
+
+		graphSystem.createNode(b);
+		for(Graph[] pair : new Graph[][]{{a, b}, {b, a}}) {
+			try {
+				graphSystem.diff(pair[0], pair[1]);
+				fail("Several unnamed Nodes should be rejected");
+			} catch(GraphException e) {
+				assertTrue(e.getMessage().contains("several unnamed Nodes"));
+			}
+		}
+	}
+
 	@Test(timeout = 5000)
 	public final void TestBigTopology() {
 
@@ -301,4 +454,177 @@ public class GraphSystemTest {
 
 		eventTestSystem.checkIfEmpty();
 	}
+
+	@Test
+	public final void testAcyclicGraph() {
+		Graph g = graphSystem.createGraph();
+		Node[] n = new Node[3];
+		for(int i = 0; i < n.length; i++)
+			n[i] = graphSystem.createNode(g);
+		graphSystem.createEdge(n[0], n[1]);
+		graphSystem.createEdge(n[1], n[2]);
+		graphSystem.setAcyclic(g, true);
+		assertTrue(g.isAcyclic());
+
+		graphSystem.createEdge(n[0], n[2]);
+		try {
+			graphSystem.createEdge(n[2], n[0]);
+			fail("An Edge closing a cycle should be rejected");
+		} catch(GraphException e) {
+			// expected
+		}
+		try {
+			graphSystem.createEdge(n[1], n[1]);
+			fail("A self-loop should be rejected");
+		} catch(GraphException e) {
+			// expected
+		}
+		assertEquals("Rejected Edges should not be added", 3, g.getEdges().size());
+
+		graphSystem.setAcyclic(g, false);
+		graphSystem.createEdge(n[2], n[0]);
+		try {
+			graphSystem.setAcyclic(g, true);
+			fail("A cyclic Graph cannot be flagged as acyclic");
+		} catch(GraphException e) {
+			// expected
+		}
+		assertFalse(g.isAcyclic());
+	}
+
+	@Test
+	public final void testAcyclicBulkCreation() {
+		Graph g = graphSystem.createGraph();
+		graphSystem.setAcyclic(g, true);
+		Node[] n = graphSystem.createNodes(g, new String[]{"a", "b", "c", "d", "e"});
+		eventTestSystem.reset();
+
+		// 2-cycle inside a batch.
+		try {
+			graphSystem.createEdges(new Node[]{n[0], n[1]}, new Node[]{n[1], n[0]}, null);
+			fail("A batch closing a cycle should be rejected");
+		} catch(GraphException e) {
+			// expected
+		}
+		// Longer cycle spread across a batch.
+		try {
+			graphSystem.createEdges(new Node[]{n[0], n[2], n[3], n[1], n[4]}, new Node[]{n[1], n[3], n[0], n[2], n[3]}, null);
+			fail("A batch closing a cycle should be rejected");
+		} catch(GraphException e) {
+			// expected
+		}
+		assertEquals("Rejected batches should not be added", 0, g.getEdges().size());
+		eventTestSystem.checkIfEmpty();
+
+		// The rejected batches left nothing behind.
+		Edge[] edges = graphSystem.createEdges(new Node[]{n[0], n[1], n[2]}, new Node[]{n[1], n[2], n[3]}, null);
+		assertEquals(3, g.getEdges().size());
+		eventTestSystem.doFullCheck(Graph.class, 0, 1, 0);
+		eventTestSystem.doFullCheck(Node.class, 0, 6, 0);
+		eventTestSystem.doFullCheck(Edge.class, 3, 0, 0);
+		eventTestSystem.checkIfEmpty();
+
+		// Batch against the existing Edges.
+		try {
+			graphSystem.createEdges(new Node[]{n[3], n[4]}, new Node[]{n[4], n[0]}, null);
+			fail("A batch closing a cycle with existing Edges should be rejected");
+		} catch(GraphException e) {
+			// expected
+		}
+
+		// Single Edges created in the same MapperSpace see each other.
+		try(MapperSpace ms = controller.startMapperSpace()) {
+			graphSystem.createEdge(n[3], n[4]);
+			try {
+				graphSystem.createEdge(n[4], n[0]);
+				fail("An Edge closing a cycle with an Edge of the same MapperSpace should be rejected");
+			} catch(GraphException e) {
+				// expected
+			}
+		}
+		assertEquals(4, g.getEdges().size());
+		assertEquals(edges[0], n[0].getOutgoingConnections().get(0));
+		assertEquals(1, n[4].getInDegree());
+		assertEquals(0, n[4].getOutDegree());
+	}
+
+	@Test
+	public final void testAcyclicFailedCreation() {
+		Graph g = graphSystem.createGraph();
+		graphSystem.setAcyclic(g, true);
+		Node[] n = graphSystem.createNodes(g, new String[]{"a", "b"});
+		GraphMapper graphMapper = new GraphMapper(controller);
+
+		// A change queued before the Edge fails: the Edge is never added.
+		try {
+			try(MapperSpace ms = controller.startMapperSpace()) {
+				graphMapper.updateComponent(g, ()->{
+					throw new IllegalStateException("failing change");
+				});
+				graphSystem.createEdge(n[0], n[1]);
+			}
+			fail("The MapperSpace should fail");
+		} catch(IllegalStateException e) {
+			graphSystem.discardUncommittedEdges();
+		}
+		assertEquals(0, n[0].getOutDegree());
+
+		// The dropped Edge does not close a cycle with a valid one.
+		graphSystem.createEdge(n[1], n[0]);
+		assertEquals(1, g.getEdges().size());
+		graphSystem.setAcyclic(g, false);
+		graphSystem.setAcyclic(g, true);
+
+		// Unchecked creations of the same thread prevent flagging.
+		graphSystem.setAcyclic(g, false);
+		try(MapperSpace ms = controller.startMapperSpace()) {
+			graphSystem.createEdge(n[1], n[0]);
+			try {
+				graphSystem.setAcyclic(g, true);
+				fail("The Graph cannot be flagged while the thread creates Edges in it");
+			} catch(GraphException e) {
+				// expected
+			}
+		}
+		assertFalse(g.isAcyclic());
+		graphSystem.setAcyclic(g, true);
+	}
+
+	@Test
+	public final void testBulkCreationOnHub() {
+		Graph g = graphSystem.createGraph();
+		Node hub = graphSystem.createNode(g);
+		Node[] leaves = graphSystem.createNodes(g, new String[1024]);
+		int copies = 0;
+		Edge[] adjacency = hub.outgoingArray();
+		for(int i = 0; i < leaves.length; i += 2) {
+			graphSystem.createEdges(new Node[]{hub, hub}, new Node[]{leaves[i], leaves[i + 1]}, null);
+			if(hub.outgoingArray() != adjacency)
+				copies++;
+			adjacency = hub.outgoingArray();
+		}
+		assertEquals(leaves.length, hub.getOutDegree());
+		assertTrue("Small batches should grow the adjacency geometrically", copies <= 11);
+	}
+
+	@Test
+	public final void testBulkCreation() {
+		Graph g = graphSystem.createGraph();
+		Node[] n = graphSystem.createNodes(g, new String[]{"a", "b", "c"});
+		Edge[] e = graphSystem.createEdges(new Node[]{n[0], n[0], n[1]}, new Node[]{n[1], n[2], n[2]}, null);
+
+		assertEquals(3, g.getNodes().size());
+		assertEquals(3, g.getEdges().size());
+		assertEquals("b", n[1].getName());
+		assertEquals(2, n[0].getOutgoingConnections().size());
+		assertEquals(2, n[2].getIncomingConnections().size());
+		assertSame(n[2], e[2].getDestination());
+
+		// One update of the Graph per bulk call and one per touched Node and direction.
+		eventTestSystem.doFullCheck(Graph.class,1,2,0);
+		eventTestSystem.doFullCheck(Node.class,3,4,0);
+		eventTestSystem.doFullCheck(Edge.class,3,0,0);
+
+		eventTestSystem.checkIfEmpty();
+	}
 }
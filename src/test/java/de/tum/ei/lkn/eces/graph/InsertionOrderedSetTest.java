@@ -0,0 +1,65 @@
+package de.tum.ei.lkn.eces.graph;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for de.tum.ei.lkn.eces.graph.InsertionOrderedSet.java.
+ *
+ * @author Amaury Van Bemten
+ */
+public class InsertionOrderedSetTest {
+	@Test
+	public final void testOrderAfterRemovals() {
+		InsertionOrderedSet<Integer> set = new InsertionOrderedSet<>();
+		List<Integer> expected = new ArrayList<>();
+		for(int i = 0; i < 100; i++)
+			assertTrue(set.add(i));
+		assertFalse(set.add(42));
+		for(int i = 0; i < 100; i++) {
+			if(i % 4 == 0)
+				expected.add(i);
+			else
+				assertTrue(set.remove(i));
+		}
+		assertFalse(set.remove(1));
+		set.add(1000);
+		expected.add(1000);
+
+		assertEquals(expected.size(), set.size());
+		assertEquals(expected, new ArrayList<>(set));
+		assertArrayEquals(expected.toArray(), set.toArray());
+		for(Integer i : expected)
+			assertTrue(set.contains(i));
+		assertFalse(set.contains(3));
+	}
+
+	@Test
+	public final void testIteratorRemove() {
+		InsertionOrderedSet<String> set = new InsertionOrderedSet<>();
+		set.addAll(Arrays.asList("a", "b", "c", "d"));
+		Iterator<String> iterator = set.iterator();
+		while(iterator.hasNext())
+			if(!iterator.next().equals("c"))
+				iterator.remove();
+		assertEquals(Arrays.asList("c"), new ArrayList<>(set));
+		set.clear();
+		assertTrue(set.isEmpty());
+		assertFalse(set.iterator().hasNext());
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public final void testFailFast() {
+		InsertionOrderedSet<String> set = new InsertionOrderedSet<>();
+		set.addAll(Arrays.asList("a", "b"));
+		for(String s : set)
+			set.add(s + s);
+	}
+}
@@ -0,0 +1,84 @@
+package de.tum.ei.lkn.eces.graph;
+
+import de.tum.ei.lkn.eces.core.Component;
+import de.tum.ei.lkn.eces.core.Controller;
+import org.junit.Before;
+import org.junit.Test;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+import org.openjdk.jol.vm.VM;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the per-Node and per-Edge memory budget using JOL.
+ *
+ * @author Amaury Van Bemten
+ */
+public class MemoryFootprintTest {
+	private GraphSystem graphSystem;
+	private long referenceSize;
+
+	@Before
+	public void setup() {
+		graphSystem = new GraphSystem(new Controller());
+		referenceSize = VM.current().addressSize();
+	}
+
+	/**
+	 * Size of an instance of a class on top of the fields inherited from
+	 * Component.
+	 */
+	private static long ownInstanceSize(Class<?> clazz) {
+		return ClassLayout.parseClass(clazz).instanceSize() - ClassLayout.parseClass(Component.class).instanceSize();
+	}
+
+	@Test
+	public final void testNodeInstanceBudget() {
+		// graph, name, two adjacency arrays, two degrees, plus alignment padding.
+		assertTrue("Node uses more than its fields", ownInstanceSize(Node.class) <= 4 * referenceSize + 2 * Integer.BYTES + VM.current().objectAlignment());
+	}
+
+	@Test
+	public final void testIsolatedNodeSharesAdjacency() {
+		Graph g = graphSystem.createGraph();
+		Node a = graphSystem.createNode(g);
+		Node b = graphSystem.createNode(g);
+
+		assertSame("Nodes without Edges should not allocate adjacency", a.outgoingArray(), b.outgoingArray());
+		assertSame("Nodes without Edges should not allocate adjacency", a.outgoingArray(), a.incomingArray());
+		assertSame("Unnamed Nodes should share the empty name", a.getName(), b.getName());
+	}
+
+	@Test
+	public final void testLeafNodeAdjacencyBudget() {
+		Graph g = graphSystem.createGraph();
+		Node host = graphSystem.createNode(g);
+		Node sw = graphSystem.createNode(g);
+		Edge up = graphSystem.createEdge(host, sw);
+		Edge down = graphSystem.createEdge(sw, host);
+
+		// One single-slot array per direction.
+		long arraySize = VM.current().arrayHeaderSize() + referenceSize;
+		arraySize += (VM.current().objectAlignment() - arraySize % VM.current().objectAlignment()) % VM.current().objectAlignment();
+		assertEquals("Leaf Node adjacency is larger than two single-slot arrays", 2 * arraySize,
+				GraphLayout.parseInstance(host.outgoingArray(), host.incomingArray()).totalSize());
+
+		assertSame("Unnamed Edges should share the empty name", up.getName(), down.getName());
+	}
+
+	@Test
+	public final void testAdjacencyShrinksWhenEmpty() {
+		Graph g = graphSystem.createGraph();
+		Node a = graphSystem.createNode(g);
+		Node b = graphSystem.createNode(g);
+		Node c = graphSystem.createNode(g);
+		Edge e = graphSystem.createEdge(a, b);
+
+		graphSystem.deleteEdge(e);
+
+		assertEquals(0, a.getOutDegree());
+		assertEquals(0, b.getInDegree());
+		assertSame("Adjacency should be released when the Node loses its last Edge", a.outgoingArray(), c.outgoingArray());
+	}
+}
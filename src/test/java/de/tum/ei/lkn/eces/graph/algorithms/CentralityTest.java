@@ -0,0 +1,132 @@
+package de.tum.ei.lkn.eces.graph.algorithms;
+
+import de.tum.ei.lkn.eces.core.Controller;
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.GraphSystem;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+import de.tum.ei.lkn.eces.graph.view.CompactGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for de.tum.ei.lkn.eces.graph.algorithms.Centrality.java.
+ *
+ * @author Amaury Van Bemten
+ */
+public class CentralityTest {
+	private static final double EPSILON = 1e-9;
+
+	private GraphSystem graphSystem;
+	private Graph graph;
+
+	@Before
+	public void setup() {
+		graphSystem = new GraphSystem(new Controller());
+		graph = graphSystem.createGraph();
+	}
+
+	@Test
+	public final void testLine() {
+		Node a = graphSystem.createNode(graph);
+		Node b = graphSystem.createNode(graph);
+		Node c = graphSystem.createNode(graph);
+		Edge ab = graphSystem.createEdge(a, b);
+		Edge bc = graphSystem.createEdge(b, c);
+
+		CentralityResult result = new Centrality(graph).compute();
+		assertTrue(result.isExact());
+		assertEquals(0, result.getNodeBetweenness(a), EPSILON);
+		assertEquals(1, result.getNodeBetweenness(b), EPSILON);
+		assertEquals(0, result.getNodeBetweenness(c), EPSILON);
+		assertEquals(2, result.getEdgeBetweenness(ab), EPSILON);
+		assertEquals(2, result.getEdgeBetweenness(bc), EPSILON);
+		assertEquals(2.0 / 3, result.getCloseness(a), EPSILON);
+		assertEquals(1, result.getCloseness(b), EPSILON);
+		assertEquals(0, result.getCloseness(c), EPSILON);
+	}
+
+	@Test
+	public final void testWeightedDiamond() {
+		Node s = graphSystem.createNode(graph);
+		Node x = graphSystem.createNode(graph);
+		Node y = graphSystem.createNode(graph);
+		Node z = graphSystem.createNode(graph);
+		Node t = graphSystem.createNode(graph);
+		Edge sx = graphSystem.createEdge(s, x);
+		Edge xt = graphSystem.createEdge(x, t);
+		Edge sy = graphSystem.createEdge(s, y);
+		Edge yt = graphSystem.createEdge(y, t);
+		Edge sz = graphSystem.createEdge(s, z);
+		Edge zt = graphSystem.createEdge(z, t);
+
+		// s-x-t and s-y-t cost 2, s-z-t costs 3.
+		CentralityResult result = new Centrality(CompactGraph.of(graph), edge -> edge == zt ? 2 : 1, false).compute();
+		assertEquals(0.5, result.getNodeBetweenness(x), EPSILON);
+		assertEquals(0.5, result.getNodeBetweenness(y), EPSILON);
+		assertEquals(0, result.getNodeBetweenness(z), EPSILON);
+		assertEquals(1.5, result.getEdgeBetweenness(sx), EPSILON);
+		assertEquals(1.5, result.getEdgeBetweenness(yt), EPSILON);
+		assertEquals(1, result.getEdgeBetweenness(sz), EPSILON);
+		assertEquals(1, result.getEdgeBetweenness(zt), EPSILON);
+		assertEquals(sx, result.getTopEdges(1).get(0));
+		assertEquals(6, result.getTopEdges(10).size());
+
+		// Hop counts: the three paths are equivalent.
+		result = new Centrality(CompactGraph.of(graph), false).compute();
+		assertEquals(1.0 / 3, result.getNodeBetweenness(z), EPSILON);
+		assertEquals(4.0 / 3, result.getEdgeBetweenness(xt), EPSILON);
+		assertEquals(4.0 / 3, result.getEdgeBetweenness(sy), EPSILON);
+	}
+
+	@Test
+	public final void testParallelAndSampled() {
+		Random random = new Random(7);
+		Node[] nodes = new Node[60];
+		for(int i = 0; i < nodes.length; i++)
+			nodes[i] = graphSystem.createNode(graph);
+		for(int i = 0; i < 300; i++)
+			graphSystem.createEdge(nodes[random.nextInt(nodes.length)], nodes[random.nextInt(nodes.length)]);
+		CompactGraph compact = CompactGraph.of(graph);
+
+		CentralityResult sequential = new Centrality(compact, edge -> 1 + edge.getId() % 3, false).compute();
+		CentralityResult parallel = new Centrality(compact, edge -> 1 + edge.getId() % 3, true).compute();
+		for(int v = 0; v < compact.nodeCount(); v++) {
+			assertEquals(sequential.getNodeBetweenness(v), parallel.getNodeBetweenness(v), 1e-6);
+			assertEquals(sequential.getCloseness(v), parallel.getCloseness(v), EPSILON);
+		}
+		for(int e = 0; e < compact.edgeCount(); e++)
+			assertEquals(sequential.getEdgeBetweenness(e), parallel.getEdgeBetweenness(e), 1e-6);
+
+		// Sampling everything is exact.
+		CentralityResult all = new Centrality(compact, true).compute(1000, 1);
+		assertTrue(all.isExact());
+
+		CentralityResult sampled = new Centrality(compact, true).compute(20, 1);
+		assertFalse(sampled.isExact());
+		assertEquals(20, sampled.getSourceCount());
+		int sources = 0;
+		double exactTotal = 0;
+		double sampledTotal = 0;
+		for(int v = 0; v < compact.nodeCount(); v++) {
+			if(!Double.isNaN(sampled.getCloseness(v)))
+				sources++;
+			exactTotal += all.getNodeBetweenness(v);
+			sampledTotal += sampled.getNodeBetweenness(v);
+		}
+		assertEquals(20, sources);
+		// The scaled estimate has the right order of magnitude.
+		assertTrue(sampledTotal > exactTotal / 2 && sampledTotal < exactTotal * 2);
+	}
+
+	@Test(expected = GraphException.class)
+	public final void testZeroCost() {
+		graphSystem.createEdge(graphSystem.createNode(graph), graphSystem.createNode(graph));
+		new Centrality(CompactGraph.of(graph), edge -> 0, false);
+	}
+}
@@ -0,0 +1,157 @@
+package de.tum.ei.lkn.eces.graph.algorithms;
+
+import de.tum.ei.lkn.eces.core.Controller;
+import de.tum.ei.lkn.eces.core.MapperSpace;
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.GraphSystem;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.view.CompactGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for de.tum.ei.lkn.eces.graph.algorithms.DynamicShortestPathSystem.java.
+ *
+ * @author Amaury Van Bemten
+ */
+public class DynamicShortestPathSystemTest {
+	private Controller controller;
+	private GraphSystem graphSystem;
+	private DynamicShortestPathSystem dynamicSystem;
+	private Map<Edge, Double> costs;
+
+	@Before
+	public void setup() {
+		controller = new Controller();
+		graphSystem = new GraphSystem(controller);
+		dynamicSystem = new DynamicShortestPathSystem(controller);
+		costs = new HashMap<>();
+	}
+
+	private Edge createEdge(Node a, Node b, double cost) {
+		// The cost has to be known before the creation event is handled.
+		Edge edge;
+		try(MapperSpace ms = controller.startMapperSpace()) {
+			edge = graphSystem.createEdge(a, b);
+			costs.put(edge, cost);
+		}
+		return edge;
+	}
+
+	private void checkAgainstScratch(Graph graph, ShortestPathTree tree) {
+		CompactGraph compact = CompactGraph.of(graph);
+		ShortestPathWorkspace workspace = new ShortestPathWorkspace(compact);
+		workspace.run(ShortestPathWorkspace.costs(compact, costs::get), compact.indexOf(tree.getSource()), -1);
+		for(int v = 0; v < compact.nodeCount(); v++) {
+			Node node = compact.getNode(v);
+			assertEquals("Wrong distance for " + node, workspace.distance(v), tree.getDistance(node), 1e-9);
+			if(tree.isReachable(node))
+				assertEquals(tree.getDistance(node), tree.getPath(node).getCost(), 1e-9);
+		}
+	}
+
+	@Test
+	public final void testRandomUpdates() {
+		Random random = new Random(42);
+		Graph graph = graphSystem.createGraph();
+		List<Node> nodes = new ArrayList<>();
+		for(int i = 0; i < 60; i++)
+			nodes.add(graphSystem.createNode(graph));
+		List<Edge> edges = new ArrayList<>();
+		for(int i = 0; i < 200; i++)
+			edges.add(createEdge(nodes.get(random.nextInt(60)), nodes.get(random.nextInt(60)), 1 + random.nextInt(10)));
+
+		ShortestPathTree tree = dynamicSystem.track(nodes.get(0), costs::get);
+		checkAgainstScratch(graph, tree);
+
+		for(int step = 0; step < 300; step++) {
+			if(random.nextBoolean() && !edges.isEmpty())
+				graphSystem.deleteEdge(edges.remove(random.nextInt(edges.size())));
+			else
+				edges.add(createEdge(nodes.get(random.nextInt(60)), nodes.get(random.nextInt(60)), 1 + random.nextInt(10)));
+			checkAgainstScratch(graph, tree);
+		}
+
+		Node removed = nodes.get(1 + random.nextInt(59));
+		graphSystem.deleteNode(removed);
+		assertFalse(tree.isReachable(removed));
+	}
+
+	@Test
+	public final void testRepairIsLocal() {
+		int length = 10000;
+		Graph graph = graphSystem.createGraph();
+		Node[] chain = new Node[length];
+		Edge[] links = new Edge[length - 1];
+		for(int i = 0; i < length; i++)
+			chain[i] = graphSystem.createNode(graph);
+		for(int i = 0; i < length - 1; i++)
+			links[i] = createEdge(chain[i], chain[i + 1], 1);
+		// A leaf hanging close to the source, with a backup link.
+		Node leaf = graphSystem.createNode(graph);
+		Edge primary = createEdge(chain[1], leaf, 1);
+		createEdge(chain[2], leaf, 5);
+
+		ShortestPathTree tree = dynamicSystem.track(chain[0], costs::get);
+		assertEquals(2, tree.getDistance(leaf), 1e-9);
+
+		graphSystem.deleteEdge(primary);
+		assertEquals(7, tree.getDistance(leaf), 1e-9);
+		assertEquals(1, tree.getLastRepairSize());
+
+		// A shortcut only improves the end of the chain.
+		createEdge(chain[0], chain[length - 10], 1);
+		assertEquals(1 + 9, tree.getDistance(chain[length - 1]), 1e-9);
+		assertEquals(10, tree.getLastRepairSize());
+		assertEquals(length - 11, tree.getDistance(chain[length - 11]), 1e-9);
+
+		// Cutting the chain disconnects everything after the cut but before the shortcut.
+		graphSystem.deleteEdge(links[length - 20]);
+		assertFalse(tree.isReachable(chain[length - 15]));
+		assertTrue(tree.isReachable(chain[length - 1]));
+		assertEquals(9, tree.getLastRepairSize());
+	}
+
+	@Test
+	public final void testSourceDeletion() {
+		Graph graph = graphSystem.createGraph();
+		Node a = graphSystem.createNode(graph);
+		Node b = graphSystem.createNode(graph);
+		createEdge(a, b, 1);
+		ShortestPathTree tree = dynamicSystem.track(a, costs::get);
+		assertTrue(tree.isReachable(b));
+
+		graphSystem.deleteNode(a);
+		assertFalse(tree.isReachable(b));
+	}
+
+	@Test
+	public final void testRemovedEdgeStillInAdjacency() {
+		Graph graph = graphSystem.createGraph();
+		Node a = graphSystem.createNode(graph);
+		Node b = graphSystem.createNode(graph);
+		Node c = graphSystem.createNode(graph);
+		Edge ab = createEdge(a, b, 1);
+		createEdge(b, c, 1);
+		ShortestPathTree tree = dynamicSystem.track(a, costs::get);
+		assertTrue(tree.isReachable(c));
+
+		// Deletion notified while the Edge, the only one entering b, is
+		// still in the adjacency.
+		tree.edgeRemoved(ab);
+		assertFalse(tree.isReachable(b));
+		assertFalse(tree.isReachable(c));
+
+		graphSystem.deleteEdge(ab);
+		checkAgainstScratch(graph, tree);
+	}
+}
@@ -0,0 +1,182 @@
+package de.tum.ei.lkn.eces.graph.algorithms;
+
+import de.tum.ei.lkn.eces.core.Controller;
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.GraphSystem;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.view.CompactGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for de.tum.ei.lkn.eces.graph.algorithms.KShortestPaths.java
+ * and de.tum.ei.lkn.eces.graph.algorithms.DisjointPaths.java.
+ *
+ * @author Amaury Van Bemten
+ */
+public class KShortestPathsTest {
+	private GraphSystem graphSystem;
+	private Graph graph;
+	private Map<String, Node> nodes;
+	private Map<Edge, Double> costs;
+	private ToDoubleFunction<Edge> cost;
+
+	@Before
+	public void setup() {
+		graphSystem = new GraphSystem(new Controller());
+		graph = graphSystem.createGraph();
+		nodes = new HashMap<>();
+		costs = new HashMap<>();
+		cost = costs::get;
+	}
+
+	private Node node(String name) {
+		return nodes.computeIfAbsent(name, n -> graphSystem.createNode(graph, n));
+	}
+
+	private void link(String a, String b, double c) {
+		costs.put(graphSystem.createEdge(node(a), node(b), a + b), c);
+		costs.put(graphSystem.createEdge(node(b), node(a), b + a), c);
+	}
+
+	private static String names(Path path) {
+		StringBuilder out = new StringBuilder();
+		for(Node n : path.getNodes())
+			out.append(n.getName());
+		return out.toString();
+	}
+
+	private void buildYenExample() {
+		// Example network of Yen's algorithm on Wikipedia (directed).
+		String[][] edges = {{"C", "D", "3"}, {"C", "E", "2"}, {"D", "F", "4"}, {"E", "D", "1"}, {"E", "F", "2"},
+				{"E", "G", "3"}, {"F", "G", "2"}, {"F", "H", "1"}, {"G", "H", "2"}};
+		for(String[] e : edges)
+			costs.put(graphSystem.createEdge(node(e[0]), node(e[1]), e[0] + e[1]), Double.parseDouble(e[2]));
+	}
+
+	@Test
+	public final void testYen() {
+		buildYenExample();
+		List<Path> paths = new KShortestPaths(graph, cost).compute(node("C"), node("H"), 3);
+
+		assertEquals(3, paths.size());
+		assertEquals("CEFH", names(paths.get(0)));
+		assertEquals(5, paths.get(0).getCost(), 1e-9);
+		assertEquals("CEGH", names(paths.get(1)));
+		assertEquals(7, paths.get(1).getCost(), 1e-9);
+		assertEquals(8, paths.get(2).getCost(), 1e-9);
+	}
+
+	@Test
+	public final void testYenExhaustsPaths() {
+		buildYenExample();
+		List<Path> paths = new KShortestPaths(graph, cost).compute(node("C"), node("H"), 100);
+
+		Set<String> distinct = new HashSet<>();
+		double previous = 0;
+		for(Path path : paths) {
+			assertTrue("Duplicate path " + path, distinct.add(names(path)));
+			assertEquals("Path has a loop", path.getNodes().size(), new HashSet<>(path.getNodes()).size());
+			assertTrue("Paths are not sorted", path.getCost() >= previous);
+			previous = path.getCost();
+		}
+		// C-D-F-{H, G-H}, C-E-F-{H, G-H}, C-E-G-H, C-E-D-F-{H, G-H}
+		assertEquals(7, paths.size());
+	}
+
+	@Test
+	public final void testParallelMatchesSequential() {
+		for(int i = 0; i < 6; i++)
+			for(int j = 0; j < 6; j++) {
+				if(i < 5)
+					link(i + "," + j, (i + 1) + "," + j, 1 + (i * 7 + j * 3) % 5);
+				if(j < 5)
+					link(i + "," + j, i + "," + (j + 1), 1 + (i * 3 + j * 7) % 5);
+			}
+
+		CompactGraph compact = CompactGraph.of(graph);
+		List<Path> sequential = new KShortestPaths(compact, cost, false).compute(node("0,0"), node("5,5"), 30);
+		List<Path> parallel = new KShortestPaths(compact, cost, true).compute(node("0,0"), node("5,5"), 30);
+
+		assertEquals(30, sequential.size());
+		assertEquals(sequential.size(), parallel.size());
+		for(int i = 0; i < sequential.size(); i++)
+			assertEquals(sequential.get(i).getEdges(), parallel.get(i).getEdges());
+	}
+
+	@Test
+	public final void testUnreachable() {
+		node("A");
+		node("B");
+		assertTrue(new KShortestPaths(graph, cost).compute(node("A"), node("B"), 3).isEmpty());
+		assertTrue(new DisjointPaths(graph, cost, false).compute(node("A"), node("B")).isEmpty());
+	}
+
+	@Test
+	public final void testSuurballeTrap() {
+		// The shortest path S-A-B-T blocks any disjoint second path.
+		link("S", "A", 1);
+		link("A", "B", 1);
+		link("B", "T", 1);
+		link("S", "B", 2);
+		link("A", "T", 2);
+
+		for(boolean nodeDisjoint : new boolean[]{false, true}) {
+			List<Path> pair = new DisjointPaths(graph, cost, nodeDisjoint).compute(node("S"), node("T"));
+			assertEquals(2, pair.size());
+			assertEquals(6, pair.get(0).getCost() + pair.get(1).getCost(), 1e-9);
+			Set<String> routes = new HashSet<>();
+			routes.add(names(pair.get(0)));
+			routes.add(names(pair.get(1)));
+			assertTrue(routes.contains("SAT"));
+			assertTrue(routes.contains("SBT"));
+		}
+	}
+
+	@Test
+	public final void testNodeDisjointDiffersFromEdgeDisjoint() {
+		// Two edge-disjoint paths exist through M, but only one node-disjoint path.
+		link("S", "M", 1);
+		costs.put(graphSystem.createEdge(node("S"), node("M"), "SM2"), 1.0);
+		link("M", "T", 1);
+		costs.put(graphSystem.createEdge(node("M"), node("T"), "MT2"), 1.0);
+
+		assertEquals(2, new DisjointPaths(graph, cost, false).compute(node("S"), node("T")).size());
+		assertEquals(1, new DisjointPaths(graph, cost, true).compute(node("S"), node("T")).size());
+	}
+
+	@Test
+	public final void testDisjointPathsReuseWithFractionalCosts() {
+		// Ladder whose costs do not add up exactly in floating point.
+		for(int i = 0; i < 6; i++) {
+			link("a" + i, "a" + (i + 1), 0.1 * (i + 1));
+			link("b" + i, "b" + (i + 1), 0.3 / (i + 1));
+			link("a" + i, "b" + i, 0.7);
+		}
+		link("S", "a0", 0.1);
+		link("S", "b0", 0.2);
+		link("a6", "T", 1e-3);
+		link("b6", "T", 1e3);
+
+		for(boolean nodeDisjoint : new boolean[]{false, true}) {
+			DisjointPaths disjointPaths = new DisjointPaths(graph, cost, nodeDisjoint);
+			List<Path> first = disjointPaths.compute(node("S"), node("T"));
+			List<Path> second = disjointPaths.compute(node("S"), node("T"));
+			assertEquals(2, first.size());
+			assertEquals(first.size(), second.size());
+			for(int i = 0; i < first.size(); i++)
+				assertEquals(first.get(i).getEdges(), second.get(i).getEdges());
+			assertEquals(2, disjointPaths.compute(node("T"), node("S")).size());
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package de.tum.ei.lkn.eces.graph.algorithms;
+
+import de.tum.ei.lkn.eces.core.Controller;
+import de.tum.ei.lkn.eces.core.MapperSpace;
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.GraphSystem;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for de.tum.ei.lkn.eces.graph.algorithms.MaxFlow.java.
+ *
+ * @author Amaury Van Bemten
+ */
+public class MaxFlowTest {
+	private Controller controller;
+	private GraphSystem graphSystem;
+	private Graph graph;
+	private Map<String, Node> nodes;
+	private Map<Edge, Double> capacities;
+
+	@Before
+	public void setup() {
+		controller = new Controller();
+		graphSystem = new GraphSystem(controller);
+		graph = graphSystem.createGraph();
+		nodes = new HashMap<>();
+		capacities = new HashMap<>();
+	}
+
+	private Node node(String name) {
+		return nodes.computeIfAbsent(name, n -> graphSystem.createNode(graph, n));
+	}
+
+	private Edge edge(String a, String b, double capacity) {
+		Edge edge = graphSystem.createEdge(node(a), node(b), a + b);
+		capacities.put(edge, capacity);
+		return edge;
+	}
+
+	private void checkConservation(MaxFlowResult result, String... terminals) {
+		for(Node n : graph.getNodes()) {
+			if(Arrays.asList(terminals).contains(n.getName()))
+				continue;
+			double balance = 0;
+			for(Edge e : n.getIncomingConnections())
+				balance += result.getFlow(e);
+			for(Edge e : n.getOutgoingConnections()) {
+				balance -= result.getFlow(e);
+				assertTrue("Flow exceeds capacity", result.getFlow(e) <= capacities.get(e) + 1e-9);
+			}
+			assertEquals("Flow is not conserved at " + n, 0, balance, 1e-9);
+		}
+	}
+
+	@Test
+	public final void testTextbookNetwork() {
+		edge("s", "v1", 16);
+		edge("s", "v2", 13);
+		edge("v2", "v1", 4);
+		Edge v1v3 = edge("v1", "v3", 12);
+		edge("v3", "v2", 9);
+		edge("v2", "v4", 14);
+		Edge v4v3 = edge("v4", "v3", 7);
+		edge("v3", "t", 20);
+		Edge v4t = edge("v4", "t", 4);
+
+		MaxFlowResult result = new MaxFlow(graph, capacities::get).compute(node("s"), node("t"));
+		assertEquals(23, result.getValue(), 1e-9);
+		checkConservation(result, "s", "t");
+
+		Set<Edge> cut = result.getMinCut();
+		double cutCapacity = 0;
+		for(Edge e : cut)
+			cutCapacity += capacities.get(e);
+		assertEquals("Min cut capacity should equal max flow", 23, cutCapacity, 1e-9);
+		assertTrue(result.isOnSourceSide(node("s")));
+		assertFalse(result.isOnSourceSide(node("t")));
+		// Source side of the cut is {s, v1, v2, v4}.
+		assertEquals(3, cut.size());
+		assertTrue(cut.contains(v1v3) && cut.contains(v4v3) && cut.contains(v4t));
+	}
+
+	@Test
+	public final void testMultipleSourcesAndSinks() {
+		edge("a", "m", 3);
+		edge("b", "m", 5);
+		edge("m", "x", 2);
+		edge("m", "y", 10);
+		edge("a", "x", 1);
+
+		MaxFlowResult result = new MaxFlow(graph, capacities::get).compute(
+				Arrays.asList(node("a"), node("b")), Arrays.asList(node("x"), node("y")));
+		assertEquals(9, result.getValue(), 1e-9);
+		checkConservation(result, "a", "b", "x", "y");
+	}
+
+	@Test
+	public final void testLongChain() {
+		int length = 100000;
+		try(MapperSpace ms = controller.startMapperSpace()) {
+			for(int i = 0; i < length; i++)
+				edge("n" + i, "n" + (i + 1), 1 + i % 7);
+		}
+		MaxFlowResult result = new MaxFlow(graph, capacities::get).compute(node("n0"), node("n" + length));
+		assertEquals(1, result.getValue(), 1e-9);
+		assertEquals(1, result.getMinCut().size());
+	}
+
+	@Test(expected = GraphException.class)
+	public final void testSourceIsSink() {
+		node("a");
+		new MaxFlow(graph, capacities::get).compute(Arrays.asList(node("a")), Arrays.asList(node("a")));
+	}
+}
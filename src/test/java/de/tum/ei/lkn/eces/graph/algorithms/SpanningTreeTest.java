@@ -0,0 +1,136 @@
+package de.tum.ei.lkn.eces.graph.algorithms;
+
+import de.tum.ei.lkn.eces.core.Controller;
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.GraphSystem;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+import de.tum.ei.lkn.eces.graph.view.CompactGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for de.tum.ei.lkn.eces.graph.algorithms.MinimumSpanningTree.java
+ * and de.tum.ei.lkn.eces.graph.algorithms.SteinerTree.java.
+ *
+ * @author Amaury Van Bemten
+ */
+public class SpanningTreeTest {
+	private static final double EPSILON = 1e-9;
+
+	private GraphSystem graphSystem;
+	private Graph graph;
+	private Map<Edge, Double> costs;
+
+	@Before
+	public void setup() {
+		graphSystem = new GraphSystem(new Controller());
+		graph = graphSystem.createGraph();
+		costs = new HashMap<>();
+	}
+
+	private Edge link(Node a, Node b, double cost) {
+		Edge edge = graphSystem.createEdge(a, b);
+		costs.put(edge, cost);
+		return edge;
+	}
+
+	@Test
+	public final void testSquare() {
+		Node a = graphSystem.createNode(graph);
+		Node b = graphSystem.createNode(graph);
+		Node c = graphSystem.createNode(graph);
+		Node d = graphSystem.createNode(graph);
+		Edge ab = link(a, b, 1);
+		Edge cb = link(c, b, 2);
+		Edge cd = link(c, d, 3);
+		link(d, a, 4);
+		link(a, c, 5);
+
+		MinimumSpanningTree mst = new MinimumSpanningTree(graph, costs::get);
+		Set<Edge> expected = new HashSet<>(Arrays.asList(ab, cb, cd));
+		assertEquals(expected, mst.kruskal());
+		assertEquals(expected, mst.prim());
+		assertEquals(expected, mst.boruvka(false));
+		assertEquals(expected, mst.boruvka(true));
+		assertEquals(6, mst.cost(expected), EPSILON);
+	}
+
+	@Test
+	public final void testRandomForest() {
+		Random random = new Random(3);
+		Node[] nodes = new Node[200];
+		for(int i = 0; i < nodes.length; i++)
+			nodes[i] = graphSystem.createNode(graph);
+		// Two components: even and odd Nodes.
+		for(int i = 0; i < 1500; i++) {
+			int u = random.nextInt(nodes.length);
+			int v = (random.nextInt(nodes.length / 2) * 2 + u % 2) % nodes.length;
+			link(nodes[u], nodes[v], random.nextInt(20) - 5);
+		}
+		for(int i = 2; i < nodes.length; i++)
+			link(nodes[i - 2], nodes[i], 100);
+
+		MinimumSpanningTree mst = new MinimumSpanningTree(CompactGraph.of(graph), costs::get);
+		Set<Edge> kruskal = mst.kruskal();
+		assertEquals(nodes.length - 2, kruskal.size());
+		for(Set<Edge> other : Arrays.asList(mst.prim(), mst.boruvka(false), mst.boruvka(true))) {
+			assertEquals(kruskal.size(), other.size());
+			assertEquals(mst.cost(kruskal), mst.cost(other), EPSILON);
+		}
+	}
+
+	@Test
+	public final void testSteinerThroughHub() {
+		Node hub = graphSystem.createNode(graph);
+		Node[] terminals = new Node[3];
+		Set<Edge> spokes = new HashSet<>();
+		for(int i = 0; i < terminals.length; i++) {
+			terminals[i] = graphSystem.createNode(graph);
+			spokes.add(link(terminals[i], hub, 1));
+		}
+		for(int i = 0; i < terminals.length; i++)
+			link(terminals[i], terminals[(i + 1) % terminals.length], 2.5);
+		// Dead end that must not be part of the tree.
+		link(hub, graphSystem.createNode(graph), 0);
+
+		Set<Edge> tree = new SteinerTree(graph, costs::get).compute(Arrays.asList(terminals));
+		assertEquals(spokes, tree);
+		assertTrue(new SteinerTree(graph, costs::get).compute(Arrays.asList(hub)).isEmpty());
+	}
+
+	@Test
+	public final void testSteinerApproximation() {
+		// Direct links are cheaper than two spokes: KMB uses them.
+		Node hub = graphSystem.createNode(graph);
+		Node[] terminals = new Node[3];
+		for(int i = 0; i < terminals.length; i++) {
+			terminals[i] = graphSystem.createNode(graph);
+			link(hub, terminals[i], 1);
+		}
+		for(int i = 0; i < terminals.length; i++)
+			link(terminals[i], terminals[(i + 1) % terminals.length], 1.9);
+
+		Set<Edge> tree = new SteinerTree(CompactGraph.of(graph), costs::get, true).compute(Arrays.asList(terminals));
+		double cost = tree.stream().mapToDouble(costs::get).sum();
+		assertEquals(3.8, cost, EPSILON);
+		assertTrue(cost <= 2 * 3);
+	}
+
+	@Test(expected = GraphException.class)
+	public final void testDisconnectedTerminals() {
+		Node a = graphSystem.createNode(graph);
+		Node b = graphSystem.createNode(graph);
+		new SteinerTree(graph, costs::get).compute(Arrays.asList(a, b));
+	}
+}
@@ -0,0 +1,119 @@
+package de.tum.ei.lkn.eces.graph.algorithms;
+
+import de.tum.ei.lkn.eces.core.Controller;
+import de.tum.ei.lkn.eces.core.MapperSpace;
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.GraphSystem;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for de.tum.ei.lkn.eces.graph.algorithms.TopologicalSort.java
+ * and de.tum.ei.lkn.eces.graph.algorithms.StronglyConnectedComponents.java.
+ *
+ * @author Amaury Van Bemten
+ */
+public class TopologicalSortTest {
+	private Controller controller;
+	private GraphSystem graphSystem;
+
+	@Before
+	public void setup() {
+		controller = new Controller();
+		graphSystem = new GraphSystem(controller);
+	}
+
+	private Node[] createNodes(Graph g, int count) {
+		Node[] nodes = new Node[count];
+		for(int i = 0; i < count; i++)
+			nodes[i] = graphSystem.createNode(g, "n" + i);
+		return nodes;
+	}
+
+	@Test
+	public final void testSortDiamond() {
+		Graph g = graphSystem.createGraph();
+		Node[] n = createNodes(g, 4);
+		graphSystem.createEdge(n[0], n[1]);
+		graphSystem.createEdge(n[0], n[2]);
+		graphSystem.createEdge(n[1], n[3]);
+		graphSystem.createEdge(n[2], n[3]);
+
+		List<Node> order = TopologicalSort.sort(g);
+		assertEquals(4, order.size());
+		for(Edge e : g.getEdges())
+			assertTrue(e + " is not respected by the order", order.indexOf(e.getSource()) < order.indexOf(e.getDestination()));
+		assertFalse(TopologicalSort.hasCycle(g));
+		assertTrue(TopologicalSort.findCycle(g).isEmpty());
+	}
+
+	@Test(expected = GraphException.class)
+	public final void testSortCycle() {
+		Graph g = graphSystem.createGraph();
+		Node[] n = createNodes(g, 3);
+		graphSystem.createEdge(n[0], n[1]);
+		graphSystem.createEdge(n[1], n[2]);
+		graphSystem.createEdge(n[2], n[0]);
+
+		TopologicalSort.sort(g);
+	}
+
+	@Test
+	public final void testFindCycle() {
+		Graph g = graphSystem.createGraph();
+		Node[] n = createNodes(g, 4);
+		graphSystem.createEdge(n[3], n[0]);
+		graphSystem.createEdge(n[0], n[1]);
+		graphSystem.createEdge(n[1], n[2]);
+		graphSystem.createEdge(n[2], n[0]);
+
+		List<Edge> cycle = TopologicalSort.findCycle(g);
+		assertEquals(3, cycle.size());
+		for(int i = 0; i < cycle.size(); i++)
+			assertSame(cycle.get(i).getDestination(), cycle.get((i + 1) % cycle.size()).getSource());
+	}
+
+	@Test
+	public final void testDeepChain() {
+		int length = 200000;
+		Graph g = graphSystem.createGraph();
+		try(MapperSpace ms = controller.startMapperSpace()) {
+			Node[] n = createNodes(g, length);
+			for(int i = 0; i < length - 1; i++)
+				graphSystem.createEdge(n[i + 1], n[i]);
+		}
+
+		List<Node> order = TopologicalSort.sort(g);
+		assertEquals("n" + (length - 1), order.get(0).getName());
+		assertEquals("n0", order.get(length - 1).getName());
+		assertEquals(length, new StronglyConnectedComponents(g).getCount());
+	}
+
+	@Test
+	public final void testStronglyConnectedComponents() {
+		Graph g = graphSystem.createGraph();
+		Node[] n = createNodes(g, 5);
+		graphSystem.createEdge(n[0], n[1]);
+		graphSystem.createEdge(n[1], n[0]);
+		graphSystem.createEdge(n[1], n[2]);
+		graphSystem.createEdge(n[2], n[3]);
+		graphSystem.createEdge(n[3], n[4]);
+		graphSystem.createEdge(n[4], n[2]);
+
+		StronglyConnectedComponents scc = new StronglyConnectedComponents(g);
+		assertEquals(2, scc.getCount());
+		assertEquals(scc.getComponent(n[0]), scc.getComponent(n[1]));
+		assertEquals(scc.getComponent(n[2]), scc.getComponent(n[4]));
+		assertNotEquals(scc.getComponent(n[0]), scc.getComponent(n[2]));
+		// Components are in reverse topological order.
+		assertTrue(scc.getComponent(n[0]) > scc.getComponent(n[2]));
+		assertFalse(scc.isAcyclic());
+	}
+}
@@ -0,0 +1,128 @@
+package de.tum.ei.lkn.eces.graph.cache;
+
+import de.tum.ei.lkn.eces.core.Controller;
+import de.tum.ei.lkn.eces.core.MapperSpace;
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.GraphSystem;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.algorithms.Path;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.function.ToDoubleFunction;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for de.tum.ei.lkn.eces.graph.cache.GraphQueryCache.java.
+ *
+ * @author Amaury Van Bemten
+ */
+public class GraphQueryCacheTest {
+	private Controller controller;
+	private GraphSystem graphSystem;
+	private Graph graph;
+	private Node[] nodes;
+
+	@Before
+	public void setup() {
+		controller = new Controller();
+		graphSystem = new GraphSystem(controller);
+		graph = graphSystem.createGraph();
+		nodes = new Node[4];
+		for(int i = 0; i < nodes.length; i++)
+			nodes[i] = graphSystem.createNode(graph);
+		graphSystem.createEdge(nodes[0], nodes[1]);
+		graphSystem.createEdge(nodes[1], nodes[2]);
+	}
+
+	@Test
+	public final void testQueryDuringPartialOperation() {
+		graphSystem.setConcurrent(graph, true);
+		GraphQueryCache cache = new GraphQueryCache(graph, 10);
+		try(MapperSpace ms = controller.startMapperSpace()) {
+			graphSystem.createEdge(nodes[2], nodes[3]);
+			// The Graph already has the Edge, the adjacency of the Nodes not yet.
+			assertEquals(3, graph.getEdges().size());
+			assertEquals(0, nodes[2].getOutDegree());
+			cache.isReachable(nodes[0], nodes[3]);
+		}
+		assertTrue("Results computed on a partly applied operation must not be kept", cache.isReachable(nodes[0], nodes[3]));
+	}
+
+	@Test
+	public final void testHitsAndMisses() {
+		GraphQueryCache cache = new GraphQueryCache(graph, 10);
+
+		assertTrue(cache.isReachable(nodes[0], nodes[2]));
+		assertTrue(cache.isReachable(nodes[0], nodes[2]));
+		assertFalse(cache.isReachable(nodes[0], nodes[3]));
+		assertFalse(cache.isReachable(nodes[0], nodes[3]));
+
+		assertEquals(2, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+		assertEquals(0.5, cache.getHitRate(), 1e-9);
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public final void testInvalidationOnMutation() {
+		GraphQueryCache cache = new GraphQueryCache(graph, 10);
+		assertFalse(cache.isReachable(nodes[0], nodes[3]));
+
+		Edge edge = graphSystem.createEdge(nodes[2], nodes[3]);
+		assertTrue("Edge creation should invalidate the cache", cache.isReachable(nodes[0], nodes[3]));
+
+		graphSystem.deleteEdge(edge);
+		assertFalse("Edge deletion should invalidate the cache", cache.isReachable(nodes[0], nodes[3]));
+
+		graphSystem.deleteNode(nodes[1]);
+		assertFalse("Node deletion should invalidate the cache", cache.isReachable(nodes[0], nodes[2]));
+
+		assertEquals(0, cache.getHitCount());
+		assertEquals(3, cache.getInvalidationCount());
+	}
+
+	@Test
+	public final void testOtherGraphDoesNotInvalidate() {
+		GraphQueryCache cache = new GraphQueryCache(graph, 10);
+		cache.isReachable(nodes[0], nodes[2]);
+
+		Graph other = graphSystem.createGraph();
+		graphSystem.createEdge(graphSystem.createNode(other), graphSystem.createNode(other));
+
+		cache.isReachable(nodes[0], nodes[2]);
+		assertEquals(1, cache.getHitCount());
+		assertEquals(0, cache.getInvalidationCount());
+	}
+
+	@Test
+	public final void testLruEviction() {
+		GraphQueryCache cache = new GraphQueryCache(graph, 2);
+		cache.isReachable(nodes[0], nodes[1]);
+		cache.isReachable(nodes[0], nodes[2]);
+		// Touch the first entry so that the second one is the LRU.
+		cache.isReachable(nodes[0], nodes[1]);
+		cache.isReachable(nodes[0], nodes[3]);
+
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getEvictionCount());
+		cache.isReachable(nodes[0], nodes[1]);
+		assertEquals(2, cache.getHitCount());
+		cache.isReachable(nodes[0], nodes[2]);
+		assertEquals(2, cache.getHitCount());
+	}
+
+	@Test
+	public final void testShortestPath() {
+		GraphQueryCache cache = new GraphQueryCache(graph, 10);
+		ToDoubleFunction<Edge> hops = e -> 1;
+
+		Path path = cache.shortestPath(nodes[0], nodes[2], hops);
+		assertEquals(2, path.getCost(), 1e-9);
+		assertSame(path, cache.shortestPath(nodes[0], nodes[2], hops));
+		assertNull(cache.shortestPath(nodes[0], nodes[3], hops));
+		assertEquals(1, cache.getHitCount());
+	}
+}
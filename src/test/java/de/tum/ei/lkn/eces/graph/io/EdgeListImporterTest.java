@@ -0,0 +1,137 @@
+package de.tum.ei.lkn.eces.graph.io;
+
+import de.tum.ei.lkn.eces.core.Controller;
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.GraphSystem;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for de.tum.ei.lkn.eces.graph.io.EdgeListImporter.java.
+ *
+ * @author Amaury Van Bemten
+ */
+public class EdgeListImporterTest {
+	private GraphSystem graphSystem;
+
+	@Before
+	public void setup() {
+		graphSystem = new GraphSystem(new Controller());
+	}
+
+	private static Path write(String content) throws IOException {
+		Path file = Files.createTempFile("topology", ".txt");
+		file.toFile().deleteOnExit();
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	@Test
+	public final void testEdgeList() throws IOException {
+		Path file = write("# comment\nh1 s1 up1\ns1 h1 down1\n\nh2\t s1\nlonely\n");
+		Graph g = graphSystem.createGraph();
+		Map<String, Node> nodes = new EdgeListImporter(graphSystem, EdgeListImporter.Format.EDGE_LIST).importFile(file, g);
+
+		assertEquals(4, g.getNodes().size());
+		assertEquals(3, g.getEdges().size());
+		assertEquals("[h1, s1, h2, lonely]", new ArrayList<>(nodes.keySet()).toString());
+		assertEquals("up1", nodes.get("h1").getOutgoingConnections().get(0).getName());
+		assertSame(nodes.get("s1"), nodes.get("h1").getOutgoingConnections().get(0).getDestination());
+		assertEquals("", nodes.get("h2").getOutgoingConnections().get(0).getName());
+		assertEquals(2, nodes.get("s1").getIncomingConnections().size());
+		assertEquals(0, nodes.get("lonely").getOutDegree() + nodes.get("lonely").getInDegree());
+	}
+
+	@Test
+	public final void testAdjacencyList() throws IOException {
+		Path file = write("a b c d\nb c\nd\n");
+		Graph g = graphSystem.createGraph();
+		Map<String, Node> nodes = new EdgeListImporter(graphSystem, EdgeListImporter.Format.ADJACENCY_LIST).importFile(file, g);
+
+		assertEquals(4, g.getNodes().size());
+		assertEquals(4, g.getEdges().size());
+		assertEquals(3, nodes.get("a").getOutDegree());
+		assertEquals(2, nodes.get("c").getInDegree());
+	}
+
+	@Test
+	public final void testParallelChunks() throws IOException {
+		StringBuilder content = new StringBuilder();
+		int lines = 20000;
+		for(int i = 0; i < lines; i++)
+			content.append("n").append(i % 997).append(' ').append("n").append((i * 31) % 1009).append(" e").append(i).append('\n');
+		Path file = write(content.toString());
+
+		Graph sequential = graphSystem.createGraph();
+		Map<String, Node> expected = new EdgeListImporter(graphSystem, EdgeListImporter.Format.EDGE_LIST, 1).importFile(file, sequential);
+
+		Graph parallel = graphSystem.createGraph();
+		AtomicLong parsedBytes = new AtomicLong();
+		Map<String, Node> actual = new EdgeListImporter(graphSystem, EdgeListImporter.Format.EDGE_LIST, 4, 1000)
+				.importFile(file, parallel, (phase, done, total) -> {
+					if(phase == ImportProgressListener.Phase.PARSING)
+						parsedBytes.accumulateAndGet(done, Math::max);
+				});
+
+		assertEquals(Files.size(file), parsedBytes.get());
+		assertEquals(lines, parallel.getEdges().size());
+		assertEquals(expected.size(), parallel.getNodes().size());
+		assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(actual.keySet()));
+		for(String name : expected.keySet()) {
+			List<String> expectedEdges = new ArrayList<>();
+			for(Edge e : expected.get(name).getOutgoingConnections())
+				expectedEdges.add(e.getName() + "->" + e.getDestination().getName());
+			List<String> actualEdges = new ArrayList<>();
+			for(Edge e : actual.get(name).getOutgoingConnections())
+				actualEdges.add(e.getName() + "->" + e.getDestination().getName());
+			assertEquals(expectedEdges, actualEdges);
+		}
+	}
+
+	@Test
+	public final void testAcyclicGraph() throws IOException {
+		// A chain spread over several chunks.
+		StringBuilder content = new StringBuilder();
+		for(int i = 0; i < 999; i++)
+			content.append("n").append(i).append(' ').append("n").append(i + 1).append('\n');
+		Path chain = write(content.toString());
+		Graph dag = graphSystem.createGraph();
+		graphSystem.setAcyclic(dag, true);
+		new EdgeListImporter(graphSystem, EdgeListImporter.Format.EDGE_LIST, 4, 1000).importFile(chain, dag);
+		assertEquals(999, dag.getEdges().size());
+
+		// The same chain closed into a cycle by its last line.
+		Path cycle = write(content.append("n999 n0\n").toString());
+		Graph g = graphSystem.createGraph();
+		graphSystem.setAcyclic(g, true);
+		try {
+			new EdgeListImporter(graphSystem, EdgeListImporter.Format.EDGE_LIST, 4, 1000).importFile(cycle, g);
+			fail("A file with a cycle cannot be imported in an acyclic Graph");
+		} catch(GraphException e) {
+			// expected
+		}
+		assertEquals(0, g.getEdges().size());
+		for(Node node : g.getNodes())
+			assertEquals(0, node.getOutDegree() + node.getInDegree());
+	}
+
+	@Test(expected = GraphException.class)
+	public final void testMalformedLine() throws IOException {
+		Path file = write("a b c d\n");
+		new EdgeListImporter(graphSystem, EdgeListImporter.Format.EDGE_LIST).importFile(file, graphSystem.createGraph());
+	}
+}
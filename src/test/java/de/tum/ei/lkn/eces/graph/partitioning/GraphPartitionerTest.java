@@ -0,0 +1,112 @@
+package de.tum.ei.lkn.eces.graph.partitioning;
+
+import de.tum.ei.lkn.eces.core.Controller;
+import de.tum.ei.lkn.eces.core.MapperSpace;
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.GraphSystem;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.view.CompactGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for de.tum.ei.lkn.eces.graph.partitioning.GraphPartitioner.java.
+ *
+ * @author Amaury Van Bemten
+ */
+public class GraphPartitionerTest {
+	private Controller controller;
+	private GraphSystem graphSystem;
+
+	@Before
+	public void setup() {
+		controller = new Controller();
+		graphSystem = new GraphSystem(controller);
+	}
+
+	private Graph grid(int size) {
+		Graph g = graphSystem.createGraph();
+		try(MapperSpace ms = controller.startMapperSpace()) {
+			Node[][] nodes = new Node[size][size];
+			for(int i = 0; i < size; i++)
+				for(int j = 0; j < size; j++)
+					nodes[i][j] = graphSystem.createNode(g, i + "," + j);
+			for(int i = 0; i < size; i++) {
+				for(int j = 0; j < size; j++) {
+					if(i + 1 < size) {
+						graphSystem.createEdge(nodes[i][j], nodes[i + 1][j]);
+						graphSystem.createEdge(nodes[i + 1][j], nodes[i][j]);
+					}
+					if(j + 1 < size) {
+						graphSystem.createEdge(nodes[i][j], nodes[i][j + 1]);
+						graphSystem.createEdge(nodes[i][j + 1], nodes[i][j]);
+					}
+				}
+			}
+		}
+		return g;
+	}
+
+	@Test
+	public final void testGridPartition() {
+		int size = 30;
+		int k = 4;
+		Graph g = grid(size);
+		Partitioning partitioning = new GraphPartitioner(graphSystem).partition(g, k);
+
+		assertEquals(k, partitioning.getPartCount());
+		int totalNodes = 0;
+		int internalEdges = 0;
+		int capacity = (int) Math.ceil(1.03 * size * size / k);
+		for(Graph part : partitioning.getGraphs()) {
+			assertTrue("Part is too large", part.getNodes().size() <= capacity);
+			totalNodes += part.getNodes().size();
+			internalEdges += part.getEdges().size();
+		}
+		assertEquals(size * size, totalNodes);
+		assertEquals(g.getEdges().size(), internalEdges + partitioning.getCutSize());
+
+		// A random assignment would cut about 3/4 of the Edges.
+		assertTrue("Cut is too large: " + partitioning.getCutSize(), partitioning.getCutSize() < g.getEdges().size() / 10);
+
+		for(Edge edge : g.getEdges()) {
+			Node copy = partitioning.getPartNode(edge.getSource());
+			assertSame(edge.getSource(), partitioning.getOriginalNode(copy));
+			assertEquals(edge.getSource().getName(), copy.getName());
+			assertSame(partitioning.getGraph(partitioning.getPart(edge.getSource())), copy.getGraph());
+		}
+
+		int boundaryEntries = 0;
+		for(int p = 0; p < k; p++) {
+			for(BoundaryEdge edge : partitioning.getBoundaryEdges(p)) {
+				assertTrue(partitioning.isBoundaryEdge(edge.getEdge()));
+				assertNotEquals(edge.getSourcePart(), edge.getDestinationPart());
+				assertSame(partitioning.getGraph(edge.getDestinationPart()), edge.getDestination().getGraph());
+				boundaryEntries++;
+			}
+		}
+		assertEquals(2 * partitioning.getCutSize(), boundaryEntries);
+	}
+
+	@Test
+	public final void testDisconnectedComponentsAreNotCut() {
+		Graph g = graphSystem.createGraph();
+		for(int c = 0; c < 4; c++) {
+			Node[] ring = new Node[25];
+			for(int i = 0; i < ring.length; i++)
+				ring[i] = graphSystem.createNode(g);
+			for(int i = 0; i < ring.length; i++)
+				graphSystem.createEdge(ring[i], ring[(i + 1) % ring.length]);
+		}
+
+		int[] parts = new GraphPartitioner(graphSystem, 0, 10).assign(CompactGraph.of(g), 4);
+		int[] sizes = new int[4];
+		for(int p : parts)
+			sizes[p]++;
+		assertArrayEquals(new int[]{25, 25, 25, 25}, sizes);
+		assertEquals(0, new GraphPartitioner(graphSystem, 0, 10).partition(g, 4).getCutSize());
+	}
+}
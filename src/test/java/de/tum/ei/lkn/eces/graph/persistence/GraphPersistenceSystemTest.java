@@ -0,0 +1,162 @@
+package de.tum.ei.lkn.eces.graph.persistence;
+
+import de.tum.ei.lkn.eces.core.Controller;
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.GraphSystem;
+import de.tum.ei.lkn.eces.graph.Node;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for de.tum.ei.lkn.eces.graph.persistence.GraphPersistenceSystem.java.
+ *
+ * @author Amaury Van Bemten
+ */
+public class GraphPersistenceSystemTest {
+	private Path directory;
+	private Controller controller;
+	private GraphSystem graphSystem;
+
+	@Before
+	public void setup() throws IOException {
+		directory = Files.createTempDirectory("graph-persistence");
+		controller = new Controller();
+		graphSystem = new GraphSystem(controller);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		try(Stream<Path> files = Files.walk(directory)) {
+			files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+	}
+
+	/**
+	 * Simulates a restart: new Controller and systems on the same directory.
+	 */
+	private GraphPersistenceSystem restart(GraphSystem[] restartedGraphSystem) {
+		Controller restarted = new Controller();
+		restartedGraphSystem[0] = new GraphSystem(restarted);
+		return new GraphPersistenceSystem(restarted, restartedGraphSystem[0], directory, SyncPolicy.ALWAYS, 10, 0);
+	}
+
+	private Graph buildTopology(GraphPersistenceSystem persistence) {
+		Graph graph = persistence.open();
+		Node a = graphSystem.createNode(graph, "a");
+		Node b = graphSystem.createNode(graph, "b");
+		Node c = graphSystem.createNode(graph, "c");
+		Node d = graphSystem.createNode(graph, "d");
+		graphSystem.createEdge(a, b, "ab");
+		graphSystem.createEdge(b, c, "bc");
+		graphSystem.createEdge(b, c, "bc");
+		Edge cd = graphSystem.createEdge(c, d, "cd");
+		graphSystem.createEdge(d, a, "da");
+		graphSystem.deleteEdge(cd);
+		graphSystem.deleteNode(a);
+		return graph;
+	}
+
+	@Test
+	public final void testRecoveryFromLog() {
+		GraphPersistenceSystem persistence = new GraphPersistenceSystem(controller, graphSystem, directory, SyncPolicy.ALWAYS, 10, 0);
+		Graph graph = buildTopology(persistence);
+		persistence.close();
+
+		GraphSystem[] restartedGraphSystem = new GraphSystem[1];
+		GraphPersistenceSystem recovery = restart(restartedGraphSystem);
+		Graph recovered = recovery.open();
+		assertEquals(3, recovered.getNodes().size());
+		assertEquals(2, recovered.getEdges().size());
+		assertTrue(graphSystem.diff(graph, recovered).isEmpty());
+
+		// The recovered Graph keeps being persisted.
+		Node e = restartedGraphSystem[0].createNode(recovered, "e");
+		restartedGraphSystem[0].createEdge(recovered.getNodes().iterator().next(), e, "be");
+		recovery.close();
+
+		Graph again = restart(restartedGraphSystem).open();
+		assertEquals(4, again.getNodes().size());
+		assertEquals(3, again.getEdges().size());
+		assertTrue(graphSystem.diff(recovered, again).isEmpty());
+	}
+
+	@Test
+	public final void testCheckpointsAndTornTail() throws IOException {
+		// Periodic checkpoints every 3 records, group-committed log.
+		GraphPersistenceSystem persistence = new GraphPersistenceSystem(controller, graphSystem, directory, SyncPolicy.PERIODIC, 5, 3);
+		Graph graph = buildTopology(persistence);
+		graphSystem.createNode(graph, "x");
+		persistence.sync();
+		persistence.close();
+		assertTrue(Files.size(directory.resolve(GraphPersistenceSystem.CHECKPOINT_FILE)) > 0);
+
+		Graph recovered = restart(new GraphSystem[1]).open();
+		assertTrue(graphSystem.diff(graph, recovered).isEmpty());
+
+		// Log with a partial last record: only the complete records are replayed.
+		GraphPersistenceSystem persistence2 = new GraphPersistenceSystem(controller, graphSystem, directory.resolve("other"), SyncPolicy.NEVER, 0, 0);
+		Graph other = persistence2.open();
+		Node p = graphSystem.createNode(other, "p");
+		Node q = graphSystem.createNode(other, "q");
+		graphSystem.createEdge(p, q, "pq");
+		persistence2.close();
+		Path log = directory.resolve("other").resolve(GraphPersistenceSystem.LOG_FILE);
+		try(RandomAccessFile file = new RandomAccessFile(log.toFile(), "rw")) {
+			file.setLength(file.length() - 3);
+		}
+		Controller restarted = new Controller();
+		Graph truncated = new GraphPersistenceSystem(restarted, new GraphSystem(restarted), directory.resolve("other"), SyncPolicy.NEVER, 0, 0).open();
+		assertEquals(2, truncated.getNodes().size());
+		assertEquals(0, truncated.getEdges().size());
+	}
+
+	@Test
+	public final void testLongNamesAndNodeDeletionReplay() {
+		GraphPersistenceSystem persistence = new GraphPersistenceSystem(controller, graphSystem, directory, SyncPolicy.NEVER, 0, 0);
+		Graph graph = persistence.open();
+
+		// Longer than 64 KiB once encoded.
+		StringBuilder builder = new StringBuilder();
+		for(int i = 0; i < 30000; i++)
+			builder.append('\u00e9').append('x');
+		String longName = builder.toString();
+		Node hub = graphSystem.createNode(graph, longName);
+		Node kept = graphSystem.createNode(graph, "kept");
+		for(int i = 0; i < 100; i++) {
+			Node leaf = graphSystem.createNode(graph, "leaf" + i);
+			graphSystem.createEdge(hub, leaf, longName);
+			graphSystem.createEdge(leaf, kept, "in" + i);
+		}
+		graphSystem.createEdge(hub, hub, "loop");
+		graphSystem.deleteNode(hub);
+		persistence.close();
+
+		// Checkpoint written on recovery, then read back.
+		Graph recovered = restart(new GraphSystem[1]).open();
+		assertTrue(graphSystem.diff(graph, recovered).isEmpty());
+		assertEquals(101, recovered.getNodes().size());
+		assertEquals(100, recovered.getEdges().size());
+
+		GraphSystem[] restartedGraphSystem = new GraphSystem[1];
+		GraphPersistenceSystem again = restart(restartedGraphSystem);
+		Graph reread = again.open();
+		Node leaf = reread.getNodes().iterator().next();
+		Edge logged = restartedGraphSystem[0].createEdge(leaf, leaf, longName);
+		again.close();
+
+		Graph last = restart(new GraphSystem[1]).open();
+		assertEquals(101, last.getEdges().size());
+		assertTrue(last.getEdges().stream().anyMatch(edge -> edge.getName().equals(logged.getName())));
+	}
+}
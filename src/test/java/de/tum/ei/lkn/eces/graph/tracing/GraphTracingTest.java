@@ -0,0 +1,246 @@
+package de.tum.ei.lkn.eces.graph.tracing;
+
+import de.tum.ei.lkn.eces.core.ComponentStatus;
+import de.tum.ei.lkn.eces.core.Controller;
+import de.tum.ei.lkn.eces.core.RootSystem;
+import de.tum.ei.lkn.eces.core.annotations.ComponentStateIs;
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.GraphSystem;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for de.tum.ei.lkn.eces.graph.tracing.GraphTracing.java and the
+ * JFR events it emits.
+ *
+ * @author Amaury Van Bemten
+ */
+public class GraphTracingTest {
+	private Controller controller;
+	private GraphSystem graphSystem;
+
+	@Before
+	public void setup() {
+		controller = new Controller();
+		graphSystem = new GraphSystem(controller);
+	}
+
+	@Test
+	public final void testRecordedEvents() throws IOException {
+		List<RecordedEvent> events;
+		Graph graph;
+		try(Recording recording = new Recording()) {
+			recording.enable(GraphOperationEvent.class).withThreshold(Duration.ZERO);
+			recording.enable(GraphPhaseEvent.class).withThreshold(Duration.ZERO);
+			recording.start();
+
+			graph = graphSystem.createGraph();
+			Node a = graphSystem.createNode(graph);
+			Node b = graphSystem.createNode(graph);
+			graphSystem.createNodes(graph, new String[]{"c", "d"});
+			Edge ab = graphSystem.createEdge(a, b);
+			graphSystem.createEdge(b, a);
+			graphSystem.deleteEdge(ab);
+			graph.toGML();
+			graphSystem.deleteNode(a);
+			graphSystem.deleteGraph(graph);
+
+			recording.stop();
+			events = read(recording);
+		}
+
+		List<String> operations = new ArrayList<>();
+		for(RecordedEvent event : events)
+			if(event.getEventType().getName().equals(GraphOperationEvent.NAME))
+				operations.add(event.getString("operation"));
+		assertEquals(9, operations.size());
+		assertEquals(2, count(operations, "createNode"));
+		assertEquals(1, count(operations, "createNodes"));
+		assertEquals(2, count(operations, "createEdge"));
+		assertEquals(1, count(operations, "deleteEdge"));
+		assertEquals(1, count(operations, "toGML"));
+		assertEquals(1, count(operations, "deleteNode"));
+		assertEquals(1, count(operations, "deleteGraph"));
+
+		for(RecordedEvent event : events) {
+			if(!event.getEventType().getName().equals(GraphOperationEvent.NAME))
+				continue;
+			assertEquals(graph.getId(), event.getLong("graphId"));
+			switch(event.getString("operation")) {
+				case "createNodes":
+					assertEquals(2, event.getInt("affected"));
+					assertEquals(4, event.getInt("nodeCount"));
+					break;
+				case "toGML":
+					assertEquals(4, event.getInt("nodeCount"));
+					assertEquals(1, event.getInt("edgeCount"));
+					break;
+				case "deleteNode":
+					// The Node and its remaining Edge.
+					assertEquals(2, event.getInt("affected"));
+					assertEquals(3, event.getInt("nodeCount"));
+					assertEquals(0, event.getInt("edgeCount"));
+					break;
+				case "deleteGraph":
+					assertEquals(3, event.getInt("affected"));
+					assertEquals(0, event.getInt("nodeCount"));
+					break;
+			}
+		}
+
+		List<String> phases = new ArrayList<>();
+		for(RecordedEvent event : events)
+			if(event.getEventType().getName().equals(GraphPhaseEvent.NAME) && event.getString("operation").equals("deleteEdge"))
+				phases.add(event.getString("phase"));
+		assertEquals(3, phases.size());
+		assertTrue(phases.contains(PhaseTrace.LOCK));
+		assertTrue(phases.contains(PhaseTrace.UPDATE));
+		assertTrue(phases.contains(PhaseTrace.COMMIT));
+	}
+
+	@Test
+	public final void testAcyclicBatch() throws IOException {
+		Graph graph = graphSystem.createGraph();
+		graphSystem.setAcyclic(graph, true);
+		Node[] nodes = graphSystem.createNodes(graph, new String[3]);
+
+		List<String> operations = new ArrayList<>();
+		try(Recording recording = new Recording()) {
+			recording.enable(GraphOperationEvent.class).withThreshold(Duration.ZERO);
+			recording.start();
+			graphSystem.createEdges(new Node[]{nodes[0], nodes[1]}, new Node[]{nodes[1], nodes[2]}, null);
+			recording.stop();
+			for(RecordedEvent event : read(recording)) {
+				if(event.getEventType().getName().equals(GraphOperationEvent.NAME)) {
+					operations.add(event.getString("operation"));
+					assertEquals(2, event.getInt("affected"));
+				}
+			}
+		}
+		assertEquals(Collections.singletonList("createEdges"), operations);
+	}
+
+	@Test
+	public final void testFailedOperation() throws IOException {
+		Graph graph = graphSystem.createGraph();
+		graphSystem.setAcyclic(graph, true);
+		Node[] nodes = graphSystem.createNodes(graph, new String[2]);
+		graphSystem.createEdge(nodes[0], nodes[1]);
+
+		List<Boolean> failures = new ArrayList<>();
+		try(Recording recording = new Recording()) {
+			recording.enable(GraphOperationEvent.class).withThreshold(Duration.ZERO);
+			recording.start();
+			try {
+				graphSystem.createEdge(nodes[1], nodes[0]);
+				fail("The Edge should close a cycle");
+			} catch(GraphException e) {
+				// Expected.
+			}
+			graphSystem.createNode(graph);
+			recording.stop();
+			for(RecordedEvent event : read(recording))
+				if(event.getEventType().getName().equals(GraphOperationEvent.NAME))
+					failures.add(event.getBoolean("failed"));
+		}
+		assertEquals(Arrays.asList(true, false), failures);
+	}
+
+	@Test
+	public final void testDisabledEvents() {
+		// No recording is running: nothing is allocated.
+		assertSame(GraphTracing.NO_OP, GraphTracing.beginOperation("createNode"));
+		assertSame(GraphTracing.NO_OP, GraphTracing.beginPhase("createNode", PhaseTrace.COMMIT));
+	}
+
+	@Test
+	public final void testDefaultThreshold() throws IOException {
+		assertTrue(GraphTracing.isJfrAvailable());
+		new SlowNodeListener(controller);
+		List<RecordedEvent> events = new ArrayList<>();
+		try(Recording recording = new Recording()) {
+			recording.start();
+			Graph graph = graphSystem.createGraph();
+			Node previous = graphSystem.createNode(graph);
+			for(int i = 0; i < 1000; i++) {
+				Node next = graphSystem.createNode(graph);
+				graphSystem.createEdge(previous, next);
+				previous = next;
+			}
+			graphSystem.createNode(graph, SlowNodeListener.SLOW);
+			recording.stop();
+			for(RecordedEvent event : read(recording))
+				if(event.getEventType().getName().startsWith("de.tum.ei.lkn.eces.graph"))
+					events.add(event);
+		}
+
+		// Only the slow operations are recorded with the default settings.
+		boolean slowOperation = false;
+		boolean slowCommit = false;
+		for(RecordedEvent event : events) {
+			assertTrue(event.getDuration().compareTo(Duration.ofMillis(1)) >= 0);
+			if(event.getString("operation").equals("createNode")) {
+				if(event.getEventType().getName().equals(GraphOperationEvent.NAME))
+					slowOperation = true;
+				else if(event.getString("phase").equals(PhaseTrace.COMMIT))
+					slowCommit = true;
+			}
+		}
+		assertTrue("The slow Node creation should be recorded", slowOperation);
+		assertTrue("The slow event dispatch should be recorded as commit phase", slowCommit);
+	}
+
+	/**
+	 * System slowing down the dispatch of the creation of the Nodes named
+	 * SLOW.
+	 */
+	public static class SlowNodeListener extends RootSystem {
+		static final String SLOW = "slow";
+
+		public SlowNodeListener(Controller controller) {
+			super(controller);
+		}
+
+		@ComponentStateIs(State = ComponentStatus.New)
+		public void nodeCreated(Node node) throws InterruptedException {
+			if(SLOW.equals(node.getName()))
+				Thread.sleep(20);
+		}
+	}
+
+	private static List<RecordedEvent> read(Recording recording) throws IOException {
+		Path file = Files.createTempFile("graph-tracing", ".jfr");
+		try {
+			recording.dump(file);
+			return RecordingFile.readAllEvents(file);
+		}
+		finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	private static int count(List<String> values, String value) {
+		int count = 0;
+		for(String v : values)
+			if(v.equals(value))
+				count++;
+		return count;
+	}
+}
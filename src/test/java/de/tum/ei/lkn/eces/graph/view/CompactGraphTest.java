@@ -0,0 +1,141 @@
+package de.tum.ei.lkn.eces.graph.view;
+
+import de.tum.ei.lkn.eces.core.Controller;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.GraphSystem;
+import de.tum.ei.lkn.eces.graph.Node;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for de.tum.ei.lkn.eces.graph.view.CompactGraph.java and
+ * de.tum.ei.lkn.eces.graph.view.NodeOrdering.java.
+ *
+ * @author Amaury Van Bemten
+ */
+public class CompactGraphTest {
+	private GraphSystem graphSystem;
+
+	@Before
+	public void setup() {
+		graphSystem = new GraphSystem(new Controller());
+	}
+
+	/**
+	 * Grid whose Nodes are created in random order.
+	 */
+	private Graph shuffledGrid(int size) {
+		Graph g = graphSystem.createGraph();
+		List<Integer> ids = new ArrayList<>();
+		for(int i = 0; i < size * size; i++)
+			ids.add(i);
+		Collections.shuffle(ids, new Random(1));
+		Node[] nodes = new Node[size * size];
+		for(int id : ids)
+			nodes[id] = graphSystem.createNode(g, Integer.toString(id));
+		for(int i = 0; i < size; i++) {
+			for(int j = 0; j < size; j++) {
+				if(i + 1 < size)
+					graphSystem.createEdge(nodes[i * size + j], nodes[(i + 1) * size + j]);
+				if(j + 1 < size)
+					graphSystem.createEdge(nodes[i * size + j], nodes[i * size + j + 1]);
+			}
+		}
+		return g;
+	}
+
+	private static int bandwidth(CompactGraph graph) {
+		int bandwidth = 0;
+		for(int e = 0; e < graph.edgeCount(); e++)
+			bandwidth = Math.max(bandwidth, Math.abs(graph.source(e) - graph.target(e)));
+		return bandwidth;
+	}
+
+	private static void checkConsistency(CompactGraph base, CompactGraph view) {
+		assertEquals(base.nodeCount(), view.nodeCount());
+		assertEquals(base.edgeCount(), view.edgeCount());
+		boolean[] seen = new boolean[view.nodeCount()];
+		for(int v = 0; v < view.nodeCount(); v++) {
+			assertSame(view.getNode(v), base.getNode(view.getOriginalIndex(v)));
+			assertEquals(v, view.indexOf(view.getNode(v)));
+			assertFalse("Permutation is not a bijection", seen[view.getOriginalIndex(v)]);
+			seen[view.getOriginalIndex(v)] = true;
+			for(int e = view.outBegin(v); e < view.outEnd(v); e++)
+				assertSame(view.getNode(v), view.getEdge(e).getSource());
+			for(int i = view.inBegin(v); i < view.inEnd(v); i++)
+				assertSame(view.getNode(v), view.getEdge(view.inEdge(i)).getDestination());
+		}
+		for(int e = 0; e < view.edgeCount(); e++) {
+			assertEquals(e, view.indexOf(view.getEdge(e)));
+			assertSame(view.getNode(view.target(e)), view.getEdge(e).getDestination());
+		}
+	}
+
+	@Test
+	public final void testOrderingsArePermutations() {
+		Graph g = shuffledGrid(12);
+		CompactGraph base = CompactGraph.of(g);
+		for(NodeOrdering ordering : NodeOrdering.values()) {
+			CompactGraph view = CompactGraph.of(g, ordering);
+			assertEquals(ordering, view.getOrdering());
+			checkConsistency(base, view);
+			// Reordering a reordered view still refers to the Graph order.
+			checkConsistency(base, view.reorder(NodeOrdering.DEGREE));
+		}
+	}
+
+	@Test
+	public final void testReverseCuthillMcKeeReducesBandwidth() {
+		int size = 20;
+		Graph g = shuffledGrid(size);
+		int before = bandwidth(CompactGraph.of(g));
+		int after = bandwidth(CompactGraph.of(g, NodeOrdering.REVERSE_CUTHILL_MCKEE));
+		assertTrue("Bandwidth " + after + " should be close to the grid width", after <= 2 * size);
+		assertTrue(after < before);
+	}
+
+	@Test
+	public final void testDegreeOrdering() {
+		Graph g = graphSystem.createGraph();
+		Node leaf = graphSystem.createNode(g);
+		Node hub = graphSystem.createNode(g);
+		for(int i = 0; i < 5; i++)
+			graphSystem.createEdge(hub, graphSystem.createNode(g));
+		graphSystem.createEdge(leaf, hub);
+
+		assertSame(hub, CompactGraph.of(g, NodeOrdering.DEGREE).getNode(0));
+	}
+
+	@Test
+	public final void testRabbitKeepsCommunitiesContiguous() {
+		Graph g = graphSystem.createGraph();
+		List<Node> a = new ArrayList<>();
+		List<Node> b = new ArrayList<>();
+		// Interleave the creation of two cliques joined by a single Edge.
+		for(int i = 0; i < 8; i++) {
+			a.add(graphSystem.createNode(g, "a" + i));
+			b.add(graphSystem.createNode(g, "b" + i));
+		}
+		for(List<Node> clique : Arrays.asList(a, b))
+			for(Node x : clique)
+				for(Node y : clique)
+					if(x != y)
+						graphSystem.createEdge(x, y);
+		graphSystem.createEdge(a.get(0), b.get(0));
+
+		CompactGraph view = CompactGraph.of(g, NodeOrdering.RABBIT);
+		char first = view.getNode(0).getName().charAt(0);
+		for(int v = 0; v < 8; v++)
+			assertEquals(first, view.getNode(v).getName().charAt(0));
+		for(int v = 8; v < 16; v++)
+			assertNotEquals(first, view.getNode(v).getName().charAt(0));
+	}
+}
@@ -0,0 +1,164 @@
+package de.tum.ei.lkn.eces.graph.weights;
+
+import de.tum.ei.lkn.eces.core.Controller;
+import de.tum.ei.lkn.eces.graph.Edge;
+import de.tum.ei.lkn.eces.graph.Graph;
+import de.tum.ei.lkn.eces.graph.GraphSystem;
+import de.tum.ei.lkn.eces.graph.Node;
+import de.tum.ei.lkn.eces.graph.algorithms.KShortestPaths;
+import de.tum.ei.lkn.eces.graph.algorithms.Path;
+import de.tum.ei.lkn.eces.graph.exceptions.GraphException;
+import de.tum.ei.lkn.eces.graph.view.CompactGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for de.tum.ei.lkn.eces.graph.weights.EdgeWeightSystem.java.
+ *
+ * @author Amaury Van Bemten
+ */
+public class EdgeWeightSystemTest {
+	private GraphSystem graphSystem;
+	private EdgeWeightSystem weightSystem;
+	private Graph graph;
+
+	@Before
+	public void setup() {
+		Controller controller = new Controller();
+		graphSystem = new GraphSystem(controller);
+		weightSystem = new EdgeWeightSystem(controller);
+		graph = graphSystem.createGraph();
+	}
+
+	@Test
+	public final void testSlotRecycling() {
+		Node a = graphSystem.createNode(graph);
+		Node b = graphSystem.createNode(graph);
+		Edge ab = graphSystem.createEdge(a, b);
+		EdgeWeights weights = weightSystem.track(graph, 1.0);
+		assertSame(weights, weightSystem.track(graph, 5.0));
+		assertEquals(1.0, weights.get(ab), 0);
+
+		Edge ba = graphSystem.createEdge(b, a);
+		assertEquals(2, weights.size());
+		weights.set(ba, 3.5);
+		assertEquals(4.0, weights.add(ba, 0.5), 0);
+		assertEquals(4.0, weights.get(weights.slotOf(ba)), 0);
+
+		graphSystem.deleteEdge(ab);
+		assertFalse(weights.contains(ab));
+		Edge again = graphSystem.createEdge(a, b);
+		assertEquals(1.0, weights.get(again), 0);
+
+		// Slots of deleted Edges are reused once the array is replaced.
+		for(int i = 0; i < 1000; i++) {
+			Edge edge = graphSystem.createEdge(a, b);
+			weights.set(edge, i);
+			graphSystem.deleteEdge(edge);
+		}
+		assertEquals(2, weights.size());
+		assertEquals(16, weights.slotCount());
+		assertEquals(4.0, weights.get(ba), 0);
+		assertEquals(1.0, weights.get(again), 0);
+
+		try {
+			weights.set(ab, 2.0);
+			fail("Deleted Edges have no weight");
+		} catch(GraphException e) {
+		}
+	}
+
+	@Test
+	public final void testGrowthAndSnapshot() {
+		EdgeWeights weights = weightSystem.track(graph, 0.0);
+		Node[] nodes = new Node[10];
+		for(int i = 0; i < nodes.length; i++)
+			nodes[i] = graphSystem.createNode(graph);
+		List<Edge> edges = new ArrayList<>();
+		for(int i = 0; i < nodes.length; i++)
+			for(int j = 0; j < nodes.length; j++)
+				if(i != j)
+					edges.add(graphSystem.createEdge(nodes[i], nodes[j]));
+		for(int i = 0; i < edges.size(); i++)
+			weights.set(edges.get(i), i);
+
+		EdgeWeightSnapshot snapshot = weights.snapshot();
+		weights.set(edges.get(0), 1000);
+		assertEquals(edges.size(), snapshot.size());
+		for(int i = 0; i < edges.size(); i++)
+			assertEquals(i, snapshot.get(edges.get(i)), 0);
+
+		CompactGraph compact = CompactGraph.of(graph);
+		double[] array = snapshot.toArray(compact);
+		for(int e = 0; e < array.length; e++)
+			assertEquals(snapshot.get(compact.getEdge(e)), array[e], 0);
+
+		// The snapshot is a cost function.
+		List<Path> paths = new KShortestPaths(compact, snapshot).compute(nodes[9], nodes[0], 1);
+		assertEquals(1, paths.size());
+
+		graphSystem.deleteGraph(graph);
+		assertNull(weightSystem.getWeights(graph));
+	}
+
+	@Test(timeout = 20000)
+	public final void testConcurrentUpdates() throws InterruptedException {
+		Node a = graphSystem.createNode(graph);
+		Node b = graphSystem.createNode(graph);
+		Edge ab = graphSystem.createEdge(a, b);
+		Edge ba = graphSystem.createEdge(b, a);
+		EdgeWeights weights = weightSystem.track(graph, 0.0);
+		int slot = weights.slotOf(ab);
+
+		int threads = 4;
+		int updates = 20000;
+		List<Thread> writers = new ArrayList<>();
+		for(int t = 0; t < threads; t++) {
+			Thread writer = new Thread(() -> {
+				for(int i = 0; i < updates; i++) {
+					weights.add(slot, 1);
+					weights.set(ba, i);
+				}
+			});
+			writers.add(writer);
+			writer.start();
+		}
+		double last = 0;
+		while(writers.stream().anyMatch(Thread::isAlive)) {
+			double current = weights.snapshot().get(ab);
+			assertTrue(current >= last);
+			last = current;
+		}
+		for(Thread writer : writers)
+			writer.join();
+		assertEquals(threads * updates, weights.get(ab), 0);
+		assertEquals(updates - 1, weights.get(ba), 0);
+	}
+
+	@Test(timeout = 20000)
+	public final void testTrackingDuringCreations() throws InterruptedException {
+		graphSystem.setConcurrent(graph, true);
+		Node a = graphSystem.createNode(graph);
+		Node b = graphSystem.createNode(graph);
+		for(int i = 0; i < 1000; i++)
+			graphSystem.createEdge(a, b);
+
+		Thread creator = new Thread(() -> {
+			for(int i = 0; i < 5000; i++)
+				graphSystem.createEdge(b, a);
+		});
+		creator.start();
+		EdgeWeights weights = weightSystem.track(graph, 2.0);
+		creator.join();
+
+		// No Edge created while the existing ones were scanned is missed.
+		assertEquals(graph.getEdges().size(), weights.size());
+		for(Edge edge : graph.getEdges())
+			assertEquals(2.0, weights.get(edge), 0);
+	}
+}